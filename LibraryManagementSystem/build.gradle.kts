@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -25,4 +26,25 @@ tasks.test {
 
 application {
     mainClass.set("org.librarymanagement.LibraryManagementDemo")
-}
\ No newline at end of file
+}
+
+// ./gradlew loadTest -PloadTestArgs="--rate=5000 --threads=16 --duration=120"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Drives a synthetic workload against the services and reports latency percentiles"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.librarymanagement.workload.LoadTest")
+    jvmArgs("-Xmx4g", "-Dlogback.configurationFile=logback-loadtest.xml")
+    (findProperty("loadTestArgs") as String?)?.let { args(it.split(" ").filter { arg -> arg.isNotBlank() }) }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    jvmArgs.set(listOf("-Xmx8g", "-Dlogback.configurationFile=logback-jmh.xml"))
+    resultFormat.set("JSON")
+    // ./gradlew jmh -PjmhIncludes=LendingServiceBenchmark
+    (findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
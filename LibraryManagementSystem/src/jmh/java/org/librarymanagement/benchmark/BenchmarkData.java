@@ -0,0 +1,121 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.IdGenerators;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogues, patrons and lending histories for the benchmarks.
+ * Titles are three words from a fixed vocabulary and there is one author per 20 books,
+ * so text searches and author recommendations have realistic hit counts at every size.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42;
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ren", "sa", "to", "vel", "dar", "qui", "nor",
+            "bel", "cor", "fen", "gal", "hol", "jin", "mor", "pra", "sil", "tav"
+    };
+    private static final String[] VOCABULARY = vocabulary(2000);
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+    private BenchmarkData() {
+    }
+
+    static String isbn(int index) {
+        return String.format("978%010d", index);
+    }
+
+    static List<Book> books(int count) {
+        Random random = new Random(SEED);
+        int authors = Math.max(1, count / 20);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = word(random) + " " + word(random) + " " + word(random);
+            String author = "Author " + capitalize(VOCABULARY[random.nextInt(authors) % VOCABULARY.length])
+                    + " " + random.nextInt(authors);
+            books.add(new Book(isbn(i), title, author, 1950 + random.nextInt(75)));
+        }
+        return books;
+    }
+
+    static List<Patron> patrons(int count) {
+        List<Patron> patrons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patrons.add(PatronFactory.createFaculty("Patron " + i, "patron" + i + "@library.org", "555-" + i));
+        }
+        return patrons;
+    }
+
+    /**
+     * Returned loans spread uniformly over patrons and books
+     */
+    static List<LendingRecord> history(List<Patron> patrons, int catalogueSize, int historySize) {
+        Random random = new Random(SEED + 1);
+        List<LendingRecord> records = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            Patron patron = patrons.get(random.nextInt(patrons.size()));
+            LocalDateTime borrowed = START.plusMinutes(i);
+            LendingRecord record = new LendingRecord(IdGenerators.nextCompactId(), patron.getPatronId(),
+                    isbn(random.nextInt(catalogueSize)), borrowed, borrowed.plusDays(14));
+            record.setReturnDate(borrowed.plusDays(7));
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Heap in use after full collections; the difference around filling a repository is its footprint
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // A single System.gc() may leave garbage behind, so keep the lowest of a few readings
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Print the heap retained by a repository beyond the entities stored in it
+     */
+    static void reportFootprint(String repository, int entries, long before, long after) {
+        long bytes = Math.max(0, after - before);
+        System.out.printf("%n%s footprint: %,d bytes for %,d entries (%.1f bytes per entry)%n",
+                repository, bytes, entries, (double) bytes / entries);
+    }
+
+    /**
+     * A word that occurs in generated titles
+     */
+    static String word(Random random) {
+        return VOCABULARY[random.nextInt(VOCABULARY.length)];
+    }
+
+    private static String[] vocabulary(int size) {
+        Random random = new Random(SEED);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,79 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.repository.BookRepository;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.MappedBookRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ISBN lookups on the heap repository and on the memory-mapped one.
+ * The mapped repository lives in a temporary directory that is removed after the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookRepositoryBenchmark {
+
+    @Param({"inMemory", "mapped"})
+    public String repository;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogueSize;
+
+    private BookRepository bookRepository;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (repository.equals("mapped")) {
+            directory = Files.createTempDirectory("book-benchmark");
+            bookRepository = new MappedBookRepository(directory);
+        } else if (repository.equals("inMemory")) {
+            bookRepository = new InMemoryBookRepository();
+        } else {
+            throw new IllegalArgumentException("Unknown book repository: " + repository);
+        }
+        for (Book book : BenchmarkData.books(catalogueSize)) {
+            bookRepository.add(book);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (bookRepository instanceof MappedBookRepository mapped) {
+            mapped.close();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Book> findByIsbn() {
+        return bookRepository.findByIsbn(BenchmarkData.isbn(ThreadLocalRandom.current().nextInt(catalogueSize)));
+    }
+
+    @Benchmark
+    public Optional<Book> findByIsbnMiss() {
+        return bookRepository.findByIsbn(BenchmarkData.isbn(catalogueSize + ThreadLocalRandom.current().nextInt(catalogueSize)));
+    }
+}
@@ -0,0 +1,90 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.repository.InMemoryLendingRepository;
+import org.librarymanagement.repository.LendingRepository;
+import org.librarymanagement.repository.LongKeyedLendingRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lending history lookups on the String-keyed InMemoryLendingRepository and the
+ * primitive-keyed LongKeyedLendingRepository. A tenth of the records are active loans.
+ * Setup prints each repository's footprint: the heap its maps and indexes retain, records excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LendingRepositoryBenchmark {
+
+    private static final int CATALOGUE = 1_000_000;
+
+    @Param({"inMemory", "longKeyed"})
+    public String repository;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int historySize;
+
+    private LendingRepository lendingRepository;
+    private LendingRecord[] records;
+    private List<Patron> patrons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // About a hundred records per patron
+        patrons = BenchmarkData.patrons(Math.max(100, historySize / 100));
+        records = BenchmarkData.history(patrons, CATALOGUE, historySize).toArray(new LendingRecord[0]);
+        for (int i = 0; i < records.length; i += 10) {
+            records[i].setReturnDate(null);
+        }
+
+        long before = BenchmarkData.usedHeap();
+        if (repository.equals("longKeyed")) {
+            lendingRepository = new LongKeyedLendingRepository(historySize);
+        } else if (repository.equals("inMemory")) {
+            lendingRepository = new InMemoryLendingRepository();
+        } else {
+            throw new IllegalArgumentException("Unknown lending repository: " + repository);
+        }
+        for (LendingRecord record : records) {
+            lendingRepository.add(record);
+        }
+        BenchmarkData.reportFootprint(lendingRepository.getClass().getSimpleName(), historySize,
+                before, BenchmarkData.usedHeap());
+    }
+
+    @Benchmark
+    public Optional<LendingRecord> findById() {
+        return lendingRepository.findById(randomRecord().getRecordId());
+    }
+
+    @Benchmark
+    public List<LendingRecord> findByPatronId() {
+        return lendingRepository.findByPatronId(patrons.get(ThreadLocalRandom.current().nextInt(patrons.size())).getPatronId());
+    }
+
+    @Benchmark
+    public List<LendingRecord> findByIsbn() {
+        return lendingRepository.findByIsbn(randomRecord().getIsbn());
+    }
+
+    @Benchmark
+    public Optional<LendingRecord> findActiveLending() {
+        LendingRecord record = randomRecord();
+        return lendingRepository.findActiveLending(record.getIsbn(), record.getPatronId());
+    }
+
+    @Benchmark
+    public List<LendingRecord> findAllActive() {
+        return lendingRepository.findAllActive();
+    }
+
+    private LendingRecord randomRecord() {
+        return records[ThreadLocalRandom.current().nextInt(records.length)];
+    }
+}
@@ -0,0 +1,83 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.InMemoryLendingRepository;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+import org.librarymanagement.service.LendingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout and return of a random book by a random patron, with no observers registered.
+ * Every invocation adds one lending record, so the history grows by the number of
+ * invocations on top of historySize during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LendingServiceBenchmark {
+
+    private static final int PATRONS = 10_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogueSize;
+
+    @Param({"0", "1000000"})
+    public int historySize;
+
+    private LendingService lendingService;
+    private List<Patron> patrons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+        InMemoryPatronRepository patronRepository = new InMemoryPatronRepository();
+        InMemoryLendingRepository lendingRepository = new InMemoryLendingRepository();
+        for (Book book : BenchmarkData.books(catalogueSize)) {
+            bookRepository.add(book);
+        }
+        patrons = BenchmarkData.patrons(PATRONS);
+        for (Patron patron : patrons) {
+            patronRepository.add(patron);
+        }
+        for (LendingRecord record : BenchmarkData.history(patrons, catalogueSize, historySize)) {
+            lendingRepository.add(record);
+        }
+        lendingService = new LendingService(bookRepository, patronRepository, lendingRepository);
+    }
+
+    @Benchmark
+    public LendingRecord borrowAndReturn() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String isbn = BenchmarkData.isbn(random.nextInt(catalogueSize));
+        String patronId = patrons.get(random.nextInt(PATRONS)).getPatronId();
+        LendingRecord record = lendingService.borrowBook(isbn, patronId);
+        lendingService.returnBook(isbn, patronId);
+        return record;
+    }
+
+    /**
+     * Same operation from several threads. Two threads can pick the same book, so a failed
+     * checkout is counted as an operation (it took the locks and read the book like a real one).
+     */
+    @Benchmark
+    @Threads(4)
+    public Object borrowAndReturnContended() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String isbn = BenchmarkData.isbn(random.nextInt(catalogueSize));
+        String patronId = patrons.get(random.nextInt(PATRONS)).getPatronId();
+        try {
+            LendingRecord record = lendingService.borrowBook(isbn, patronId);
+            lendingService.returnBook(isbn, patronId);
+            return record;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patron lookups by ID on InMemoryPatronRepository
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PatronRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int patronCount;
+
+    private InMemoryPatronRepository patronRepository;
+    private List<Patron> patrons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        patronRepository = new InMemoryPatronRepository();
+        patrons = BenchmarkData.patrons(patronCount);
+        for (Patron patron : patrons) {
+            patronRepository.add(patron);
+        }
+    }
+
+    @Benchmark
+    public Optional<Patron> findById() {
+        return patronRepository.findById(patrons.get(ThreadLocalRandom.current().nextInt(patronCount)).getPatronId());
+    }
+}
@@ -0,0 +1,105 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+import org.librarymanagement.observer.HeavyHitterPopularityTracker;
+import org.librarymanagement.observer.PopularitySource;
+import org.librarymanagement.observer.TrendingPopularityTracker;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.InMemoryLendingRepository;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+import org.librarymanagement.strategy.AuthorBasedRecommendationStrategy;
+import org.librarymanagement.strategy.HeavyHitterRecommendationStrategy;
+import org.librarymanagement.strategy.PopularityBasedRecommendationStrategy;
+import org.librarymanagement.strategy.RecommendationStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ten recommendations for a random patron from every RecommendationStrategy.
+ * Patron histories are paged from an InMemoryLendingRepository, as LendingService sets them up.
+ * The popularity rankings are seeded from the same history and index the catalogue up front,
+ * as they would when registered with BookService; trending ranks the last 7 days of that history.
+ * The heavy-hitter tracker is seeded from the same history and looks books up in a repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecommendationStrategyBenchmark {
+
+    private static final int PATRONS = 10_000;
+    private static final int LIMIT = 10;
+
+    @Param({"author", "popularity", "trending", "heavyhitter"})
+    public String strategy;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogueSize;
+
+    @Param({"10000", "1000000"})
+    public int historySize;
+
+    private RecommendationStrategy recommendationStrategy;
+    private List<Book> books;
+    private List<Patron> patrons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = BenchmarkData.books(catalogueSize);
+        patrons = BenchmarkData.patrons(PATRONS);
+        InMemoryLendingRepository lendingRepository = new InMemoryLendingRepository();
+        List<LendingRecord> history = BenchmarkData.history(patrons, catalogueSize, historySize);
+        for (LendingRecord record : history) {
+            lendingRepository.add(record);
+        }
+        for (Patron patron : patrons) {
+            patron.setHistoryArchive(lendingRepository::findByPatronId);
+        }
+        if (strategy.equals("popularity") || strategy.equals("trending")) {
+            PopularitySource popularitySource;
+            if (strategy.equals("popularity")) {
+                BorrowPopularityTracker popularityTracker = new BorrowPopularityTracker();
+                popularityTracker.seed(history);
+                popularitySource = popularityTracker;
+            } else {
+                LocalDateTime end = history.get(history.size() - 1).getBorrowDate();
+                TrendingPopularityTracker trendingTracker = new TrendingPopularityTracker(
+                        Clock.fixed(end.toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                        TrendingPopularityTracker.LAST_7_DAYS);
+                trendingTracker.seed(history);
+                popularitySource = trendingTracker.getWindow(TrendingPopularityTracker.LAST_7_DAYS);
+            }
+            PopularityBasedRecommendationStrategy popularity = new PopularityBasedRecommendationStrategy(popularitySource);
+            for (Book book : books) {
+                popularity.onBookAdded(book);
+            }
+            recommendationStrategy = popularity;
+        } else if (strategy.equals("heavyhitter")) {
+            InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+            books.forEach(bookRepository::add);
+            InMemoryPatronRepository patronRepository = new InMemoryPatronRepository();
+            patrons.forEach(patronRepository::add);
+            HeavyHitterPopularityTracker heavyHitters = new HeavyHitterPopularityTracker(bookRepository, patronRepository);
+            heavyHitters.seed(history);
+            recommendationStrategy = new HeavyHitterRecommendationStrategy(heavyHitters, bookRepository);
+        } else if (strategy.equals("author")) {
+            recommendationStrategy = new AuthorBasedRecommendationStrategy();
+        } else {
+            throw new IllegalArgumentException("Unknown recommendation strategy: " + strategy);
+        }
+    }
+
+    @Benchmark
+    public List<Book> recommend() {
+        Patron patron = patrons.get(ThreadLocalRandom.current().nextInt(PATRONS));
+        return recommendationStrategy.recommend(patron, books, LIMIT);
+    }
+}
@@ -0,0 +1,62 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.repository.InMemoryReservationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue lookups on InMemoryReservationRepository with queueDepth holds on each of 10,000 books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationRepositoryBenchmark {
+
+    private static final int BOOKS = 10_000;
+    private static final int PATRONS = 100_000;
+
+    @Param({"1", "16", "256"})
+    public int queueDepth;
+
+    private InMemoryReservationRepository reservationRepository;
+    private List<Patron> patrons;
+    private List<Reservation> reservations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reservationRepository = new InMemoryReservationRepository();
+        patrons = BenchmarkData.patrons(PATRONS);
+        reservations = new ArrayList<>(BOOKS * queueDepth);
+        for (int position = 0; position < queueDepth; position++) {
+            for (int book = 0; book < BOOKS; book++) {
+                Patron patron = patrons.get((book * queueDepth + position) % PATRONS);
+                Reservation reservation = new Reservation(BenchmarkData.isbn(book), patron.getPatronId());
+                reservationRepository.save(reservation);
+                reservations.add(reservation);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Reservation> findNextActiveReservation() {
+        return reservationRepository.findNextActiveReservation(BenchmarkData.isbn(ThreadLocalRandom.current().nextInt(BOOKS)));
+    }
+
+    @Benchmark
+    public int getQueuePosition() {
+        Reservation reservation = reservations.get(ThreadLocalRandom.current().nextInt(reservations.size()));
+        return reservationRepository.getQueuePosition(reservation.getReservationId());
+    }
+
+    @Benchmark
+    public List<Reservation> findByPatronId() {
+        return reservationRepository.findByPatronId(patrons.get(ThreadLocalRandom.current().nextInt(PATRONS)).getPatronId());
+    }
+}
@@ -0,0 +1,80 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.BookStatus;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+import org.librarymanagement.repository.InMemoryReservationRepository;
+import org.librarymanagement.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold placement and hand-over on a fully lent-out catalogue.
+ * The operations target a hot set of up to 1000 books whose queues are prefilled to queueDepth.
+ * Each invocation joins a queue and then returns the book, which makes the head of that queue
+ * ready for pickup; the ready hold is deleted again so the queues keep their depth.
+ * Patrons and books are visited round-robin with co-prime strides, so a patron comes back to a
+ * book only after its earlier hold there has been served.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationServiceBenchmark {
+
+    private static final int PATRONS = 100_000;
+    private static final int HOT_BOOKS = 1000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogueSize;
+
+    @Param({"0", "16"})
+    public int queueDepth;
+
+    private ReservationService reservationService;
+    private InMemoryReservationRepository reservationRepository;
+    private List<Patron> patrons;
+    private int hotBooks;
+    private long operation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+        InMemoryPatronRepository patronRepository = new InMemoryPatronRepository();
+        reservationRepository = new InMemoryReservationRepository();
+        for (Book book : BenchmarkData.books(catalogueSize)) {
+            // Holds can only be placed on books that are out
+            book.setStatus(BookStatus.BORROWED);
+            bookRepository.add(book);
+        }
+        patrons = BenchmarkData.patrons(PATRONS);
+        for (Patron patron : patrons) {
+            patronRepository.add(patron);
+        }
+        reservationService = new ReservationService(reservationRepository, bookRepository, patronRepository);
+        hotBooks = Math.min(HOT_BOOKS, catalogueSize);
+        // Queue fillers come from the end of the patron list, the benchmark starts at the front
+        for (int book = 0; book < hotBooks; book++) {
+            for (int position = 0; position < queueDepth; position++) {
+                Patron patron = patrons.get(PATRONS - 1 - (book * queueDepth + position) % (PATRONS / 2));
+                reservationService.createReservation(BenchmarkData.isbn(book), patron.getPatronId());
+            }
+        }
+    }
+
+    @Benchmark
+    public Reservation reserveAndHandOver() {
+        long n = operation++;
+        String isbn = BenchmarkData.isbn((int) (n * 7 % hotBooks));
+        String patronId = patrons.get((int) (n % PATRONS)).getPatronId();
+        Reservation reservation = reservationService.createReservation(isbn, patronId);
+        Reservation next = reservationRepository.findNextActiveReservation(isbn).orElseThrow();
+        reservationService.processBookReturn(isbn);
+        reservationRepository.deleteById(next.getReservationId());
+        return reservation;
+    }
+}
@@ -0,0 +1,97 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.strategy.AuthorSearchStrategy;
+import org.librarymanagement.strategy.FuzzySearchStrategy;
+import org.librarymanagement.strategy.ISBNSearchStrategy;
+import org.librarymanagement.strategy.IndexedSearchStrategy;
+import org.librarymanagement.strategy.InvertedIndexSearchStrategy;
+import org.librarymanagement.strategy.SearchField;
+import org.librarymanagement.strategy.SearchStrategy;
+import org.librarymanagement.strategy.TitleSearchStrategy;
+import org.librarymanagement.strategy.TrigramSearchStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One query against every SearchStrategy. The list strategies scan the catalogue they are
+ * handed; the indexed ones are fed through their CatalogObserver callbacks in setup and
+ * answer from their index. Queries cycle through a fixed set so every run sees the same mix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchStrategyBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"title", "author", "isbn", "invertedIndex", "trigram", "fuzzy"})
+    public String strategy;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogueSize;
+
+    private SearchStrategy searchStrategy;
+    private List<Book> books;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = BenchmarkData.books(catalogueSize);
+        searchStrategy = create(strategy);
+        if (searchStrategy instanceof IndexedSearchStrategy indexed) {
+            for (Book book : books) {
+                indexed.onBookAdded(book);
+            }
+        }
+        Random random = new Random(BenchmarkData.SEED);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = query(random);
+        }
+    }
+
+    @Benchmark
+    public List<Book> search() {
+        String query = queries[next++ & (QUERIES - 1)];
+        return searchStrategy.search(books, query);
+    }
+
+    private String query(Random random) {
+        switch (strategy) {
+            case "isbn":
+                return BenchmarkData.isbn(random.nextInt(catalogueSize));
+            case "fuzzy":
+                // One character dropped: a typo within the default edit distance
+                String word = BenchmarkData.word(random);
+                int typo = random.nextInt(word.length());
+                return word.substring(0, typo) + word.substring(typo + 1);
+            default:
+                // Vocabulary words occur in titles and in author names
+                return BenchmarkData.word(random);
+        }
+    }
+
+    private static SearchStrategy create(String name) {
+        switch (name) {
+            case "title":
+                return new TitleSearchStrategy();
+            case "author":
+                return new AuthorSearchStrategy();
+            case "isbn":
+                return new ISBNSearchStrategy();
+            case "invertedIndex":
+                return new InvertedIndexSearchStrategy();
+            case "trigram":
+                return new TrigramSearchStrategy(SearchField.TITLE);
+            case "fuzzy":
+                return new FuzzySearchStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown search strategy: " + name);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.librarymanagement.benchmark;
+
+import org.librarymanagement.mainentities.BookTransferRequest;
+import org.librarymanagement.repository.InMemoryTransferRepository;
+import org.librarymanagement.repository.LongKeyedTransferRepository;
+import org.librarymanagement.repository.TransferRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer lookups and updates on the String-keyed InMemoryTransferRepository and the
+ * primitive-keyed LongKeyedTransferRepository.
+ * Setup prints each repository's footprint: the heap its map retains, transfer requests excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferRepositoryBenchmark {
+
+    private static final String[] BRANCHES = {"MAIN", "NORTH", "SOUTH", "EAST", "WEST"};
+
+    @Param({"inMemory", "longKeyed"})
+    public String repository;
+
+    @Param({"10000", "1000000"})
+    public int transferCount;
+
+    private TransferRepository transferRepository;
+    private BookTransferRequest[] transfers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transfers = new BookTransferRequest[transferCount];
+        for (int i = 0; i < transferCount; i++) {
+            transfers[i] = new BookTransferRequest(BenchmarkData.isbn(i),
+                    BRANCHES[i % BRANCHES.length], BRANCHES[(i + 1) % BRANCHES.length]);
+        }
+
+        long before = BenchmarkData.usedHeap();
+        if (repository.equals("longKeyed")) {
+            transferRepository = new LongKeyedTransferRepository();
+        } else if (repository.equals("inMemory")) {
+            transferRepository = new InMemoryTransferRepository();
+        } else {
+            throw new IllegalArgumentException("Unknown transfer repository: " + repository);
+        }
+        for (BookTransferRequest transfer : transfers) {
+            transferRepository.save(transfer);
+        }
+        BenchmarkData.reportFootprint(transferRepository.getClass().getSimpleName(), transferCount,
+                before, BenchmarkData.usedHeap());
+    }
+
+    @Benchmark
+    public Optional<BookTransferRequest> findById() {
+        return transferRepository.findById(randomTransfer().getTransferId());
+    }
+
+    @Benchmark
+    public void update() {
+        transferRepository.update(randomTransfer());
+    }
+
+    private BookTransferRequest randomTransfer() {
+        return transfers[ThreadLocalRandom.current().nextInt(transfers.length)];
+    }
+}
@@ -1,10 +1,17 @@
 package org.librarymanagement;
 
 import org.librarymanagement.mainentities.*;
+import org.librarymanagement.metrics.MetricsRegistry;
+import org.librarymanagement.observer.AsyncEventBus;
+import org.librarymanagement.observer.BorrowPopularityTracker;
 import org.librarymanagement.observer.EmailNotificationObserver;
+import org.librarymanagement.observer.HeavyHitterPopularityTracker;
 import org.librarymanagement.observer.LoggingObserver;
+import org.librarymanagement.observer.OverflowPolicy;
 import org.librarymanagement.observer.ReservationNotificationObserver;
+import org.librarymanagement.observer.TrendingPopularityTracker;
 import org.librarymanagement.repository.*;
+import org.librarymanagement.scheduler.DeadlineScheduler;
 import org.librarymanagement.service.*;
 import org.librarymanagement.strategy.*;
 
@@ -44,11 +51,26 @@ public class LibraryManagementDemo {
     private final BookTransferService transferService;
     private final ReservationService reservationService;
     private final RecommendationService recommendationService;
+    private final AutocompleteService autocompleteService;
+    private final PopularityBasedRecommendationStrategy popularityStrategy;
+    private final PopularityBasedRecommendationStrategy trendingStrategy;
+    private final HeavyHitterRecommendationStrategy heavyHitterStrategy;
+    
+    // Delivers slow notifications (email) off the request thread
+    private final AsyncEventBus eventBus;
+    
+    // Latencies and outcomes recorded by the services
+    private final MetricsRegistry metrics;
     
     public LibraryManagementDemo(BookService bookService, PatronService patronService, 
                                  LendingService lendingService, BranchService branchService,
                                  BookTransferService transferService, ReservationService reservationService,
-                                 RecommendationService recommendationService) {
+                                 RecommendationService recommendationService,
+                                 AutocompleteService autocompleteService,
+                                 PopularityBasedRecommendationStrategy popularityStrategy,
+                                 PopularityBasedRecommendationStrategy trendingStrategy,
+                                 HeavyHitterRecommendationStrategy heavyHitterStrategy,
+                                 AsyncEventBus eventBus, MetricsRegistry metrics) {
         this.bookService = bookService;
         this.patronService = patronService;
         this.lendingService = lendingService;
@@ -56,6 +78,12 @@ public class LibraryManagementDemo {
         this.transferService = transferService;
         this.reservationService = reservationService;
         this.recommendationService = recommendationService;
+        this.autocompleteService = autocompleteService;
+        this.popularityStrategy = popularityStrategy;
+        this.trendingStrategy = trendingStrategy;
+        this.heavyHitterStrategy = heavyHitterStrategy;
+        this.eventBus = eventBus;
+        this.metrics = metrics;
     }
     
     public static void main(String[] args) {
@@ -67,6 +95,12 @@ public class LibraryManagementDemo {
         // Run all demonstrations
         demo.runFullDemo();
         
+        // Deliver notifications that are still queued
+        demo.eventBus.close();
+        
+        System.out.println("\n📈 Service metrics:");
+        System.out.print(demo.metrics.format());
+        
         printFooter();
     }
     
@@ -106,28 +140,77 @@ public class LibraryManagementDemo {
         // Initialize advanced services
         BranchService branchService = new BranchService(branchRepository);
         BookTransferService transferService = new BookTransferService(bookRepository, branchService);
+        // Status and branch changes reach the catalogue observers (indexes, rankings) below
+        lendingService.setBookService(bookService);
+        transferService.setBookService(bookService);
         ReservationService reservationService = new ReservationService(
                 reservationRepository, bookRepository, patronRepository);
         RecommendationService recommendationService = new RecommendationService(
                 bookRepository, patronRepository, new AuthorBasedRecommendationStrategy());
         
+        // Autocomplete ranked by borrow popularity (seeded from existing lending history)
+        BorrowPopularityTracker popularityTracker = new BorrowPopularityTracker();
+        popularityTracker.seed(lendingRepository.findAll());
+        lendingService.addObserver(popularityTracker);
+        AutocompleteService autocompleteService = new AutocompleteService(popularityTracker);
+        bookService.addCatalogObserver(autocompleteService);
+        
+        // Popularity recommendations ranked incrementally from the same borrow counts
+        PopularityBasedRecommendationStrategy popularityStrategy = new PopularityBasedRecommendationStrategy(popularityTracker);
+        bookService.addCatalogObserver(popularityStrategy);
+        
+        // ... and from the borrows of the last 7 days only
+        TrendingPopularityTracker trendingTracker = new TrendingPopularityTracker();
+        trendingTracker.seed(lendingRepository.findAll());
+        lendingService.addObserver(trendingTracker);
+        PopularityBasedRecommendationStrategy trendingStrategy = new PopularityBasedRecommendationStrategy(
+                trendingTracker.getWindow(TrendingPopularityTracker.LAST_7_DAYS));
+        bookService.addCatalogObserver(trendingStrategy);
+        
+        // ... and per branch and patron type, in fixed memory (Count-Min Sketch + Space-Saving)
+        HeavyHitterPopularityTracker heavyHitterTracker = new HeavyHitterPopularityTracker(bookRepository, patronRepository);
+        heavyHitterTracker.seed(lendingRepository.findAll());
+        lendingService.addObserver(heavyHitterTracker);
+        HeavyHitterRecommendationStrategy heavyHitterStrategy = new HeavyHitterRecommendationStrategy(
+                heavyHitterTracker, bookRepository);
+        
         // Integrate services
         lendingService.setReservationService(reservationService);
         
+        // Record latencies and outcomes on the hot paths
+        MetricsRegistry metrics = new MetricsRegistry();
+        bookService.setMetricsRegistry(metrics);
+        lendingService.setMetricsRegistry(metrics);
+        reservationService.setMetricsRegistry(metrics);
+        transferService.setMetricsRegistry(metrics);
+        recommendationService.setMetricsRegistry(metrics);
+        
         // Setup observers
-        setupObservers(lendingService, reservationService);
+        AsyncEventBus eventBus = new AsyncEventBus(1);
+        setupObservers(lendingService, reservationService, eventBus);
+        
+        // Fire overdue loans and expire uncollected holds (daemon ticker, rebuilt from the repositories)
+        DeadlineScheduler deadlineScheduler = new DeadlineScheduler(lendingService, reservationService,
+                lendingRepository, reservationRepository);
+        lendingService.addObserver(deadlineScheduler);
+        reservationService.addObserver(deadlineScheduler);
+        deadlineScheduler.start();
+        metrics.gauge("scheduler.pending", deadlineScheduler::pendingDeadlines);
+        metrics.gauge("eventbus.dropped", eventBus::getDroppedEvents);
         
         return new LibraryManagementDemo(bookService, patronService, lendingService,
-                branchService, transferService, reservationService, recommendationService);
+                branchService, transferService, reservationService, recommendationService,
+                autocompleteService, popularityStrategy, trendingStrategy, heavyHitterStrategy, eventBus, metrics);
     }
     
     /**
      * Setup observers for event notifications
      */
-    private static void setupObservers(LendingService lendingService, ReservationService reservationService) {
-        // Add observers to lending service
+    private static void setupObservers(LendingService lendingService, ReservationService reservationService,
+                                       AsyncEventBus eventBus) {
+        // Add observers to lending service (email is sent asynchronously so checkouts do not wait on it)
         lendingService.addObserver(new LoggingObserver());
-        lendingService.addObserver(new EmailNotificationObserver());
+        lendingService.addObserver(eventBus.async(new EmailNotificationObserver(), OverflowPolicy.BLOCK));
         
         // Add observers to reservation service
         reservationService.addObserver(new ReservationNotificationObserver());
@@ -250,6 +333,32 @@ public class LibraryManagementDemo {
         System.out.println("🔍 Search by ISBN: '978-0134685991'");
         List<Book> isbnResults = bookService.searchBooks(new ISBNSearchStrategy(), "978-0134685991");
         displaySearchResults(isbnResults);
+        
+        // Keyword search over title and author using an inverted index
+        System.out.println("🔍 Keyword Search (Inverted Index): 'effective bloch'");
+        InvertedIndexSearchStrategy keywordSearch = new InvertedIndexSearchStrategy();
+        bookService.addCatalogObserver(keywordSearch);
+        List<Book> keywordResults = bookService.searchBooks(keywordSearch, "effective bloch");
+        displaySearchResults(keywordResults);
+        
+        // Substring search on titles using a trigram index
+        System.out.println("🔍 Substring Search (Trigram Index): 'ean co'");
+        TrigramSearchStrategy substringSearch = new TrigramSearchStrategy(SearchField.TITLE);
+        bookService.addCatalogObserver(substringSearch);
+        List<Book> substringResults = bookService.searchBooks(substringSearch, "ean co");
+        displaySearchResults(substringResults);
+        
+        // Typo-tolerant search (misspelled author)
+        System.out.println("🔍 Fuzzy Search (Symmetric-Delete Index): 'Blosh'");
+        FuzzySearchStrategy fuzzySearch = new FuzzySearchStrategy();
+        bookService.addCatalogObserver(fuzzySearch);
+        List<Book> fuzzyResults = bookService.searchBooks(fuzzySearch, "Blosh");
+        displaySearchResults(fuzzyResults);
+        
+        // Type-ahead completions over titles and authors
+        System.out.println("🔍 Autocomplete (Prefix Trie): 'c'");
+        List<String> completions = autocompleteService.complete("c", 5);
+        System.out.println("  Suggestions: " + completions + "\n");
     }
     
     private void displaySearchResults(List<Book> results) {
@@ -542,7 +651,17 @@ public class LibraryManagementDemo {
         System.out.println("Step 4: Alice returns the book");
         lendingService.returnBook(isbn, alice.getPatronId());
         System.out.println("  ✓ Book returned");
-        System.out.println("  ✓ Bob (next in queue) has been notified that the book is ready!");
+        System.out.println("  ✓ Bob (next in queue) has been notified that the book is ready!\n");
+        
+        // Bob picks up the book - his reservation is fulfilled
+        System.out.println("Step 5: Bob picks up the reserved book");
+        lendingService.borrowBook(isbn, bob.getPatronId());
+        System.out.println("  ✓ Bob's reservation is now " + bobReservation.getStatus() + "\n");
+        
+        // Carol changes her mind
+        System.out.println("Step 6: Carol cancels her reservation");
+        reservationService.cancelReservation(carolReservation.getReservationId());
+        System.out.println("  ✓ Carol's reservation is now " + carolReservation.getStatus());
     }
     
     /**
@@ -565,11 +684,24 @@ public class LibraryManagementDemo {
         
         // Popularity-based recommendations
         System.out.println("🎯 Strategy 2: Popularity-Based Recommendations");
-        PopularityBasedRecommendationStrategy popularityStrategy = new PopularityBasedRecommendationStrategy();
-        popularityStrategy.updatePopularityData(patronService.getAllPatrons());
+        // Rankings follow borrows on a background thread; apply the demo's borrows before reading
+        popularityStrategy.flush();
         recommendationService.setStrategy(popularityStrategy);
         List<Book> popularRecommendations = recommendationService.getRecommendations(alice.getPatronId(), 3);
         displayRecommendations(popularRecommendations);
+        
+        // Trending recommendations (borrows of the last 7 days)
+        System.out.println("🎯 Strategy 3: Trending This Week");
+        trendingStrategy.flush();
+        recommendationService.setStrategy(trendingStrategy);
+        List<Book> trendingRecommendations = recommendationService.getRecommendations(alice.getPatronId(), 3);
+        displayRecommendations(trendingRecommendations);
+        
+        // Heavy-hitter recommendations (what patrons of the same type borrow at the same branch)
+        System.out.println("🎯 Strategy 4: Popular With Patrons Like You");
+        recommendationService.setStrategy(heavyHitterStrategy);
+        List<Book> heavyHitterRecommendations = recommendationService.getRecommendations(alice.getPatronId(), 3);
+        displayRecommendations(heavyHitterRecommendations);
     }
     
     private void displayRecommendations(List<Book> recommendations) {
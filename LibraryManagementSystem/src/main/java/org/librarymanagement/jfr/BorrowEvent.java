@@ -0,0 +1,36 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * LendingService.borrowBook, including observer dispatch and the reservation pickup
+ */
+@Name("org.librarymanagement.Borrow")
+@Label("Borrow")
+@Category({"Library", "Lending"})
+@Description("Checkout of a book by a patron")
+@Threshold("10 ms")
+@StackTrace(false)
+public class BorrowEvent extends jdk.jfr.Event {
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Patron ID")
+    public String patronId;
+
+    @Label("Patron Type")
+    public String patronType;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Failure")
+    @Description("Why the checkout was refused, if it was")
+    public String failure;
+}
@@ -0,0 +1,30 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ReservationService.processBookReturn: offering a returned book to the head of its queue
+ */
+@Name("org.librarymanagement.HoldHandOff")
+@Label("Hold Hand-off")
+@Category({"Library", "Reservations"})
+@Description("Returned book offered to the next patron in its reservation queue")
+@Threshold("1 ms")
+@StackTrace(false)
+public class HoldHandOffEvent extends jdk.jfr.Event {
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Reservation ID")
+    @Description("Hold that became ready for pickup, null if nobody was waiting")
+    public String reservationId;
+
+    @Label("Patron ID")
+    public String patronId;
+}
@@ -0,0 +1,37 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One observer callback made by LendingService or ReservationService
+ */
+@Name("org.librarymanagement.ObserverDispatch")
+@Label("Observer Dispatch")
+@Category({"Library", "Observers"})
+@Description("Time spent in one observer callback on the service's thread")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ObserverDispatchEvent extends jdk.jfr.Event {
+
+    @Label("Observer")
+    public String observer;
+
+    @Label("Event Type")
+    public String eventType;
+
+    /**
+     * Commit if the event is enabled and over its threshold, filling in the fields only then
+     */
+    public void end(Object observer, String eventType) {
+        if (shouldCommit()) {
+            this.observer = observer.getClass().getName();
+            this.eventType = eventType;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * RecommendationService.getRecommendations / getRecommendationsWithStrategy
+ */
+@Name("org.librarymanagement.Recommend")
+@Label("Recommend")
+@Category({"Library", "Catalogue"})
+@Description("Recommendations generated for a patron")
+@Threshold("10 ms")
+@StackTrace(false)
+public class RecommendEvent extends jdk.jfr.Event {
+
+    @Label("Patron ID")
+    public String patronId;
+
+    @Label("Patron Type")
+    public String patronType;
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Limit")
+    public int limit;
+
+    @Label("Result Count")
+    public int resultCount;
+}
@@ -0,0 +1,43 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Repository call on a service path that copies or walks many entities
+ * (e.g. BookRepository.findAll for a non-indexed search)
+ */
+@Name("org.librarymanagement.RepositoryScan")
+@Label("Repository Scan")
+@Category({"Library", "Repository"})
+@Description("Repository call that returns many entities, nested in the operation that made it")
+@Threshold("1 ms")
+@StackTrace(true)
+public class RepositoryScanEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    @Description("Number of entities returned")
+    public int rows;
+
+    /**
+     * Commit if the event is enabled and over its threshold, filling in the fields only then
+     */
+    public void end(Object repository, String operation, int rows) {
+        if (shouldCommit()) {
+            this.repository = repository.getClass().getSimpleName();
+            this.operation = operation;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ReservationService.createReservation
+ */
+@Name("org.librarymanagement.Reserve")
+@Label("Reserve")
+@Category({"Library", "Reservations"})
+@Description("Hold placed on a book that is out")
+@Threshold("10 ms")
+@StackTrace(false)
+public class ReserveEvent extends jdk.jfr.Event {
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Patron ID")
+    public String patronId;
+
+    @Label("Queue Position")
+    public int queuePosition;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,35 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * LendingService.returnBook, including observer dispatch and the hand-off to the next hold
+ */
+@Name("org.librarymanagement.Return")
+@Label("Return")
+@Category({"Library", "Lending"})
+@Description("Return of a borrowed book; the hold hand-off is a nested Hold Hand-off event")
+@Threshold("10 ms")
+@StackTrace(false)
+public class ReturnEvent extends jdk.jfr.Event {
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Patron ID")
+    public String patronId;
+
+    @Label("Patron Type")
+    public String patronType;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,33 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * BookService.searchBooks
+ */
+@Name("org.librarymanagement.Search")
+@Label("Search")
+@Category({"Library", "Catalogue"})
+@Description("Catalogue search with a search strategy")
+@Threshold("10 ms")
+@StackTrace(false)
+public class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Query")
+    public String query;
+
+    @Label("Indexed")
+    @Description("Answered from a registered index instead of a catalogue scan")
+    public boolean indexed;
+
+    @Label("Result Count")
+    public int resultCount;
+}
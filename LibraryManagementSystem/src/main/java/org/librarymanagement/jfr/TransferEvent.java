@@ -0,0 +1,42 @@
+package org.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * BookTransferService.initiateTransfer / completeTransfer
+ */
+@Name("org.librarymanagement.Transfer")
+@Label("Transfer")
+@Category({"Library", "Branches"})
+@Description("Step of a book transfer between branches")
+@Threshold("10 ms")
+@StackTrace(false)
+public class TransferEvent extends jdk.jfr.Event {
+
+    @Label("Step")
+    @Description("initiate or complete")
+    public String step;
+
+    @Label("Transfer ID")
+    public String transferId;
+
+    @Label("ISBN")
+    public String isbn;
+
+    @Label("Source Branch")
+    public String sourceBranchId;
+
+    @Label("Destination Branch")
+    public String destinationBranchId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Failure")
+    public String failure;
+}
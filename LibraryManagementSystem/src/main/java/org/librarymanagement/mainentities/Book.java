@@ -5,7 +5,7 @@ public class Book {
     private String title;
     private String author;
     private int publicationYear;
-    private BookStatus status;
+    private volatile BookStatus status;
     private String branchId; // Branch where the book is currently located
 
     public Book(String isbn, String title, String author, int publicationYear) {
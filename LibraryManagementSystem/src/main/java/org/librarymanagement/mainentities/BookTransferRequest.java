@@ -1,7 +1,6 @@
 package org.librarymanagement.mainentities;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Represents a request to transfer a book from one branch to another.
@@ -18,7 +17,7 @@ public class BookTransferRequest {
     private String remarks;
     
     public BookTransferRequest(String isbn, String sourceBranchId, String destinationBranchId) {
-        this.transferId = UUID.randomUUID().toString();
+        this.transferId = IdGenerators.nextCompactId();
         this.isbn = isbn;
         this.sourceBranchId = sourceBranchId;
         this.destinationBranchId = destinationBranchId;
@@ -26,6 +25,22 @@ public class BookTransferRequest {
         this.requestDate = LocalDateTime.now();
     }
     
+    /**
+     * Restore a previously persisted transfer request
+     */
+    public BookTransferRequest(String transferId, String isbn, String sourceBranchId, String destinationBranchId,
+                               TransferStatus status, LocalDateTime requestDate,
+                               LocalDateTime completionDate, String remarks) {
+        this.transferId = transferId;
+        this.isbn = isbn;
+        this.sourceBranchId = sourceBranchId;
+        this.destinationBranchId = destinationBranchId;
+        this.status = status;
+        this.requestDate = requestDate;
+        this.completionDate = completionDate;
+        this.remarks = remarks;
+    }
+    
     public String getTransferId() {
         return transferId;
     }
@@ -0,0 +1,13 @@
+package org.librarymanagement.mainentities;
+
+import java.util.List;
+
+/**
+ * Source of a patron's full borrowing history, e.g. LendingRepository::findByPatronId.
+ * Patron only keeps active loans and a short recent window on the heap and pages
+ * older history from here when it is asked for.
+ */
+@FunctionalInterface
+public interface BorrowingHistoryArchive {
+    List<LendingRecord> findByPatronId(String patronId);
+}
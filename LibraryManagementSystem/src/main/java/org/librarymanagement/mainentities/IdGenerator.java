@@ -0,0 +1,21 @@
+package org.librarymanagement.mainentities;
+
+/**
+ * Source of unique 64-bit entity IDs.
+ * Install a custom generator with IdGenerators.setDefault.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return A new positive ID, unique for this generator
+     */
+    long nextId();
+
+    /**
+     * @return A new ID in compact string form (see IdGenerators.format)
+     */
+    default String nextIdString() {
+        return IdGenerators.format(nextId());
+    }
+}
@@ -0,0 +1,104 @@
+package org.librarymanagement.mainentities;
+
+/**
+ * Holder of the ID generator used for new entities, plus the compact string form of IDs.
+ *
+ * The default is a SnowflakeIdGenerator whose node id is read from the system property
+ * "library.nodeId" (0 if unset). IDs are written as 13 Crockford base32 characters, fixed
+ * width, so string order equals numeric order (and creation order).
+ *
+ * Lending record, reservation and transfer IDs are compact IDs. Patron IDs add a type prefix
+ * (see PatronFactory) and are opaque strings: do not parse them.
+ */
+public final class IdGenerators {
+
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+    }
+
+    private static volatile IdGenerator defaultGenerator =
+            new SnowflakeIdGenerator(Integer.getInteger("library.nodeId", 0));
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator getDefault() {
+        return defaultGenerator;
+    }
+
+    /**
+     * Replace the generator used for new lending records, reservations, transfers and patrons
+     */
+    public static void setDefault(IdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("IdGenerator cannot be null");
+        }
+        defaultGenerator = generator;
+    }
+
+    /**
+     * A new ID from the default generator, in compact string form
+     */
+    public static String nextCompactId() {
+        return defaultGenerator.nextIdString();
+    }
+
+    /**
+     * Encode a non-negative ID as 13 Crockford base32 characters
+     */
+    public static String format(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID must not be negative: " + id);
+        }
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decode an ID produced by format (case-insensitive)
+     */
+    public static long parse(String text) {
+        if (text == null || text.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Not a compact ID: " + text);
+        }
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = text.charAt(i);
+            int digit = c < DECODE.length ? DECODE[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                throw new IllegalArgumentException("Not a compact ID: " + text);
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+
+    /**
+     * Whether text is a compact ID that parse accepts
+     */
+    public static boolean isCompactId(String text) {
+        if (text == null || text.length() != ENCODED_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = text.charAt(i);
+            int digit = c < DECODE.length ? DECODE[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
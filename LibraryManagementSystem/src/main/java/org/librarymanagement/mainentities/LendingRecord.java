@@ -7,7 +7,7 @@ public class LendingRecord {
     private final String patronId;
     private final String isbn;
     private final LocalDateTime borrowDate;
-    private LocalDateTime returnDate;
+    private volatile LocalDateTime returnDate;
     private LocalDateTime dueDate;
 
 
@@ -1,16 +1,23 @@
 package org.librarymanagement.mainentities;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Patron {
+    private static final int RECENT_HISTORY_SIZE = 16;
+
     private final String patronId;
     private String name;
     private String email;
     private String phoneNumber;
     private PatronType patronType;
-    private final List<LendingRecord> borrowingHistory;
+    // Only the most recent records stay on the heap; the rest is paged from the archive
+    private final ArrayDeque<LendingRecord> recentHistory;
+    private volatile BorrowingHistoryArchive historyArchive;
+    // Active loans by record ID; the counter also covers slots claimed by checkouts in flight
+    private final Map<String, LendingRecord> activeLoans = new ConcurrentHashMap<>();
+    private final AtomicInteger activeLoanCount = new AtomicInteger();
 
     public Patron(String patronId, String name, String phoneNumber, String email, PatronType patronType) {
         this.patronId = patronId;
@@ -18,7 +25,7 @@ public class Patron {
         this.email = email;
         this.phoneNumber = phoneNumber;
         this.patronType = patronType;
-        this.borrowingHistory = new ArrayList<>();
+        this.recentHistory = new ArrayDeque<>(RECENT_HISTORY_SIZE);
     }
 
     public String getPatronId() {
@@ -41,8 +48,33 @@ public class Patron {
         this.patronType = patronType;
     }
 
+    /**
+     * Full borrowing history, oldest first.
+     * Returns a lazy view: the archive (if attached) is only read when the list is first accessed.
+     * Without an archive this is the recent window plus active loans.
+     */
     public List<LendingRecord> getBorrowingHistory() {
-        return Collections.unmodifiableList(borrowingHistory);
+        return new BorrowingHistoryView();
+    }
+
+    /**
+     * The most recent lending records kept on the heap, oldest first
+     */
+    public List<LendingRecord> getRecentHistory() {
+        synchronized (recentHistory) {
+            return new ArrayList<>(recentHistory);
+        }
+    }
+
+    /**
+     * Attach the store that older history is paged from
+     */
+    public void setHistoryArchive(BorrowingHistoryArchive historyArchive) {
+        this.historyArchive = historyArchive;
+    }
+
+    public boolean hasHistoryArchive() {
+        return historyArchive != null;
     }
 
     public String getEmail() {
@@ -65,8 +97,86 @@ public class Patron {
         this.phoneNumber = phoneNumber;
     }
 
+    /**
+     * Add a record to the history without checking the borrow limit (e.g. when loading history)
+     */
     public void addLendingRecord(LendingRecord record){
-        this.borrowingHistory.add(record);
+        remember(record);
+        if (record.isActive() && activeLoans.putIfAbsent(record.getRecordId(), record) == null) {
+            activeLoanCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Atomically claim a loan slot and record the loan, unless the borrow limit is reached.
+     * Safe to call concurrently: the slot is claimed with a compare-and-set on the counter.
+     *
+     * @return false if the patron is at the borrow limit
+     */
+    public boolean tryAddActiveLoan(LendingRecord record){
+        int limit = getBorrowLimit();
+        int current;
+        do {
+            current = activeLoanCount.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!activeLoanCount.compareAndSet(current, current + 1));
+        activeLoans.put(record.getRecordId(), record);
+        remember(record);
+        return true;
+    }
+
+    /**
+     * Undo tryAddActiveLoan when the checkout could not be completed
+     */
+    public void abandonLoan(LendingRecord record){
+        if (activeLoans.remove(record.getRecordId()) != null) {
+            activeLoanCount.decrementAndGet();
+        }
+        synchronized (recentHistory) {
+            recentHistory.remove(record);
+        }
+    }
+
+    /**
+     * Release the loan slot of a returned record
+     */
+    public void completeLoan(LendingRecord record){
+        if (activeLoans.remove(record.getRecordId()) != null) {
+            activeLoanCount.decrementAndGet();
+        }
+    }
+
+    public Collection<LendingRecord> getActiveLoans(){
+        return Collections.unmodifiableCollection(activeLoans.values());
+    }
+
+    /**
+     * Check the active-loan counter and set against the given active records
+     */
+    public boolean activeLoansMatch(Collection<LendingRecord> activeRecords){
+        if (activeLoanCount.get() != activeRecords.size() || activeLoans.size() != activeRecords.size()) {
+            return false;
+        }
+        for (LendingRecord record : activeRecords) {
+            if (!activeLoans.containsKey(record.getRecordId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace the active-loan counter and set, e.g. after they drifted from the lending store.
+     * Callers must stop concurrent checkouts for this patron while it runs.
+     */
+    public void resetActiveLoans(Collection<LendingRecord> activeRecords){
+        activeLoans.clear();
+        for (LendingRecord record : activeRecords) {
+            activeLoans.put(record.getRecordId(), record);
+        }
+        activeLoanCount.set(activeLoans.size());
     }
 
     public long getBorrowingLimit(){
@@ -74,10 +184,59 @@ public class Patron {
     }
 
     public long getCurrentBorrowedCount(){
-        return borrowingHistory.stream().filter(record -> record.getReturnDate() == null).count();
+        return activeLoanCount.get();
     }
 
     public boolean canBorrowMore(){
-        return getCurrentBorrowedCount() < getBorrowingLimit();
+        return activeLoanCount.get() < getBorrowLimit();
+    }
+
+    private void remember(LendingRecord record) {
+        synchronized (recentHistory) {
+            if (recentHistory.size() == RECENT_HISTORY_SIZE) {
+                recentHistory.removeFirst();
+            }
+            recentHistory.addLast(record);
+        }
+    }
+
+    /**
+     * Read-only history list that loads its contents on first access
+     */
+    private final class BorrowingHistoryView extends AbstractList<LendingRecord> implements RandomAccess {
+        private List<LendingRecord> records;
+
+        @Override
+        public LendingRecord get(int index) {
+            return records().get(index);
+        }
+
+        @Override
+        public int size() {
+            return records().size();
+        }
+
+        private List<LendingRecord> records() {
+            if (records == null) {
+                BorrowingHistoryArchive archive = historyArchive;
+                Map<String, LendingRecord> byId = new LinkedHashMap<>();
+                if (archive != null) {
+                    for (LendingRecord record : archive.findByPatronId(patronId)) {
+                        byId.put(record.getRecordId(), record);
+                    }
+                }
+                // Checkouts in flight may not have reached the archive yet
+                for (LendingRecord record : getRecentHistory()) {
+                    byId.putIfAbsent(record.getRecordId(), record);
+                }
+                for (LendingRecord record : activeLoans.values()) {
+                    byId.putIfAbsent(record.getRecordId(), record);
+                }
+                List<LendingRecord> loaded = new ArrayList<>(byId.values());
+                loaded.sort(Comparator.comparing(LendingRecord::getBorrowDate));
+                records = loaded;
+            }
+            return records;
+        }
     }
 }
@@ -1,19 +1,20 @@
 package org.librarymanagement.mainentities;
 
-import java.util.UUID;
-
 public class PatronFactory {
     public static Patron createStudent(String name, String email, String phoneNumber) {
         String patronId = generatePatronId("STU");
-        return new Patron(patronId, name, email, phoneNumber, PatronType.STUDENT);
+        return new Patron(patronId, name, phoneNumber, email, PatronType.STUDENT);
     }
 
     public static Patron createFaculty(String name, String email, String phoneNumber) {
         String patronId = generatePatronId("FAC");
-        return new Patron(patronId, name, email, phoneNumber, PatronType.FACULTY);
+        return new Patron(patronId, name, phoneNumber, email, PatronType.FACULTY);
     }
 
+    /**
+     * The type prefix plus a compact ID; callers treat the result as opaque and never parse it
+     */
     private static String generatePatronId(String prefix) {
-        return prefix + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return prefix + IdGenerators.nextCompactId();
     }
 }
\ No newline at end of file
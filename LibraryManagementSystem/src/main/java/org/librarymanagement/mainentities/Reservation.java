@@ -1,7 +1,6 @@
 package org.librarymanagement.mainentities;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Represents a reservation for a book that is currently unavailable.
@@ -18,7 +17,7 @@ public class Reservation {
     private int queuePosition;
     
     public Reservation(String isbn, String patronId) {
-        this.reservationId = UUID.randomUUID().toString();
+        this.reservationId = IdGenerators.nextCompactId();
         this.isbn = isbn;
         this.patronId = patronId;
         this.status = ReservationStatus.ACTIVE;
@@ -26,6 +25,19 @@ public class Reservation {
         this.queuePosition = 0; // Will be set by the service
     }
     
+    /**
+     * Restore a previously persisted reservation
+     */
+    public Reservation(String reservationId, String isbn, String patronId,
+                       ReservationStatus status, LocalDateTime reservationDate) {
+        this.reservationId = reservationId;
+        this.isbn = isbn;
+        this.patronId = patronId;
+        this.status = status;
+        this.reservationDate = reservationDate;
+        this.queuePosition = 0;
+    }
+    
     public String getReservationId() {
         return reservationId;
     }
@@ -0,0 +1,75 @@
+package org.librarymanagement.mainentities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ID generator (Snowflake layout).
+ *
+ * Layout: [1 bit zero][41 bits milliseconds since 2024-01-01 UTC][10 bits node id][12 bits sequence]
+ *
+ * IDs from one generator are strictly increasing, and IDs from different nodes sort by
+ * creation time to the millisecond. Lock-free: the last timestamp and sequence are packed into
+ * one AtomicLong. More than 4096 IDs in one millisecond, or a clock that steps backwards,
+ * simply borrows from the following milliseconds instead of blocking.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * @param nodeId Unique number of this process among those sharing the data (0-1023)
+     * @param clock Wall clock in epoch milliseconds
+     */
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long previous = lastState.get();
+            long now = Math.max(0, clock.getAsLong() - EPOCH_MILLIS);
+            long next = now > (previous >>> SEQUENCE_BITS)
+                    ? now << SEQUENCE_BITS
+                    : previous + 1; // same millisecond (or clock behind): next sequence, carrying into the time
+            if (lastState.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (millis << TIMESTAMP_SHIFT) | nodeBits | sequence;
+            }
+        }
+    }
+
+    /**
+     * Creation time of an ID in epoch milliseconds
+     */
+    public static long timestampMillis(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Node id encoded in an ID
+     */
+    public static int nodeId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,128 @@
+package org.librarymanagement.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-Min Sketch: approximate occurrence counts of strings in fixed memory.
+ * depth rows of width counters; an item increments one counter per row and its estimate is the
+ * smallest of those counters. With N the total of all increments:
+ *   - estimates never undercount: estimate(x) >= count(x)
+ *   - estimate(x) <= count(x) + epsilon * N with probability at least 1 - delta,
+ *     where epsilon = e / width and delta = e^-depth
+ * Memory is 8 * width * depth bytes whatever the number of distinct items; forError(0.001, 0.01)
+ * gives 2719 x 5 counters (about 106 KB).
+ *
+ * Thread-safe and lock-free: any number of threads may add and estimate concurrently.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive");
+        }
+        if ((long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sketch too large: " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Smallest sketch that overestimates by at most epsilon * N with probability 1 - delta
+     */
+    public static CountMinSketch forError(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1");
+        }
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new CountMinSketch(width, depth);
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public void add(String item, long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        long hash = hash(item);
+        long step = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(row * width + index(hash + row * step), count);
+        }
+        total.add(count);
+    }
+
+    /**
+     * Upper bound on the number of times the item was added (see the class comment for the error)
+     */
+    public long estimate(String item) {
+        long hash = hash(item);
+        long step = mix(hash + 0x9e3779b97f4a7c15L) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(row * width + index(hash + row * step)));
+        }
+        return min;
+    }
+
+    /**
+     * Sum of all counts added (N in the error bound)
+     */
+    public long getTotalCount() {
+        return total.sum();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Overestimate bound as a fraction of the total count (e / width)
+     */
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * Probability that an estimate exceeds the bound (e^-depth)
+     */
+    public double getDelta() {
+        return Math.exp(-depth);
+    }
+
+    private int index(long rowHash) {
+        return (int) Math.floorMod(rowHash, (long) width);
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, finalized so that the row hashes (hash + row * step) spread evenly
+     */
+    private static long hash(String item) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            hash ^= item.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
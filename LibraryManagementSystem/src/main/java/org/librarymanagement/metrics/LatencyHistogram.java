@@ -0,0 +1,118 @@
+package org.librarymanagement.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size log-linear histogram of non-negative values (latencies in nanoseconds).
+ * Every power of two is split into 128 linear buckets, so a recorded value is reported with
+ * a relative error below 1% over the whole long range, in about 60 KB per histogram.
+ * Values below 256 are counted exactly.
+ *
+ * Thread-safe: any number of threads may record concurrently; readers see a value that is
+ * at least as recent as the last completed record() call on each bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // shift ranges from 0 to 63 - SUB_BUCKET_BITS; the mantissa from 0 to 2 * SUB_BUCKETS - 1
+    static final int BUCKETS = (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS + 2 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram values cannot be negative: " + value);
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+        min.accumulate(value);
+    }
+
+    /**
+     * Add all values recorded in another histogram to this one
+     */
+    public void add(LatencyHistogram other) {
+        add(other.counts, other.count.sum(), other.sum.sum(), other.min.get(), other.max.get());
+    }
+
+    /**
+     * Add raw bucket counts laid out like this histogram's (used to merge LatencyRecorder shards)
+     */
+    void add(AtomicLongArray bucketCounts, long valueCount, long valueSum, long minValue, long maxValue) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = bucketCounts.get(i);
+            if (bucketCount != 0) {
+                counts.addAndGet(i, bucketCount);
+            }
+        }
+        count.add(valueCount);
+        sum.add(valueSum);
+        max.accumulate(maxValue);
+        min.accumulate(minValue);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * The value below which the given percentage of the recorded values fall
+     *
+     * @param percentile 0 to 100
+     * @return Upper bound of the bucket holding that value (never above the maximum), 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        long mantissa = index - (long) shift * SUB_BUCKETS;
+        if (index == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
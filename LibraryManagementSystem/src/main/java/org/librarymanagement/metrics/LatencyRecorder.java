@@ -0,0 +1,112 @@
+package org.librarymanagement.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency distribution recorded on hot paths. Values go to one of a fixed number of shards
+ * with the LatencyHistogram bucket layout, picked by a hash of the recording thread's ID, so
+ * threads on different shards share no counters or cache lines and record() is a handful of
+ * uncontended atomic adds. There are about as many shards as processors, each allocated on
+ * first use, so memory stays bounded however many threads record. snapshot() merges the
+ * shards into a LatencyHistogram.
+ * Obtained from MetricsRegistry.latency().
+ */
+public final class LatencyRecorder {
+
+    static final LatencyRecorder DISABLED = new LatencyRecorder(false);
+
+    private static final int MAX_SHARDS = 64;
+
+    private final boolean enabled;
+    private final AtomicReferenceArray<Shard> shards;
+    private final int mask;
+
+    LatencyRecorder() {
+        this(true);
+    }
+
+    private LatencyRecorder(boolean enabled) {
+        this.enabled = enabled;
+        int size = 1;
+        while (size < Math.min(MAX_SHARDS, Runtime.getRuntime().availableProcessors())) {
+            size <<= 1;
+        }
+        this.shards = new AtomicReferenceArray<>(enabled ? size : 0);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Record one value in nanoseconds (negative values, e.g. from a clock step, count as 0)
+     */
+    public void record(long nanos) {
+        if (enabled) {
+            shard().record(Math.max(0, nanos));
+        }
+    }
+
+    /**
+     * Record the time elapsed since a System.nanoTime() reading
+     */
+    public void recordSince(long startNanos) {
+        if (enabled) {
+            shard().record(Math.max(0, System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Everything recorded so far, merged from all shards
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (int i = 0; i < shards.length(); i++) {
+            Shard current = shards.get(i);
+            if (current != null) {
+                current.addTo(merged);
+            }
+        }
+        return merged;
+    }
+
+    private Shard shard() {
+        long id = Thread.currentThread().getId();
+        // Fibonacci hashing, so consecutive thread IDs land on different shards
+        int index = (int) ((id * 0x9e3779b97f4a7c15L) >>> 40) & mask;
+        Shard current = shards.get(index);
+        if (current == null) {
+            Shard created = new Shard();
+            current = shards.compareAndSet(index, null, created) ? created : shards.get(index);
+        }
+        return current;
+    }
+
+    private static final class Shard {
+        private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong();
+
+        // Threads whose IDs hash alike share a shard, so every update is atomic
+        void record(long value) {
+            counts.incrementAndGet(LatencyHistogram.indexOf(value));
+            sum.addAndGet(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+            if (value < min.get()) {
+                min.accumulateAndGet(value, Math::min);
+            }
+            // Count last, so a reader that sees the count also sees the bucket
+            count.incrementAndGet();
+        }
+
+        void addTo(LatencyHistogram histogram) {
+            long recorded = count.get();
+            if (recorded != 0) {
+                histogram.add(counts, recorded, sum.get(), min.get(), max.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.librarymanagement.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, gauges and latency recorders of one application.
+ * Instruments are created on first use and then shared, so services look theirs up once and
+ * keep the reference; the registry itself is never on the hot path. Readers pull values with
+ * getCounters() / getGauges() / getLatencies() or a text dump with format()
+ * (MetricsReporter logs it periodically).
+ *
+ * Names are dotted lowercase, e.g. "lending.borrow" or "reservation.create.rejected".
+ * A disabled() registry hands out shared no-op instruments, which is what services use
+ * until a real registry is set.
+ *
+ * Usage:
+ *   MetricsRegistry metrics = new MetricsRegistry();
+ *   lendingService.setMetricsRegistry(metrics);
+ *   metrics.gauge("scheduler.pending", deadlineScheduler::pendingDeadlines);
+ *   System.out.println(metrics.format());
+ */
+public class MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final MetricsRegistry DISABLED = new MetricsRegistry(false);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+        this(true);
+    }
+
+    private MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registry whose instruments record nothing
+     */
+    public static MetricsRegistry disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Counter counter(String name) {
+        if (!enabled) {
+            return Counter.DISABLED;
+        }
+        return counters.computeIfAbsent(name, key -> new Counter(new LongAdder()));
+    }
+
+    public LatencyRecorder latency(String name) {
+        if (!enabled) {
+            return LatencyRecorder.DISABLED;
+        }
+        return latencies.computeIfAbsent(name, key -> new LatencyRecorder());
+    }
+
+    /**
+     * Register a value that is read when metrics are pulled (replaces a gauge of the same name).
+     * The supplier is called on the reader's thread and should be cheap.
+     */
+    public void gauge(String name, LongSupplier value) {
+        if (enabled) {
+            gauges.put(name, value);
+        }
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            try {
+                values.put(name, gauge.getAsLong());
+            } catch (RuntimeException e) {
+                logger.warn("Gauge {} could not be read", name, e);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Snapshots of all latency recorders, in nanoseconds
+     */
+    public Map<String, LatencyHistogram> getLatencies() {
+        Map<String, LatencyHistogram> values = new TreeMap<>();
+        latencies.forEach((name, recorder) -> values.put(name, recorder.snapshot()));
+        return values;
+    }
+
+    /**
+     * Text dump of every metric, latencies in microseconds
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        Map<String, Long> counterValues = getCounters();
+        if (!counterValues.isEmpty()) {
+            text.append(String.format("Counters%n"));
+            counterValues.forEach((name, value) -> text.append(String.format("  %-36s %12d%n", name, value)));
+        }
+        Map<String, Long> gaugeValues = getGauges();
+        if (!gaugeValues.isEmpty()) {
+            text.append(String.format("Gauges%n"));
+            gaugeValues.forEach((name, value) -> text.append(String.format("  %-36s %12d%n", name, value)));
+        }
+        Map<String, LatencyHistogram> latencyValues = getLatencies();
+        if (!latencyValues.isEmpty()) {
+            text.append(String.format("Latencies (us)  %22s %12s %10s %10s %10s %10s %10s %10s%n",
+                    "", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+            latencyValues.forEach((name, histogram) -> {
+                text.append(String.format("  %-36s %12d %10.1f", name, histogram.getCount(), histogram.getMean() / 1000));
+                for (double percentile : PERCENTILES) {
+                    text.append(String.format(" %10.1f", histogram.getValueAtPercentile(percentile) / 1000.0));
+                }
+                text.append(String.format(" %10.1f%n", histogram.getMax() / 1000.0));
+            });
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package org.librarymanagement.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes MetricsRegistry.format() on a daemon thread at a fixed interval
+ * (to the log by default). Values are cumulative since the registry was created.
+ *
+ * Usage:
+ *   MetricsReporter reporter = new MetricsReporter(metrics, Duration.ofSeconds(30));
+ *   reporter.start();
+ */
+public class MetricsReporter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final MetricsRegistry registry;
+    private final Duration interval;
+    private final Consumer<String> sink;
+    private ScheduledExecutorService timer;
+
+    public MetricsReporter(MetricsRegistry registry, Duration interval) {
+        this(registry, interval, dump -> logger.info("Metrics{}{}", System.lineSeparator(), dump));
+    }
+
+    public MetricsReporter(MetricsRegistry registry, Duration interval, Consumer<String> sink) {
+        // The timer runs in whole milliseconds, so anything shorter would fail only at start()
+        if (interval.toMillis() < 1) {
+            throw new IllegalArgumentException("Reporting interval must be at least 1 ms");
+        }
+        this.registry = registry;
+        this.interval = interval;
+        this.sink = sink;
+    }
+
+    public synchronized void start() {
+        if (timer != null) {
+            throw new IllegalStateException("Metrics reporter already started");
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        timer.scheduleAtFixedRate(this::report, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write one dump now
+     */
+    public void report() {
+        try {
+            sink.accept(registry.format());
+        } catch (RuntimeException e) {
+            logger.error("Failed to report metrics", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.librarymanagement.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving: the most frequent strings of a stream, tracked with a fixed number of counters.
+ * An unseen item takes over the counter with the smallest count and inherits that count as its
+ * error. With N the total of all additions and capacity counters:
+ *   - a reported count never undercounts: count(x) <= reported count
+ *   - it overcounts by at most its error, and every error is at most N / capacity
+ *   - every item occurring more than N / capacity times is tracked
+ * Counters are grouped in buckets by count, so an addition costs O(log distinct counts).
+ *
+ * Thread-safe: all methods synchronize on the summary.
+ */
+public class SpaceSavingTopK {
+
+    /**
+     * A tracked item; the true count lies between count - error and count
+     */
+    public record HeavyHitter(String item, long count, long error) {
+        public long lowerBound() {
+            return count - error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final NavigableMap<Long, Set<Slot>> slotsByCount = new TreeMap<>();
+    private long total;
+
+    public SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public synchronized void add(String item, long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        total += count;
+        Slot slot = slots.get(item);
+        if (slot != null) {
+            unlink(slot);
+        } else if (slots.size() < capacity) {
+            slot = new Slot(item, 0);
+            slots.put(item, slot);
+        } else {
+            // Take over the oldest counter with the smallest count
+            Slot evicted = slotsByCount.firstEntry().getValue().iterator().next();
+            unlink(evicted);
+            slots.remove(evicted.item);
+            slot = new Slot(item, evicted.count);
+            slots.put(item, slot);
+        }
+        slot.count += count;
+        link(slot);
+    }
+
+    /**
+     * The k items with the highest counts, highest first
+     */
+    public synchronized List<HeavyHitter> top(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        List<HeavyHitter> top = new ArrayList<>(Math.min(k, slots.size()));
+        for (Set<Slot> bucket : slotsByCount.descendingMap().values()) {
+            for (Slot slot : bucket) {
+                top.add(new HeavyHitter(slot.item, slot.count, slot.error));
+                if (top.size() == k) {
+                    return top;
+                }
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Upper bound on the item's count: its counter if tracked, otherwise the smallest counter
+     * (0 while the summary has free counters)
+     */
+    public synchronized long estimate(String item) {
+        Slot slot = slots.get(item);
+        if (slot != null) {
+            return slot.count;
+        }
+        return slots.size() < capacity ? 0 : slotsByCount.firstKey();
+    }
+
+    /**
+     * Sum of all counts added (N in the error bound)
+     */
+    public synchronized long getTotalCount() {
+        return total;
+    }
+
+    /**
+     * Largest possible error of any reported count, N / capacity rounded down
+     */
+    public synchronized long getMaxError() {
+        return total / capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void link(Slot slot) {
+        slotsByCount.computeIfAbsent(slot.count, count -> new LinkedHashSet<>()).add(slot);
+    }
+
+    private void unlink(Slot slot) {
+        Set<Slot> bucket = slotsByCount.get(slot.count);
+        if (bucket.remove(slot) && bucket.isEmpty()) {
+            slotsByCount.remove(slot.count);
+        }
+    }
+
+    private static final class Slot {
+        private final String item;
+        private final long error;
+        private long count;
+
+        Slot(String item, long error) {
+            this.item = item;
+            this.error = error;
+            this.count = error;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.persistence.EntityCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Delivers observer notifications on a pool of consumer threads instead of the request thread.
+ * async(...) wraps an observer so that LendingService / ReservationService only enqueue the
+ * event; each wrapped observer gets its own bounded buffer, batch size and overflow policy
+ * (see ObserverMailbox), and events reach it in publish order.
+ *
+ * The consumer threads come from the given ThreadFactory (daemon platform threads by default),
+ * so a virtual-thread factory can be passed on runtimes that have one. Spilled events are
+ * re-read with EntityCodec, so a spilled event carries copies of the entities, not the live
+ * objects. With BLOCK, observers must not publish back into a full buffer from their callbacks.
+ *
+ * Usage:
+ *   AsyncEventBus bus = new AsyncEventBus(2, Path.of("data/spill"));
+ *   lendingService.addObserver(bus.async(new EmailNotificationObserver(), OverflowPolicy.SPILL_TO_DISK));
+ *   ...
+ *   bus.close(); // delivers what is still buffered
+ */
+public class AsyncEventBus implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventBus.class);
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final ExecutorService consumers;
+    private final Path spillDirectory;
+    private final List<ObserverMailbox<?>> mailboxes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger mailboxCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    public AsyncEventBus(int consumerThreads) {
+        this(consumerThreads, null);
+    }
+
+    /**
+     * @param spillDirectory Where SPILL_TO_DISK observers keep their overflow files (may be null if unused)
+     */
+    public AsyncEventBus(int consumerThreads, Path spillDirectory) {
+        this(consumerThreads, spillDirectory, daemonThreads());
+    }
+
+    public AsyncEventBus(int consumerThreads, Path spillDirectory, ThreadFactory threadFactory) {
+        if (consumerThreads <= 0) {
+            throw new IllegalArgumentException("Consumer thread count must be positive");
+        }
+        this.consumers = Executors.newFixedThreadPool(consumerThreads, threadFactory);
+        this.spillDirectory = spillDirectory;
+    }
+
+    public LibraryEventObserver async(LibraryEventObserver observer, OverflowPolicy policy) {
+        return async(observer, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, policy);
+    }
+
+    public LibraryEventObserver async(LibraryEventObserver observer, int capacity, int batchSize,
+                                      OverflowPolicy policy) {
+        String name = nameOf(observer);
+        ObserverMailbox<LendingEvent> mailbox = register(name, capacity, batchSize, policy, LENDING_CODEC,
+                batch -> {
+                    for (LendingEvent event : batch) {
+                        try {
+                            event.deliverTo(observer);
+                        } catch (RuntimeException e) {
+                            logger.error("Observer {} failed on {} of record {}", name, event.type,
+                                    event.record.getRecordId(), e);
+                        }
+                    }
+                });
+        return new LibraryEventObserver() {
+            @Override
+            public void onBookBorrowed(LendingRecord record) {
+                mailbox.publish(new LendingEvent(LendingEventType.BORROWED, record));
+            }
+
+            @Override
+            public void onBookReturned(LendingRecord record) {
+                mailbox.publish(new LendingEvent(LendingEventType.RETURNED, record));
+            }
+
+            @Override
+            public void onBookOverdue(LendingRecord record) {
+                mailbox.publish(new LendingEvent(LendingEventType.OVERDUE, record));
+            }
+        };
+    }
+
+    public ReservationObserver async(ReservationObserver observer, OverflowPolicy policy) {
+        return async(observer, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, policy);
+    }
+
+    public ReservationObserver async(ReservationObserver observer, int capacity, int batchSize,
+                                     OverflowPolicy policy) {
+        String name = nameOf(observer);
+        ObserverMailbox<ReservationEvent> mailbox = register(name, capacity, batchSize, policy, RESERVATION_CODEC,
+                batch -> {
+                    for (ReservationEvent event : batch) {
+                        try {
+                            observer.onReservationEvent(event);
+                        } catch (RuntimeException e) {
+                            logger.error("Observer {} failed on {} of reservation {}", name, event.type(),
+                                    event.reservation().getReservationId(), e);
+                        }
+                    }
+                });
+        return new ReservationObserver() {
+            @Override
+            public void onReservationEvent(ReservationEvent event) {
+                mailbox.publish(event);
+            }
+
+            @Override
+            public Set<ReservationEventType> subscribedEvents() {
+                // Filter before the buffer, not after it
+                return observer.subscribedEvents();
+            }
+        };
+    }
+
+    /**
+     * Events discarded by DROP observers (or by BLOCK publishers that were interrupted)
+     */
+    public long getDroppedEvents() {
+        return mailboxes.stream().mapToLong(ObserverMailbox::droppedEvents).sum();
+    }
+
+    /**
+     * Events that went through a spill file
+     */
+    public long getSpilledEvents() {
+        return mailboxes.stream().mapToLong(ObserverMailbox::spilledEvents).sum();
+    }
+
+    /**
+     * Deliver the buffered events and stop the consumer threads.
+     * Events published after this are delivered on the publishing thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            for (ObserverMailbox<?> mailbox : mailboxes) {
+                if (!mailbox.close(1, TimeUnit.MINUTES)) {
+                    logger.warn("Timed out delivering buffered events on close");
+                }
+            }
+            consumers.shutdown();
+            consumers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <E> ObserverMailbox<E> register(String name, int capacity, int batchSize, OverflowPolicy policy,
+                                            EventSpillFile.Codec<E> codec,
+                                            Consumer<List<E>> handler) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        EventSpillFile<E> spill = null;
+        if (policy == OverflowPolicy.SPILL_TO_DISK) {
+            if (spillDirectory == null) {
+                throw new IllegalStateException("Event bus has no spill directory");
+            }
+            spill = new EventSpillFile<>(spillDirectory.resolve(name + ".spill"), codec);
+        }
+        ObserverMailbox<E> mailbox = new ObserverMailbox<>(name, capacity, batchSize, policy, spill, handler, consumers);
+        mailboxes.add(mailbox);
+        logger.info("Observer {} registered asynchronously ({} events, batches of {}, {} when full)",
+                name, capacity, batchSize, policy);
+        return mailbox;
+    }
+
+    private String nameOf(Object observer) {
+        return observer.getClass().getSimpleName() + "-" + mailboxCount.incrementAndGet();
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "event-bus-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private enum LendingEventType {
+        BORROWED,
+        RETURNED,
+        OVERDUE
+    }
+
+    private static final class LendingEvent {
+        private final LendingEventType type;
+        private final LendingRecord record;
+
+        LendingEvent(LendingEventType type, LendingRecord record) {
+            this.type = type;
+            this.record = record;
+        }
+
+        void deliverTo(LibraryEventObserver observer) {
+            switch (type) {
+                case BORROWED:
+                    observer.onBookBorrowed(record);
+                    break;
+                case RETURNED:
+                    observer.onBookReturned(record);
+                    break;
+                case OVERDUE:
+                    observer.onBookOverdue(record);
+                    break;
+            }
+        }
+    }
+
+    private static final EventSpillFile.Codec<LendingEvent> LENDING_CODEC = new EventSpillFile.Codec<>() {
+        @Override
+        public void write(DataOutput out, LendingEvent event) throws IOException {
+            out.writeByte(event.type.ordinal());
+            EntityCodec.writeLendingRecord(out, event.record);
+        }
+
+        @Override
+        public LendingEvent read(DataInput in) throws IOException {
+            LendingEventType type = LendingEventType.values()[in.readByte()];
+            return new LendingEvent(type, EntityCodec.readLendingRecord(in));
+        }
+    };
+
+    private static final EventSpillFile.Codec<ReservationEvent> RESERVATION_CODEC = new EventSpillFile.Codec<>() {
+        @Override
+        public void write(DataOutput out, ReservationEvent event) throws IOException {
+            out.writeByte(event.type().ordinal());
+            EntityCodec.writeReservation(out, event.reservation());
+            if (event instanceof ReservationEvent.Ready ready) {
+                EntityCodec.writePatron(out, ready.patron());
+            } else if (event instanceof ReservationEvent.Fulfilled fulfilled) {
+                EntityCodec.writeLendingRecord(out, fulfilled.lendingRecord());
+            }
+        }
+
+        @Override
+        public ReservationEvent read(DataInput in) throws IOException {
+            ReservationEventType type = ReservationEventType.values()[in.readByte()];
+            Reservation reservation = EntityCodec.readReservation(in);
+            switch (type) {
+                case CREATED:
+                    return new ReservationEvent.Created(reservation);
+                case READY:
+                    return new ReservationEvent.Ready(reservation, EntityCodec.readPatron(in));
+                case CANCELLED:
+                    return new ReservationEvent.Cancelled(reservation);
+                case EXPIRED:
+                    return new ReservationEvent.Expired(reservation);
+                case FULFILLED:
+                    return new ReservationEvent.Fulfilled(reservation, EntityCodec.readLendingRecord(in));
+                default:
+                    throw new IOException("Unknown reservation event type " + type);
+            }
+        }
+    };
+}
@@ -0,0 +1,79 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Observer that keeps an all-time borrow count per ISBN.
+ * Register it with LendingService and seed it from LendingRepository history at startup.
+ * Listeners are told about every count change, so derived rankings can update incrementally.
+ */
+public class BorrowPopularityTracker implements LibraryEventObserver, PopularitySource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BorrowPopularityTracker.class);
+
+    /**
+     * Listener notified when the borrow count of a book changes
+     */
+    public interface PopularityListener {
+        void onPopularityChanged(String isbn, long borrowCount);
+    }
+
+    private final Map<String, LongAdder> borrowCounts = new ConcurrentHashMap<>();
+    private final List<PopularityListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Load counts from existing lending history (every record is one borrow)
+     */
+    public void seed(Collection<LendingRecord> history) {
+        for (LendingRecord record : history) {
+            increment(record.getIsbn());
+        }
+        logger.info("Popularity tracker seeded with {} lending records", history.size());
+    }
+
+    @Override
+    public void addListener(PopularityListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(PopularityListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public long getBorrowCount(String isbn) {
+        LongAdder count = borrowCounts.get(isbn);
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public void onBookBorrowed(LendingRecord record) {
+        increment(record.getIsbn());
+    }
+
+    @Override
+    public void onBookReturned(LendingRecord record) {
+        // Popularity counts borrows only
+    }
+
+    private void increment(String isbn) {
+        LongAdder count = borrowCounts.computeIfAbsent(isbn, k -> new LongAdder());
+        count.increment();
+        if (!listeners.isEmpty()) {
+            long borrowCount = count.sum();
+            for (PopularityListener listener : listeners) {
+                listener.onPopularityChanged(isbn, borrowCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.Book;
+
+/**
+ * Observer interface for catalogue changes.
+ * Lets derived structures (search indexes, autocomplete) stay in sync with BookService.
+ */
+public interface CatalogObserver {
+    void onBookAdded(Book book);
+    void onBookModified(Book book);
+    void onBookRemoved(Book book);
+}
@@ -0,0 +1,14 @@
+package org.librarymanagement.observer;
+
+/**
+ * Prints messages to standard output instead of sending them
+ */
+public class ConsoleMailTransport implements MailTransport {
+    @Override
+    public synchronized void send(String recipient, String subject, String body) {
+        System.out.println("Sending email to: " + recipient);
+        System.out.println("Subject: " + subject);
+        System.out.println("Body: " + body);
+        System.out.println("---");
+    }
+}
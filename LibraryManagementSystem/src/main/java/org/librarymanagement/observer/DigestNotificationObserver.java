@@ -0,0 +1,207 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.repository.PatronRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Email observer that coalesces notifications per patron into digests.
+ * The first event for a patron opens a window; everything that patron triggers until the
+ * window closes (borrows, returns, overdue loans, holds ready or expired) goes out as one
+ * message. A digest is sent early once it reaches maxEventsPerDigest, and close() sends
+ * whatever is still buffered (later events are sent one by one).
+ *
+ * Usage:
+ *   DigestNotificationObserver digest = new DigestNotificationObserver(
+ *           new FileMailTransport(Path.of("mail")), patronRepository, Duration.ofMinutes(5));
+ *   lendingService.addObserver(digest);
+ *   reservationService.addObserver(digest);
+ */
+public class DigestNotificationObserver implements LibraryEventObserver, ReservationObserver, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestNotificationObserver.class);
+    private static final int DEFAULT_MAX_EVENTS_PER_DIGEST = 50;
+    private static final Set<ReservationEventType> SUBSCRIBED =
+            EnumSet.of(ReservationEventType.READY, ReservationEventType.EXPIRED);
+
+    private final MailTransport transport;
+    private final PatronRepository patronRepository;
+    private final Duration window;
+    private final int maxEventsPerDigest;
+    private final ConcurrentHashMap<String, Digest> digests = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private volatile boolean closed;
+
+    public DigestNotificationObserver(MailTransport transport, PatronRepository patronRepository, Duration window) {
+        this(transport, patronRepository, window, DEFAULT_MAX_EVENTS_PER_DIGEST);
+    }
+
+    public DigestNotificationObserver(MailTransport transport, PatronRepository patronRepository,
+                                      Duration window, int maxEventsPerDigest) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Digest window must be positive");
+        }
+        if (maxEventsPerDigest <= 0) {
+            throw new IllegalArgumentException("Max events per digest must be positive");
+        }
+        this.transport = transport;
+        this.patronRepository = patronRepository;
+        this.window = window;
+        this.maxEventsPerDigest = maxEventsPerDigest;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "digest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onBookBorrowed(LendingRecord record) {
+        add(record.getPatronId(), String.format("Borrowed ISBN %s, due %s", record.getIsbn(), record.getDueDate()));
+    }
+
+    @Override
+    public void onBookReturned(LendingRecord record) {
+        add(record.getPatronId(), String.format("Returned ISBN %s", record.getIsbn()));
+    }
+
+    @Override
+    public void onBookOverdue(LendingRecord record) {
+        add(record.getPatronId(), String.format("OVERDUE: ISBN %s was due %s, please return it",
+                record.getIsbn(), record.getDueDate()));
+    }
+
+    @Override
+    public Set<ReservationEventType> subscribedEvents() {
+        return SUBSCRIBED;
+    }
+
+    @Override
+    public void onReservationEvent(ReservationEvent event) {
+        if (event instanceof ReservationEvent.Ready ready) {
+            add(ready.reservation().getPatronId(), String.format("Reserved ISBN %s is ready for pickup until %s",
+                    ready.reservation().getIsbn(), ready.reservation().getExpiryDate()));
+        } else if (event instanceof ReservationEvent.Expired expired) {
+            add(expired.reservation().getPatronId(), String.format("Your hold on ISBN %s expired",
+                    expired.reservation().getIsbn()));
+        }
+    }
+
+    /**
+     * Events received so far
+     */
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    /**
+     * Digests sent so far
+     */
+    public long getMessageCount() {
+        return messages.sum();
+    }
+
+    /**
+     * Send all buffered digests and stop the flush timer
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.shutdownNow();
+        for (String patronId : digests.keySet()) {
+            Digest digest = digests.get(patronId);
+            if (digest != null) {
+                flush(patronId, digest);
+            }
+        }
+    }
+
+    private void add(String patronId, String line) {
+        events.increment();
+        if (closed) {
+            Digest single = new Digest();
+            single.lines.add(line);
+            send(patronId, single);
+            return;
+        }
+        Digest[] full = new Digest[1];
+        Digest buffered = digests.compute(patronId, (id, digest) -> {
+            boolean scheduled = true;
+            if (digest == null) {
+                digest = new Digest();
+                Digest opened = digest;
+                try {
+                    flusher.schedule(() -> flush(id, opened), window.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Closed since the check above: no timer will send it, so send it now
+                    scheduled = false;
+                }
+            }
+            digest.lines.add(line);
+            if (!scheduled || digest.lines.size() >= maxEventsPerDigest) {
+                // Send now; the pending timer finds the digest gone and does nothing
+                full[0] = digest;
+                return null;
+            }
+            return digest;
+        });
+        if (full[0] != null) {
+            send(patronId, full[0]);
+        } else if (closed) {
+            // close() may have swept the digests before this one was stored
+            flush(patronId, buffered);
+        }
+    }
+
+    private void flush(String patronId, Digest digest) {
+        // Only the caller that removes the digest sends it
+        if (digests.remove(patronId, digest)) {
+            send(patronId, digest);
+        }
+    }
+
+    private void send(String patronId, Digest digest) {
+        List<String> lines = digest.lines;
+        String subject = lines.size() == 1 ? "Library notification" : "Library activity: " + lines.size() + " updates";
+        StringBuilder body = new StringBuilder();
+        for (String line : lines) {
+            body.append("- ").append(line).append('\n');
+        }
+        try {
+            transport.send(recipientOf(patronId), subject, body.toString());
+            messages.increment();
+        } catch (RuntimeException e) {
+            logger.error("Failed to send digest of {} events to patron {}", lines.size(), patronId, e);
+        }
+    }
+
+    private String recipientOf(String patronId) {
+        Optional<Patron> patron = patronRepository.findById(patronId);
+        return patron.map(Patron::getEmail).filter(email -> !email.isBlank()).orElse(patronId);
+    }
+
+    /**
+     * Events buffered for one patron; only touched inside digests.compute / after removal
+     */
+    private static final class Digest {
+        private final List<String> lines = new ArrayList<>();
+    }
+}
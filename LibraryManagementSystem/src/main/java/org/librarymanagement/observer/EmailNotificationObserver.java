@@ -3,6 +3,16 @@ package org.librarymanagement.observer;
 import org.librarymanagement.mainentities.LendingRecord;
 
 public class EmailNotificationObserver implements LibraryEventObserver {
+    private final MailTransport transport;
+
+    public EmailNotificationObserver() {
+        this(new ConsoleMailTransport());
+    }
+
+    public EmailNotificationObserver(MailTransport transport) {
+        this.transport = transport;
+    }
+
     @Override
     public void onBookBorrowed(LendingRecord record) {
         sendEmail(record.getPatronId(),
@@ -19,11 +29,15 @@ public class EmailNotificationObserver implements LibraryEventObserver {
                         record.getIsbn()));
     }
 
+    @Override
+    public void onBookOverdue(LendingRecord record) {
+        sendEmail(record.getPatronId(),
+                "Book Overdue",
+                String.format("The book with ISBN: %s was due on %s. Please return it as soon as possible.",
+                        record.getIsbn(), record.getDueDate()));
+    }
+
     private void sendEmail(String recipient, String subject, String body) {
-        // Simulate email sending
-        System.out.println("Sending email to: " + recipient);
-        System.out.println("Subject: " + subject);
-        System.out.println("Body: " + body);
-        System.out.println("---");
+        transport.send(recipient, subject, body);
     }
 }
@@ -0,0 +1,120 @@
+package org.librarymanagement.observer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Overflow file of an asynchronous observer: events are appended while its buffer is full
+ * and read back in the same order. The file is truncated whenever it has been read completely.
+ * It only extends the buffer, it is not a durable log: the file is not fsynced and a file
+ * left behind by a previous run is discarded.
+ * Thread-safe: all methods synchronize on the spill file.
+ */
+final class EventSpillFile<E> implements Closeable {
+
+    /**
+     * Binary encoding of one event
+     */
+    interface Codec<E> {
+        void write(DataOutput out, E event) throws IOException;
+
+        E read(DataInput in) throws IOException;
+    }
+
+    private final Path path;
+    private final Codec<E> codec;
+    private DataOutputStream out;
+    private DataInputStream in;
+    // Written by producers under the lock, read without it on the fast path
+    private volatile long pending;
+    private long written;
+
+    EventSpillFile(Path path, Codec<E> codec) {
+        this.path = path;
+        this.codec = codec;
+        try {
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare spill file " + path, e);
+        }
+    }
+
+    /**
+     * Number of events written but not read back yet
+     */
+    long pending() {
+        return pending;
+    }
+
+    long totalWritten() {
+        return written;
+    }
+
+    synchronized void append(E event) {
+        try {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile(), true)));
+            }
+            codec.write(out, event);
+            // Flush whole events only, so the reader never sees half of one
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill event to " + path, e);
+        }
+        written++;
+        pending++;
+    }
+
+    /**
+     * Read up to max events (in append order) into batch
+     */
+    synchronized void read(List<E> batch, int max) {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            if (in == null) {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(path.toFile())));
+            }
+            long count = Math.min(pending, max);
+            for (long i = 0; i < count; i++) {
+                batch.add(codec.read(in));
+            }
+            pending -= count;
+            if (pending == 0) {
+                reset();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled events from " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeStreams();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close spill file " + path, e);
+        }
+    }
+
+    private void reset() throws IOException {
+        closeStreams();
+        Files.deleteIfExists(path);
+    }
+
+    private void closeStreams() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.librarymanagement.observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for an SMTP server: every message becomes one .eml file (headers, blank line,
+ * body) in a pickup directory, so tests and demos can inspect what would have been sent.
+ * Files are named by send order: 000001-recipient.eml.
+ * Thread-safe.
+ */
+public class FileMailTransport implements MailTransport {
+
+    private final Path directory;
+    private final String sender;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public FileMailTransport(Path directory) {
+        this(directory, "library@localhost");
+    }
+
+    public FileMailTransport(Path directory, String sender) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create mail directory " + directory, e);
+        }
+        this.directory = directory;
+        this.sender = sender;
+    }
+
+    @Override
+    public void send(String recipient, String subject, String body) {
+        long number = sequence.incrementAndGet();
+        String fileName = String.format("%06d-%s.eml", number, recipient.replaceAll("[^A-Za-z0-9@._-]", "_"));
+        String message = "From: " + sender + "\r\n"
+                + "To: " + recipient + "\r\n"
+                + "Subject: " + subject + "\r\n"
+                + "Date: " + ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME) + "\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "\r\n"
+                + body.replace("\n", "\r\n") + "\r\n";
+        try {
+            Files.writeString(directory.resolve(fileName), message, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write message " + fileName, e);
+        }
+    }
+
+    /**
+     * Number of messages written by this transport
+     */
+    public long getSentCount() {
+        return sequence.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
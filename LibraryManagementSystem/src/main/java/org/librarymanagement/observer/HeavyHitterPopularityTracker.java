@@ -0,0 +1,195 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronType;
+import org.librarymanagement.metrics.CountMinSketch;
+import org.librarymanagement.metrics.SpaceSavingTopK;
+import org.librarymanagement.repository.BookRepository;
+import org.librarymanagement.repository.PatronRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observer that keeps approximate borrow counts per segment: a branch, a patron type, both, or
+ * everything. Exact counters for every (ISBN, branch, patron type) would grow with the catalogue;
+ * here each segment gets a CountMinSketch for the count of any ISBN and a SpaceSavingTopK for its
+ * most borrowed ISBNs, so memory depends on the number of branches, not on the catalogue.
+ *
+ * With N the borrows in a segment (defaults: epsilon 0.001, delta 0.01, 1000 counters):
+ *   - estimateBorrowCount overcounts by at most epsilon * N with probability 1 - delta, never undercounts
+ *   - topBorrowed contains every ISBN borrowed more than N / 1000 times; each entry's true count
+ *     lies between lowerBound() and count()
+ * Each segment takes about 0.2 MB (106 KB of sketch, the rest Space-Saving counters);
+ * 5 branches and 2 patron types make 18 segments, about 4 MB whatever the catalogue size.
+ *
+ * The branch of a borrow is the branch holding the book at that moment. Lending records do not
+ * keep the branch, so seeded history only counts towards the patron-type and ALL segments.
+ *
+ * Usage:
+ *   HeavyHitterPopularityTracker heavyHitters = new HeavyHitterPopularityTracker(bookRepository, patronRepository);
+ *   heavyHitters.seed(lendingRepository.findAll());
+ *   lendingService.addObserver(heavyHitters);
+ *   heavyHitters.topBorrowed(new HeavyHitterPopularityTracker.Segment("MAIN", PatronType.STUDENT), 10);
+ */
+public class HeavyHitterPopularityTracker implements LibraryEventObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeavyHitterPopularityTracker.class);
+    private static final double DEFAULT_EPSILON = 0.001;
+    private static final double DEFAULT_DELTA = 0.01;
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Borrows counted together; a null branch or patron type means any
+     */
+    public record Segment(String branchId, PatronType patronType) {
+        public static final Segment ALL = new Segment(null, null);
+    }
+
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+    private final double epsilon;
+    private final double delta;
+    private final int capacity;
+    private final ConcurrentHashMap<Segment, SegmentCounts> segments = new ConcurrentHashMap<>();
+
+    public HeavyHitterPopularityTracker(BookRepository bookRepository, PatronRepository patronRepository) {
+        this(bookRepository, patronRepository, DEFAULT_EPSILON, DEFAULT_DELTA, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param epsilon Count-Min overestimate bound as a fraction of the segment's borrows
+     * @param delta Probability that a count exceeds that bound
+     * @param capacity ISBNs tracked per segment by Space-Saving (also the largest useful k)
+     */
+    public HeavyHitterPopularityTracker(BookRepository bookRepository, PatronRepository patronRepository,
+                                        double epsilon, double delta, int capacity) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Load counts from existing lending history (every record is one borrow).
+     * Branch segments are skipped: the book may have been at another branch when it was lent.
+     */
+    public void seed(Collection<LendingRecord> history) {
+        for (LendingRecord record : history) {
+            count(record, null);
+        }
+        logger.info("Heavy-hitter tracker seeded with {} lending records in {} segments",
+                history.size(), segments.size());
+    }
+
+    @Override
+    public void onBookBorrowed(LendingRecord record) {
+        count(record, bookRepository.findByIsbn(record.getIsbn()).map(Book::getBranchId).orElse(null));
+    }
+
+    @Override
+    public void onBookReturned(LendingRecord record) {
+        // Popularity counts borrows only
+    }
+
+    private void count(LendingRecord record, String branchId) {
+        PatronType patronType = patronRepository.findById(record.getPatronId()).map(Patron::getPatronType).orElse(null);
+        String isbn = record.getIsbn();
+        add(Segment.ALL, isbn);
+        if (branchId != null) {
+            add(new Segment(branchId, null), isbn);
+        }
+        if (patronType != null) {
+            add(new Segment(null, patronType), isbn);
+        }
+        if (branchId != null && patronType != null) {
+            add(new Segment(branchId, patronType), isbn);
+        }
+    }
+
+    /**
+     * Approximate borrows of an ISBN in a segment; never below the true count
+     */
+    public long estimateBorrowCount(Segment segment, String isbn) {
+        SegmentCounts counts = segments.get(segment);
+        if (counts == null) {
+            return 0;
+        }
+        // Both structures overestimate, so the smaller answer is the tighter bound
+        return Math.min(counts.sketch.estimate(isbn), counts.topK.estimate(isbn));
+    }
+
+    /**
+     * The k most borrowed ISBNs of a segment, most borrowed first
+     *
+     * @param k At most the tracker's capacity
+     */
+    public List<SpaceSavingTopK.HeavyHitter> topBorrowed(Segment segment, int k) {
+        if (k <= 0 || k > capacity) {
+            throw new IllegalArgumentException("k must be between 1 and " + capacity);
+        }
+        SegmentCounts counts = segments.get(segment);
+        if (counts == null) {
+            return List.of();
+        }
+        List<SpaceSavingTopK.HeavyHitter> top = new ArrayList<>();
+        for (SpaceSavingTopK.HeavyHitter hitter : counts.topK.top(k)) {
+            // Tighten Space-Saving's count with the sketch, keeping its lower bound
+            long count = Math.min(hitter.count(), counts.sketch.estimate(hitter.item()));
+            top.add(new SpaceSavingTopK.HeavyHitter(hitter.item(), count, count - hitter.lowerBound()));
+        }
+        top.sort(Comparator.comparingLong(SpaceSavingTopK.HeavyHitter::count).reversed());
+        return top;
+    }
+
+    /**
+     * Borrows counted in a segment (N in the error bounds)
+     */
+    public long getBorrowCount(Segment segment) {
+        SegmentCounts counts = segments.get(segment);
+        return counts == null ? 0 : counts.sketch.getTotalCount();
+    }
+
+    /**
+     * Segments that have seen at least one borrow
+     */
+    public Set<Segment> getSegments() {
+        return Set.copyOf(segments.keySet());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void add(Segment segment, String isbn) {
+        SegmentCounts counts = segments.computeIfAbsent(segment, s -> new SegmentCounts(
+                CountMinSketch.forError(epsilon, delta), new SpaceSavingTopK(capacity)));
+        counts.sketch.add(isbn);
+        counts.topK.add(isbn);
+    }
+
+    private static final class SegmentCounts {
+        private final CountMinSketch sketch;
+        private final SpaceSavingTopK topK;
+
+        SegmentCounts(CountMinSketch sketch, SpaceSavingTopK topK) {
+            this.sketch = sketch;
+            this.topK = topK;
+        }
+    }
+}
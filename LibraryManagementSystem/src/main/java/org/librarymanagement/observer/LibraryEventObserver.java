@@ -5,4 +5,10 @@ import org.librarymanagement.mainentities.LendingRecord;
 public interface LibraryEventObserver {
     void onBookBorrowed(LendingRecord record);
     void onBookReturned(LendingRecord record);
+
+    /**
+     * Called once when an active loan passes its due date
+     */
+    default void onBookOverdue(LendingRecord record) {
+    }
 }
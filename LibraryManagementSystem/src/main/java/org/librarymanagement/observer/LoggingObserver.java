@@ -19,4 +19,10 @@ public class LoggingObserver implements LibraryEventObserver {
         logger.info("Book returned - ISBN: {}, Patron: {}, Return Date: {}",
                 record.getIsbn(), record.getPatronId(), record.getReturnDate());
     }
+
+    @Override
+    public void onBookOverdue(LendingRecord record) {
+        logger.warn("Book overdue - ISBN: {}, Patron: {}, Due Date: {}",
+                record.getIsbn(), record.getPatronId(), record.getDueDate());
+    }
 }
@@ -0,0 +1,9 @@
+package org.librarymanagement.observer;
+
+/**
+ * Outbound mail channel used by the email observers.
+ * Implementations must be thread-safe.
+ */
+public interface MailTransport {
+    void send(String recipient, String subject, String body);
+}
@@ -0,0 +1,182 @@
+package org.librarymanagement.observer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded event buffer of one asynchronous observer.
+ * Publishers add to a fixed-size ArrayBlockingQueue (a ring buffer); when it is full the
+ * overflow policy decides whether they wait, drop the event or spill it to disk. At most one
+ * consumer thread drains a mailbox at a time, so the observer sees events in publish order
+ * and does not need to be thread-safe against itself. Each drain hands over up to batchSize
+ * events at once and gives the thread back to the pool after a few batches, so a busy
+ * observer cannot starve the others.
+ */
+final class ObserverMailbox<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObserverMailbox.class);
+    private static final int MAX_BATCHES_PER_RUN = 16;
+
+    private final String name;
+    private final ArrayBlockingQueue<E> queue;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final EventSpillFile<E> spill;
+    private final Consumer<List<E>> handler;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final Object idle = new Object();
+    private volatile boolean closed;
+
+    ObserverMailbox(String name, int capacity, int batchSize, OverflowPolicy policy,
+                    EventSpillFile<E> spill, Consumer<List<E>> handler, Executor executor) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        if (policy == OverflowPolicy.SPILL_TO_DISK && spill == null) {
+            throw new IllegalArgumentException("Spilling to disk needs a spill file");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.spill = spill;
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    void publish(E event) {
+        if (closed) {
+            // The consumers are going away; deliver on the caller's thread instead of losing it
+            deliver(List.of(event));
+            return;
+        }
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    countDropped();
+                    return;
+                }
+                break;
+            case DROP:
+                if (!queue.offer(event)) {
+                    countDropped();
+                    return;
+                }
+                break;
+            case SPILL_TO_DISK:
+                // Once anything is spilled, later events follow it to disk to keep the order
+                if (spill.pending() != 0 || !queue.offer(event)) {
+                    synchronized (spill) {
+                        if (spill.pending() != 0 || !queue.offer(event)) {
+                            try {
+                                spill.append(event);
+                            } catch (RuntimeException e) {
+                                logger.error("Observer {} could not spill an event", name, e);
+                                countDropped();
+                                return;
+                            }
+                        }
+                    }
+                }
+                break;
+        }
+        schedule();
+    }
+
+    long droppedEvents() {
+        return dropped.sum();
+    }
+
+    long spilledEvents() {
+        return spill == null ? 0 : spill.totalWritten();
+    }
+
+    /**
+     * Stop accepting events into the buffer and wait for the ones already in it to be delivered
+     *
+     * @return Whether everything was delivered before the timeout
+     */
+    boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (scheduled.get() || hasWork()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                idle.wait(remaining);
+            }
+        }
+        if (spill != null) {
+            spill.close();
+        }
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        List<E> batch = new ArrayList<>(batchSize);
+        for (int run = 0; run < MAX_BATCHES_PER_RUN; run++) {
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty() && spill != null) {
+                // The queue only holds events older than the spilled ones, so it goes first
+                spill.read(batch, batchSize);
+            }
+            if (batch.isEmpty()) {
+                scheduled.set(false);
+                // A publisher may have added an event after the drain but before the flag was cleared
+                if (hasWork() && scheduled.compareAndSet(false, true)) {
+                    continue;
+                }
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+                return;
+            }
+            deliver(batch);
+            batch.clear();
+        }
+        // Let other mailboxes have the thread, this one stays scheduled
+        executor.execute(this::drain);
+    }
+
+    private void deliver(List<E> batch) {
+        try {
+            handler.accept(batch);
+        } catch (RuntimeException e) {
+            logger.error("Observer {} failed on a batch of {} events", name, batch.size(), e);
+        }
+    }
+
+    private boolean hasWork() {
+        return !queue.isEmpty() || (spill != null && spill.pending() != 0);
+    }
+
+    private void countDropped() {
+        dropped.increment();
+        long total = dropped.sum();
+        if (total == 1 || total % 1000 == 0) {
+            logger.warn("Observer {} is falling behind, {} events dropped so far", name, total);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.librarymanagement.observer;
+
+/**
+ * What an asynchronous observer does when its event buffer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Wait for the observer to catch up (the publishing thread blocks)
+     */
+    BLOCK,
+    /**
+     * Discard the event and count it
+     */
+    DROP,
+    /**
+     * Append the event to a spill file and deliver it, in order, once the buffer drains
+     */
+    SPILL_TO_DISK
+}
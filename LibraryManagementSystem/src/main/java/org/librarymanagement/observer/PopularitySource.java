@@ -0,0 +1,15 @@
+package org.librarymanagement.observer;
+
+/**
+ * Borrow counts per ISBN that notify listeners when they change.
+ * Implemented by the all-time BorrowPopularityTracker and by the sliding windows of
+ * TrendingPopularityTracker, so rankings can be built on either.
+ */
+public interface PopularitySource {
+
+    long getBorrowCount(String isbn);
+
+    void addListener(BorrowPopularityTracker.PopularityListener listener);
+
+    void removeListener(BorrowPopularityTracker.PopularityListener listener);
+}
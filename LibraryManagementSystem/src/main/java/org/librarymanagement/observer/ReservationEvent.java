@@ -0,0 +1,64 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.Reservation;
+
+/**
+ * Reservation lifecycle event published by ReservationService.
+ * One immutable record per stage, so observers get typed fields instead of casting payloads;
+ * type() gives the matching ReservationEventType for subscriptions and switches.
+ */
+public sealed interface ReservationEvent {
+
+    Reservation reservation();
+
+    ReservationEventType type();
+
+    /**
+     * Patron joined the queue for a book that is checked out
+     */
+    record Created(Reservation reservation) implements ReservationEvent {
+        @Override
+        public ReservationEventType type() {
+            return ReservationEventType.CREATED;
+        }
+    }
+
+    /**
+     * Book is on the hold shelf for the patron until the reservation's expiry date
+     */
+    record Ready(Reservation reservation, Patron patron) implements ReservationEvent {
+        @Override
+        public ReservationEventType type() {
+            return ReservationEventType.READY;
+        }
+    }
+
+    record Cancelled(Reservation reservation) implements ReservationEvent {
+        @Override
+        public ReservationEventType type() {
+            return ReservationEventType.CANCELLED;
+        }
+    }
+
+    /**
+     * Hold was not picked up in time; the book passes to the next patron in the queue
+     */
+    record Expired(Reservation reservation) implements ReservationEvent {
+        @Override
+        public ReservationEventType type() {
+            return ReservationEventType.EXPIRED;
+        }
+    }
+
+    /**
+     * Patron picked up the held book
+     */
+    record Fulfilled(Reservation reservation, LendingRecord lendingRecord) implements ReservationEvent {
+        @Override
+        public ReservationEventType type() {
+            return ReservationEventType.FULFILLED;
+        }
+    }
+}
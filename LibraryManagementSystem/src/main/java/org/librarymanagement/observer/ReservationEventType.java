@@ -0,0 +1,12 @@
+package org.librarymanagement.observer;
+
+/**
+ * Stages of the reservation lifecycle, used to subscribe to a subset of reservation events.
+ */
+public enum ReservationEventType {
+    CREATED,
+    READY,
+    CANCELLED,
+    EXPIRED,
+    FULFILLED
+}
@@ -5,6 +5,9 @@ import org.librarymanagement.mainentities.Reservation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Observer that handles reservation-specific notifications.
  * Notifies patrons when their reserved books become available.
@@ -14,21 +17,25 @@ public class ReservationNotificationObserver implements ReservationObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(ReservationNotificationObserver.class);
     
+    private static final Set<ReservationEventType> SUBSCRIBED = EnumSet.of(
+            ReservationEventType.CREATED, ReservationEventType.READY,
+            ReservationEventType.CANCELLED, ReservationEventType.EXPIRED);
+    
+    @Override
+    public Set<ReservationEventType> subscribedEvents() {
+        return SUBSCRIBED;
+    }
+    
     @Override
-    public void update(String event, Object data) {
-        switch (event) {
-            case "RESERVATION_CREATED":
-                handleReservationCreated((Reservation) data);
-                break;
-            case "RESERVATION_READY":
-                handleReservationReady((Object[]) data);
-                break;
-            case "RESERVATION_CANCELLED":
-                handleReservationCancelled((Reservation) data);
-                break;
-            default:
-                // Ignore other events
-                break;
+    public void onReservationEvent(ReservationEvent event) {
+        if (event instanceof ReservationEvent.Created created) {
+            handleReservationCreated(created.reservation());
+        } else if (event instanceof ReservationEvent.Ready ready) {
+            handleReservationReady(ready.reservation(), ready.patron());
+        } else if (event instanceof ReservationEvent.Cancelled cancelled) {
+            handleReservationCancelled(cancelled.reservation());
+        } else if (event instanceof ReservationEvent.Expired expired) {
+            handleReservationExpired(expired.reservation());
         }
     }
     
@@ -47,10 +54,7 @@ public class ReservationNotificationObserver implements ReservationObserver {
     /**
      * Handle when a reserved book becomes available
      */
-    private void handleReservationReady(Object[] data) {
-        Reservation reservation = (Reservation) data[0];
-        Patron patron = (Patron) data[1];
-        
+    private void handleReservationReady(Reservation reservation, Patron patron) {
         logger.info("=== BOOK READY FOR PICKUP ===");
         logger.info("Dear {}, your reserved book is ready!", patron.getName());
         logger.info("Book ISBN: {}", reservation.getIsbn());
@@ -74,6 +78,17 @@ public class ReservationNotificationObserver implements ReservationObserver {
         logger.info("============================\n");
     }
     
+    /**
+     * Handle when a hold was not picked up before its expiry date
+     */
+    private void handleReservationExpired(Reservation reservation) {
+        logger.info("=== RESERVATION EXPIRED ===");
+        logger.info("Reservation ID: {} was not picked up by {}", reservation.getReservationId(),
+                reservation.getExpiryDate());
+        logger.info("Book ISBN: {} passes to the next patron in the queue", reservation.getIsbn());
+        logger.info("============================\n");
+    }
+    
     /**
      * Simulate sending email notification
      */
@@ -1,15 +1,25 @@
 package org.librarymanagement.observer;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Observer interface for reservation-specific events.
  * Implements Observer Pattern for event-driven notifications related to reservations.
  */
 public interface ReservationObserver {
     /**
-     * Update method called when a reservation event occurs
-     * 
-     * @param event The type of event (e.g., "RESERVATION_CREATED", "RESERVATION_READY", "RESERVATION_CANCELLED")
-     * @param data The data associated with the event
+     * Called when a reservation event this observer subscribed to occurs
+     *
+     * @param event The event (Created, Ready, Cancelled, Expired or Fulfilled)
+     */
+    void onReservationEvent(ReservationEvent event);
+
+    /**
+     * Event types delivered to this observer; ReservationService skips the others
+     * (and does not build events nobody subscribed to)
      */
-    void update(String event, Object data);
+    default Set<ReservationEventType> subscribedEvents() {
+        return EnumSet.allOf(ReservationEventType.class);
+    }
 }
@@ -0,0 +1,245 @@
+package org.librarymanagement.observer;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observer that keeps borrow counts per ISBN over sliding windows (the last 7 and 30 days by default).
+ * Borrows are counted in hourly buckets; each window keeps a running total per ISBN, so a borrow
+ * is O(1) per window. When an hour leaves a window its bucket is subtracted from that window's
+ * totals, and the bucket is dropped once it has left the longest window. Memory is proportional
+ * to the borrows inside the longest window, not to the catalogue.
+ *
+ * Each window is a PopularitySource, so a PopularityBasedRecommendationStrategy built on it
+ * recommends what is trending rather than the all-time classics. Windows move forward on every
+ * borrow; start() also moves them on a daemon ticker so counts decay while nobody borrows.
+ * The clock is expected not to go back by more than an hour.
+ *
+ * Usage:
+ *   TrendingPopularityTracker trending = new TrendingPopularityTracker();
+ *   trending.seed(lendingRepository.findAll());
+ *   lendingService.addObserver(trending);
+ *   trending.start();
+ *   new PopularityBasedRecommendationStrategy(trending.getWindow(TrendingPopularityTracker.LAST_7_DAYS));
+ */
+public class TrendingPopularityTracker implements LibraryEventObserver, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingPopularityTracker.class);
+    public static final Duration LAST_7_DAYS = Duration.ofDays(7);
+    public static final Duration LAST_30_DAYS = Duration.ofDays(30);
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Duration DEFAULT_TICK = Duration.ofMinutes(1);
+
+    private final Clock clock;
+    private final List<Window> windows = new ArrayList<>();
+    private final long retainedHours;
+    private final ConcurrentSkipListMap<Long, Map<String, Long>> borrowsByHour = new ConcurrentSkipListMap<>();
+    private volatile long currentHour;
+    private ScheduledExecutorService ticker;
+
+    public TrendingPopularityTracker() {
+        this(Clock.systemDefaultZone(), LAST_7_DAYS, LAST_30_DAYS);
+    }
+
+    /**
+     * @param windows Window lengths, whole hours of at least one hour each
+     */
+    public TrendingPopularityTracker(Clock clock, Duration... windows) {
+        if (windows.length == 0) {
+            throw new IllegalArgumentException("At least one window is required");
+        }
+        long longest = 0;
+        for (Duration window : windows) {
+            if (window.toMillis() < HOUR_MILLIS || window.toMillis() % HOUR_MILLIS != 0) {
+                throw new IllegalArgumentException("Window must be a whole number of hours: " + window);
+            }
+            this.windows.add(new Window(window));
+            longest = Math.max(longest, window.toHours());
+        }
+        this.clock = clock;
+        this.retainedHours = longest;
+        this.currentHour = hourOf(clock.millis());
+        for (Window window : this.windows) {
+            window.expiredThrough = currentHour - window.hours;
+        }
+    }
+
+    /**
+     * The window of the given length
+     *
+     * @throws IllegalArgumentException If the tracker was not created with that window
+     */
+    public Window getWindow(Duration length) {
+        for (Window window : windows) {
+            if (window.length.equals(length)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("No trending window of " + length);
+    }
+
+    /**
+     * Count the records borrowed inside the longest window (every record is one borrow)
+     */
+    public synchronized void seed(Collection<LendingRecord> history) {
+        advance();
+        int counted = 0;
+        for (LendingRecord record : history) {
+            long hour = hourOf(record.getBorrowDate());
+            if (hour > currentHour - retainedHours && hour <= currentHour) {
+                record(record.getIsbn(), hour);
+                counted++;
+            }
+        }
+        logger.info("Trending tracker seeded with {} of {} lending records", counted, history.size());
+    }
+
+    /**
+     * Move every window to the clock's current hour, subtracting the hours that left it.
+     * Called on borrows and by the ticker; public so callers without a ticker can drive it.
+     */
+    public synchronized void advance() {
+        long now = Math.max(currentHour, hourOf(clock.millis()));
+        for (Window window : windows) {
+            long cutoff = now - window.hours;
+            if (cutoff > window.expiredThrough) {
+                for (Map<String, Long> bucket : borrowsByHour.subMap(window.expiredThrough, false, cutoff, true).values()) {
+                    for (Map.Entry<String, Long> entry : bucket.entrySet()) {
+                        window.add(entry.getKey(), -entry.getValue());
+                    }
+                }
+                window.expiredThrough = cutoff;
+            }
+        }
+        borrowsByHour.headMap(now - retainedHours, true).clear();
+        currentHour = now;
+    }
+
+    /**
+     * Advance the windows on a daemon thread so counts decay while nobody borrows
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            throw new IllegalStateException("Trending tracker already started");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending-popularity");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = DEFAULT_TICK.toMillis();
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                logger.error("Trending window advance failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public void onBookBorrowed(LendingRecord record) {
+        if (hourOf(clock.millis()) > currentHour) {
+            advance();
+        }
+        record(record.getIsbn(), currentHour);
+    }
+
+    @Override
+    public void onBookReturned(LendingRecord record) {
+        // Popularity counts borrows only
+    }
+
+    private void record(String isbn, long hour) {
+        // Bucket first: an hour is only subtracted from a window after the clock has left it
+        borrowsByHour.computeIfAbsent(hour, h -> new ConcurrentHashMap<>()).merge(isbn, 1L, Long::sum);
+        for (Window window : windows) {
+            if (hour > window.expiredThrough) {
+                window.add(isbn, 1);
+            }
+        }
+    }
+
+    private long hourOf(LocalDateTime time) {
+        return hourOf(time.atZone(clock.getZone()).toInstant().toEpochMilli());
+    }
+
+    private static long hourOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, HOUR_MILLIS);
+    }
+
+    /**
+     * Borrow counts over one sliding window; ISBNs without borrows in the window count 0
+     */
+    public static final class Window implements PopularitySource {
+        private final Duration length;
+        private final long hours;
+        private final ConcurrentHashMap<String, Long> borrowCounts = new ConcurrentHashMap<>();
+        private final List<BorrowPopularityTracker.PopularityListener> listeners = new CopyOnWriteArrayList<>();
+        // Hours up to and including this one have been subtracted; guarded by the tracker
+        private volatile long expiredThrough;
+
+        private Window(Duration length) {
+            this.length = length;
+            this.hours = length.toHours();
+        }
+
+        public Duration getLength() {
+            return length;
+        }
+
+        @Override
+        public long getBorrowCount(String isbn) {
+            return borrowCounts.getOrDefault(isbn, 0L);
+        }
+
+        /**
+         * Number of ISBNs borrowed inside the window
+         */
+        public int size() {
+            return borrowCounts.size();
+        }
+
+        @Override
+        public void addListener(BorrowPopularityTracker.PopularityListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(BorrowPopularityTracker.PopularityListener listener) {
+            listeners.remove(listener);
+        }
+
+        private void add(String isbn, long delta) {
+            // Drop ISBNs whose count falls back to zero so idle books cost nothing
+            Long updated = borrowCounts.merge(isbn, delta, (count, change) -> count + change == 0 ? null : count + change);
+            long borrowCount = updated == null ? 0 : updated;
+            for (BorrowPopularityTracker.PopularityListener listener : listeners) {
+                listener.onPopularityChanged(isbn, borrowCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.repository.BookRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BookRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations). Reads go straight to the delegate.
+ */
+class DurableBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurableBookRepository(BookRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, isbn -> delegate.findByIsbn(isbn).isPresent());
+    }
+
+    @Override
+    public void add(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        mutations.logAndApply(book.getIsbn(), true, () -> {
+            if (mutations.exists(book.getIsbn())) {
+                throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " already exists");
+            }
+            return true;
+        }, RecordType.PUT_BOOK, out -> EntityCodec.writeBook(out, book), () -> delegate.add(book));
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void modify(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        mutations.logAndApply(book.getIsbn(), true, () -> {
+            if (!mutations.exists(book.getIsbn())) {
+                throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " does not exist");
+            }
+            return true;
+        }, RecordType.PUT_BOOK, out -> EntityCodec.writeBook(out, book), () -> delegate.modify(book));
+    }
+
+    @Override
+    public boolean delete(String isbn) {
+        return mutations.logAndApply(isbn, false, () -> mutations.exists(isbn),
+                RecordType.DELETE_BOOK, out -> out.writeUTF(isbn), () -> delegate.delete(isbn));
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
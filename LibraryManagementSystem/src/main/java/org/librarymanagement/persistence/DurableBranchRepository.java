@@ -0,0 +1,72 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.Branch;
+import org.librarymanagement.repository.BranchRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BranchRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations).
+ */
+class DurableBranchRepository implements BranchRepository {
+
+    private final BranchRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurableBranchRepository(BranchRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, delegate::existsById);
+    }
+
+    @Override
+    public void save(Branch branch) {
+        if (branch == null || branch.getBranchId() == null) {
+            throw new IllegalArgumentException("Branch and branchId cannot be null");
+        }
+        mutations.logAndApply(branch.getBranchId(), true, () -> true,
+                RecordType.PUT_BRANCH, out -> EntityCodec.writeBranch(out, branch), () -> delegate.save(branch));
+    }
+
+    @Override
+    public Optional<Branch> findById(String branchId) {
+        return delegate.findById(branchId);
+    }
+
+    @Override
+    public List<Branch> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void update(Branch branch) {
+        if (branch == null || branch.getBranchId() == null) {
+            throw new IllegalArgumentException("Branch and branchId cannot be null");
+        }
+        mutations.logAndApply(branch.getBranchId(), true, () -> {
+            if (!mutations.exists(branch.getBranchId())) {
+                throw new IllegalArgumentException("Branch not found: " + branch.getBranchId());
+            }
+            return true;
+        }, RecordType.PUT_BRANCH, out -> EntityCodec.writeBranch(out, branch), () -> delegate.update(branch));
+    }
+
+    @Override
+    public void deleteById(String branchId) {
+        mutations.logAndApply(branchId, false, () -> mutations.exists(branchId),
+                RecordType.DELETE_BRANCH, out -> out.writeUTF(branchId), () -> delegate.deleteById(branchId));
+    }
+
+    @Override
+    public boolean existsById(String branchId) {
+        return delegate.existsById(branchId);
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
@@ -0,0 +1,83 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.repository.LendingRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * LendingRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations).
+ * Records are logged in full, so a return simply re-puts the record with its return date.
+ */
+class DurableLendingRepository implements LendingRepository {
+
+    private final LendingRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurableLendingRepository(LendingRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, recordId -> delegate.findById(recordId).isPresent());
+    }
+
+    @Override
+    public void add(LendingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("LendingRecord cannot be null");
+        }
+        mutations.logAndApply(record.getRecordId(), true, () -> true,
+                RecordType.PUT_LENDING, out -> EntityCodec.writeLendingRecord(out, record), () -> delegate.add(record));
+    }
+
+    @Override
+    public Optional<LendingRecord> findById(String recordId) {
+        return delegate.findById(recordId);
+    }
+
+    @Override
+    public List<LendingRecord> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<LendingRecord> findByPatronId(String patronId) {
+        return delegate.findByPatronId(patronId);
+    }
+
+    @Override
+    public List<LendingRecord> findByIsbn(String isbn) {
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public void modify(LendingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("LendingRecord cannot be null");
+        }
+        mutations.logAndApply(record.getRecordId(), true, () -> true,
+                RecordType.PUT_LENDING, out -> EntityCodec.writeLendingRecord(out, record), () -> delegate.modify(record));
+    }
+
+    @Override
+    public List<LendingRecord> findActiveLendings(String patronId) {
+        return delegate.findActiveLendings(patronId);
+    }
+
+    @Override
+    public Optional<LendingRecord> findActiveLending(String isbn, String patronId) {
+        return delegate.findActiveLending(isbn, patronId);
+    }
+
+    @Override
+    public List<LendingRecord> findAllActive() {
+        return delegate.findAllActive();
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
@@ -0,0 +1,78 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.BorrowingHistoryArchive;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.repository.PatronRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PatronRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations).
+ * Borrowing history is not logged here; it is rebuilt from lending records on replay.
+ */
+class DurablePatronRepository implements PatronRepository {
+
+    private final PatronRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurablePatronRepository(PatronRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, patronId -> delegate.findById(patronId).isPresent());
+    }
+
+    @Override
+    public void add(Patron patron) {
+        if (patron == null) {
+            throw new IllegalArgumentException("Patron cannot be null");
+        }
+        mutations.logAndApply(patron.getPatronId(), true, () -> {
+            if (mutations.exists(patron.getPatronId())) {
+                throw new IllegalStateException("Patron with ID " + patron.getPatronId() + " already exists");
+            }
+            return true;
+        }, RecordType.PUT_PATRON, out -> EntityCodec.writePatron(out, patron), () -> delegate.add(patron));
+    }
+
+    @Override
+    public Optional<Patron> findById(String patronId) {
+        return delegate.findById(patronId);
+    }
+
+    @Override
+    public List<Patron> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void modify(Patron patron) {
+        if (patron == null) {
+            throw new IllegalArgumentException("Patron cannot be null");
+        }
+        mutations.logAndApply(patron.getPatronId(), true, () -> {
+            if (!mutations.exists(patron.getPatronId())) {
+                throw new IllegalStateException("Patron with ID " + patron.getPatronId() + " does not exist");
+            }
+            return true;
+        }, RecordType.PUT_PATRON, out -> EntityCodec.writePatron(out, patron), () -> delegate.modify(patron));
+    }
+
+    @Override
+    public boolean delete(String patronId) {
+        return mutations.logAndApply(patronId, false, () -> mutations.exists(patronId),
+                RecordType.DELETE_PATRON, out -> out.writeUTF(patronId), () -> delegate.delete(patronId));
+    }
+
+    @Override
+    public void setHistoryArchive(BorrowingHistoryArchive historyArchive) {
+        delegate.setHistoryArchive(historyArchive);
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
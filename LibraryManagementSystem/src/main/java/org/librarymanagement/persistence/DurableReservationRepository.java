@@ -0,0 +1,94 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.repository.ReservationRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ReservationRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations).
+ * Queue order is rebuilt on replay from the order in which reservations were saved.
+ */
+class DurableReservationRepository implements ReservationRepository {
+
+    private final ReservationRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurableReservationRepository(ReservationRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, reservationId -> delegate.findById(reservationId).isPresent());
+    }
+
+    @Override
+    public void save(Reservation reservation) {
+        if (reservation == null || reservation.getReservationId() == null) {
+            throw new IllegalArgumentException("Reservation and reservationId cannot be null");
+        }
+        mutations.logAndApply(reservation.getReservationId(), true, () -> true, RecordType.PUT_RESERVATION,
+                out -> EntityCodec.writeReservation(out, reservation), () -> delegate.save(reservation));
+    }
+
+    @Override
+    public Optional<Reservation> findById(String reservationId) {
+        return delegate.findById(reservationId);
+    }
+
+    @Override
+    public List<Reservation> findActiveReservationsByIsbn(String isbn) {
+        return delegate.findActiveReservationsByIsbn(isbn);
+    }
+
+    @Override
+    public Optional<Reservation> findNextActiveReservation(String isbn) {
+        return delegate.findNextActiveReservation(isbn);
+    }
+
+    @Override
+    public int getQueuePosition(String reservationId) {
+        return delegate.getQueuePosition(reservationId);
+    }
+
+    @Override
+    public int countActiveReservations(String isbn) {
+        return delegate.countActiveReservations(isbn);
+    }
+
+    @Override
+    public List<Reservation> findByPatronId(String patronId) {
+        return delegate.findByPatronId(patronId);
+    }
+
+    @Override
+    public void update(Reservation reservation) {
+        if (reservation == null || reservation.getReservationId() == null) {
+            throw new IllegalArgumentException("Reservation and reservationId cannot be null");
+        }
+        mutations.logAndApply(reservation.getReservationId(), true, () -> {
+            if (!mutations.exists(reservation.getReservationId())) {
+                throw new IllegalArgumentException("Reservation not found: " + reservation.getReservationId());
+            }
+            return true;
+        }, RecordType.PUT_RESERVATION, out -> EntityCodec.writeReservation(out, reservation),
+                () -> delegate.update(reservation));
+    }
+
+    @Override
+    public void deleteById(String reservationId) {
+        mutations.logAndApply(reservationId, false, () -> mutations.exists(reservationId),
+                RecordType.DELETE_RESERVATION, out -> out.writeUTF(reservationId), () -> delegate.deleteById(reservationId));
+    }
+
+    @Override
+    public List<Reservation> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
@@ -0,0 +1,272 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.*;
+import org.librarymanagement.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable mode for the repositories.
+ * Opens (or creates) a data directory, rebuilds the in-memory repositories by replaying the
+ * write-ahead log, and hands out repository views that log every mutation before returning.
+ * Concurrent writers share fsyncs through the log's group commit.
+ *
+ * snapshot() writes the current state to a snapshot file without stopping writers and deletes the
+ * log segments it covers, so startup reads one snapshot plus a short log tail instead of the whole
+ * history. Snapshots can also be taken periodically (see open with a snapshot interval).
+ *
+ * Usage:
+ *   DurableStore store = DurableStore.open(Path.of("data"));
+ *   BookService bookService = new BookService(store.getBookRepository());
+ *   ...
+ *   store.close();
+ */
+public class DurableStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableStore.class);
+    private static final Duration DEFAULT_COMMIT_DELAY = Duration.ZERO;
+
+    private final InMemoryBookRepository books = new InMemoryBookRepository();
+    private final InMemoryPatronRepository patrons = new InMemoryPatronRepository();
+    private final InMemoryLendingRepository lendings = new InMemoryLendingRepository();
+    private final InMemoryReservationRepository reservations = new InMemoryReservationRepository();
+    private final InMemoryBranchRepository branches = new InMemoryBranchRepository();
+    private final InMemoryTransferRepository transfers = new InMemoryTransferRepository();
+
+    private final Path directory;
+    private final Object snapshotLock = new Object();
+    private WriteAheadLog wal;
+    private ScheduledExecutorService snapshotScheduler;
+    private DurableBookRepository bookRepository;
+    private DurablePatronRepository patronRepository;
+    private DurableLendingRepository lendingRepository;
+    private DurableReservationRepository reservationRepository;
+    private DurableBranchRepository branchRepository;
+    private DurableTransferRepository transferRepository;
+
+    private DurableStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static DurableStore open(Path directory) {
+        return open(directory, DEFAULT_COMMIT_DELAY, null);
+    }
+
+    /**
+     * @param commitDelay How long the log flusher waits to gather more writers into one fsync.
+     *                    Zero still batches everyone who arrives while the previous fsync is running.
+     * @param snapshotInterval How often to snapshot and compact the log (null = only when snapshot() is called)
+     */
+    public static DurableStore open(Path directory, Duration commitDelay, Duration snapshotInterval) {
+        if (directory == null || commitDelay == null || commitDelay.isNegative()) {
+            throw new IllegalArgumentException("Directory and a non-negative commit delay are required");
+        }
+        if (snapshotInterval != null && (snapshotInterval.isNegative() || snapshotInterval.isZero())) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        DurableStore store = new DurableStore(directory);
+        try {
+            Files.createDirectories(directory);
+            long firstSegment = SnapshotFile.loadLatest(directory, store::apply);
+            store.wal = WriteAheadLog.open(directory, commitDelay, firstSegment, store::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open durable store in " + directory, e);
+        }
+        store.relinkBorrowingHistory();
+        store.bookRepository = new DurableBookRepository(store.books, store.wal);
+        store.patronRepository = new DurablePatronRepository(store.patrons, store.wal);
+        store.lendingRepository = new DurableLendingRepository(store.lendings, store.wal);
+        store.reservationRepository = new DurableReservationRepository(store.reservations, store.wal);
+        store.branchRepository = new DurableBranchRepository(store.branches, store.wal);
+        store.transferRepository = new DurableTransferRepository(store.transfers, store.wal);
+        logger.info("Durable store opened in {}: {} books, {} patrons, {} lending records",
+                directory, store.books.findAll().size(), store.patrons.findAll().size(),
+                store.lendings.findAll().size());
+        if (snapshotInterval != null) {
+            store.scheduleSnapshots(snapshotInterval);
+        }
+        return store;
+    }
+
+    /**
+     * Write a snapshot of the current state and drop the log segments it makes redundant.
+     * Writers keep running: the log is rotated first, the mutations logged before the rotation
+     * are waited for, then the live maps are read. Anything a concurrent writer changes while
+     * they are read is also in the new log segment, and PUT records replay idempotently on top
+     * of the snapshot.
+     */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            long start = System.nanoTime();
+            long firstSegment = wal.rotate();
+            // Records in the old segments are only dropped once the maps reflect them
+            bookRepository.awaitApplied();
+            patronRepository.awaitApplied();
+            lendingRepository.awaitApplied();
+            reservationRepository.awaitApplied();
+            branchRepository.awaitApplied();
+            transferRepository.awaitApplied();
+            try {
+                long records = SnapshotFile.write(directory, firstSegment, this::writeState);
+                wal.deleteSegmentsBefore(firstSegment);
+                SnapshotFile.deleteOlderThan(directory, firstSegment);
+                logger.info("Snapshot of {} records written in {} ms", records,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write snapshot in " + directory, e);
+            }
+        }
+    }
+
+    public BookRepository getBookRepository() {
+        return bookRepository;
+    }
+
+    public PatronRepository getPatronRepository() {
+        return patronRepository;
+    }
+
+    public LendingRepository getLendingRepository() {
+        return lendingRepository;
+    }
+
+    public ReservationRepository getReservationRepository() {
+        return reservationRepository;
+    }
+
+    public BranchRepository getBranchRepository() {
+        return branchRepository;
+    }
+
+    public TransferRepository getTransferRepository() {
+        return transferRepository;
+    }
+
+    /**
+     * Flush outstanding log records and release the log file
+     */
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            try {
+                snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close write-ahead log", e);
+        }
+    }
+
+    private void scheduleSnapshots(Duration interval) {
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; the log still holds everything
+                logger.error("Periodic snapshot failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        logger.info("Snapshots scheduled every {}", interval);
+    }
+
+    private void writeState(SnapshotFile.Writer writer) throws IOException {
+        for (Branch branch : branches.findAll()) {
+            writer.write(RecordType.PUT_BRANCH, out -> EntityCodec.writeBranch(out, branch));
+        }
+        for (Book book : books.findAll()) {
+            writer.write(RecordType.PUT_BOOK, out -> EntityCodec.writeBook(out, book));
+        }
+        for (Patron patron : patrons.findAll()) {
+            writer.write(RecordType.PUT_PATRON, out -> EntityCodec.writePatron(out, patron));
+        }
+        for (LendingRecord record : lendings.findAll()) {
+            writer.write(RecordType.PUT_LENDING, out -> EntityCodec.writeLendingRecord(out, record));
+        }
+        for (BookTransferRequest transfer : transfers.findAll()) {
+            writer.write(RecordType.PUT_TRANSFER, out -> EntityCodec.writeTransfer(out, transfer));
+        }
+        // Active reservations are written per book in queue order, so replay rebuilds the same queues
+        Set<String> queuedIsbns = new LinkedHashSet<>();
+        for (Reservation reservation : reservations.findAll()) {
+            if (reservation.getStatus() == ReservationStatus.ACTIVE) {
+                queuedIsbns.add(reservation.getIsbn());
+            } else {
+                writer.write(RecordType.PUT_RESERVATION, out -> EntityCodec.writeReservation(out, reservation));
+            }
+        }
+        for (String isbn : queuedIsbns) {
+            for (Reservation reservation : reservations.findActiveReservationsByIsbn(isbn)) {
+                writer.write(RecordType.PUT_RESERVATION, out -> EntityCodec.writeReservation(out, reservation));
+            }
+        }
+    }
+
+    /**
+     * Apply one replayed record to the in-memory repositories
+     */
+    private void apply(RecordType type, DataInput in) throws IOException {
+        switch (type) {
+            case PUT_BOOK -> {
+                Book book = EntityCodec.readBook(in);
+                if (books.findByIsbn(book.getIsbn()).isPresent()) {
+                    books.modify(book);
+                } else {
+                    books.add(book);
+                }
+            }
+            case DELETE_BOOK -> books.delete(in.readUTF());
+            case PUT_PATRON -> {
+                Patron patron = EntityCodec.readPatron(in);
+                if (patrons.findById(patron.getPatronId()).isPresent()) {
+                    patrons.modify(patron);
+                } else {
+                    patrons.add(patron);
+                }
+            }
+            case DELETE_PATRON -> patrons.delete(in.readUTF());
+            case PUT_LENDING -> lendings.add(EntityCodec.readLendingRecord(in));
+            case PUT_RESERVATION -> reservations.save(EntityCodec.readReservation(in));
+            case DELETE_RESERVATION -> reservations.deleteById(in.readUTF());
+            case PUT_BRANCH -> branches.save(EntityCodec.readBranch(in));
+            case DELETE_BRANCH -> branches.deleteById(in.readUTF());
+            case PUT_TRANSFER -> transfers.save(EntityCodec.readTransfer(in));
+            case SNAPSHOT_END -> throw new IOException("Unexpected snapshot marker in log");
+        }
+    }
+
+    /**
+     * Patrons keep their active loans and recent history; rebuild them from the replayed records
+     * and page older history from the lending repository
+     */
+    private void relinkBorrowingHistory() {
+        patrons.setHistoryArchive(lendings::findByPatronId);
+        List<LendingRecord> records = lendings.findAll();
+        records.sort(Comparator.comparing(LendingRecord::getBorrowDate));
+        for (LendingRecord record : records) {
+            patrons.findById(record.getPatronId()).ifPresent(patron -> patron.addLendingRecord(record));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.BookTransferRequest;
+import org.librarymanagement.repository.TransferRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TransferRepository that logs every mutation to the write-ahead log and applies it to the
+ * in-memory delegate once durable (see LoggedMutations).
+ */
+class DurableTransferRepository implements TransferRepository {
+
+    private final TransferRepository delegate;
+    private final LoggedMutations mutations;
+
+    DurableTransferRepository(TransferRepository delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.mutations = new LoggedMutations(wal, transferId -> delegate.findById(transferId).isPresent());
+    }
+
+    @Override
+    public void save(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        mutations.logAndApply(transferRequest.getTransferId(), true, () -> true, RecordType.PUT_TRANSFER,
+                out -> EntityCodec.writeTransfer(out, transferRequest), () -> delegate.save(transferRequest));
+    }
+
+    @Override
+    public Optional<BookTransferRequest> findById(String transferId) {
+        return delegate.findById(transferId);
+    }
+
+    @Override
+    public void update(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        mutations.logAndApply(transferRequest.getTransferId(), true, () -> {
+            if (!mutations.exists(transferRequest.getTransferId())) {
+                throw new IllegalArgumentException("Transfer request not found: " + transferRequest.getTransferId());
+            }
+            return true;
+        }, RecordType.PUT_TRANSFER, out -> EntityCodec.writeTransfer(out, transferRequest),
+                () -> delegate.update(transferRequest));
+    }
+
+    @Override
+    public List<BookTransferRequest> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Block until every mutation logged so far is applied (snapshots read the delegate after this)
+     */
+    void awaitApplied() {
+        mutations.awaitApplied();
+    }
+}
@@ -0,0 +1,164 @@
+package org.librarymanagement.persistence;
+
+import org.librarymanagement.mainentities.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of domain entities for the write-ahead log.
+ * Enums are stored by ordinal, timestamps as UTC epoch seconds + nanos, nullable values behind a flag.
+ */
+public final class EntityCodec {
+
+    private EntityCodec() {
+    }
+
+    public static void writeBook(DataOutput out, Book book) throws IOException {
+        out.writeUTF(book.getIsbn());
+        writeString(out, book.getTitle());
+        writeString(out, book.getAuthor());
+        out.writeInt(book.getPublicationYear());
+        out.writeByte(book.getStatus().ordinal());
+        writeString(out, book.getBranchId());
+    }
+
+    public static Book readBook(DataInput in) throws IOException {
+        String isbn = in.readUTF();
+        String title = readString(in);
+        String author = readString(in);
+        int year = in.readInt();
+        BookStatus status = BookStatus.values()[in.readByte()];
+        String branchId = readString(in);
+        Book book = new Book(isbn, title, author, year, branchId);
+        book.setStatus(status);
+        return book;
+    }
+
+    public static void writePatron(DataOutput out, Patron patron) throws IOException {
+        out.writeUTF(patron.getPatronId());
+        writeString(out, patron.getName());
+        writeString(out, patron.getPhoneNumber());
+        writeString(out, patron.getEmail());
+        out.writeByte(patron.getPatronType().ordinal());
+    }
+
+    public static Patron readPatron(DataInput in) throws IOException {
+        String patronId = in.readUTF();
+        String name = readString(in);
+        String phoneNumber = readString(in);
+        String email = readString(in);
+        PatronType type = PatronType.values()[in.readByte()];
+        return new Patron(patronId, name, phoneNumber, email, type);
+    }
+
+    public static void writeLendingRecord(DataOutput out, LendingRecord record) throws IOException {
+        out.writeUTF(record.getRecordId());
+        out.writeUTF(record.getPatronId());
+        out.writeUTF(record.getIsbn());
+        writeDateTime(out, record.getBorrowDate());
+        writeDateTime(out, record.getDueDate());
+        writeDateTime(out, record.getReturnDate());
+    }
+
+    public static LendingRecord readLendingRecord(DataInput in) throws IOException {
+        String recordId = in.readUTF();
+        String patronId = in.readUTF();
+        String isbn = in.readUTF();
+        LocalDateTime borrowDate = readDateTime(in);
+        LocalDateTime dueDate = readDateTime(in);
+        LocalDateTime returnDate = readDateTime(in);
+        LendingRecord record = new LendingRecord(recordId, patronId, isbn, borrowDate, dueDate);
+        record.setReturnDate(returnDate);
+        return record;
+    }
+
+    public static void writeReservation(DataOutput out, Reservation reservation) throws IOException {
+        out.writeUTF(reservation.getReservationId());
+        out.writeUTF(reservation.getIsbn());
+        out.writeUTF(reservation.getPatronId());
+        out.writeByte(reservation.getStatus().ordinal());
+        writeDateTime(out, reservation.getReservationDate());
+        writeDateTime(out, reservation.getExpiryDate());
+        writeDateTime(out, reservation.getNotificationSentDate());
+    }
+
+    public static Reservation readReservation(DataInput in) throws IOException {
+        String reservationId = in.readUTF();
+        String isbn = in.readUTF();
+        String patronId = in.readUTF();
+        ReservationStatus status = ReservationStatus.values()[in.readByte()];
+        LocalDateTime reservationDate = readDateTime(in);
+        Reservation reservation = new Reservation(reservationId, isbn, patronId, status, reservationDate);
+        reservation.setExpiryDate(readDateTime(in));
+        reservation.setNotificationSentDate(readDateTime(in));
+        return reservation;
+    }
+
+    public static void writeBranch(DataOutput out, Branch branch) throws IOException {
+        out.writeUTF(branch.getBranchId());
+        writeString(out, branch.getName());
+        writeString(out, branch.getAddress());
+        writeString(out, branch.getPhoneNumber());
+        writeString(out, branch.getEmail());
+    }
+
+    public static Branch readBranch(DataInput in) throws IOException {
+        return new Branch(in.readUTF(), readString(in), readString(in), readString(in), readString(in));
+    }
+
+    public static void writeTransfer(DataOutput out, BookTransferRequest transfer) throws IOException {
+        out.writeUTF(transfer.getTransferId());
+        out.writeUTF(transfer.getIsbn());
+        out.writeUTF(transfer.getSourceBranchId());
+        out.writeUTF(transfer.getDestinationBranchId());
+        out.writeByte(transfer.getStatus().ordinal());
+        writeDateTime(out, transfer.getRequestDate());
+        writeDateTime(out, transfer.getCompletionDate());
+        writeString(out, transfer.getRemarks());
+    }
+
+    public static BookTransferRequest readTransfer(DataInput in) throws IOException {
+        String transferId = in.readUTF();
+        String isbn = in.readUTF();
+        String source = in.readUTF();
+        String destination = in.readUTF();
+        TransferStatus status = TransferStatus.values()[in.readByte()];
+        LocalDateTime requestDate = readDateTime(in);
+        LocalDateTime completionDate = readDateTime(in);
+        String remarks = readString(in);
+        return new BookTransferRequest(transferId, isbn, source, destination,
+                status, requestDate, completionDate, remarks);
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    public static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,122 @@
+package org.librarymanagement.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Write path of one durable repository: a mutation is logged first, applied to the in-memory
+ * delegate only once the write-ahead log has made it durable, and applied in log order.
+ * Readers therefore never see a change a crash could lose, and a failed append or fsync leaves
+ * the delegate untouched. Writers still share fsyncs, since they wait for durability unlocked.
+ *
+ * Validation runs before logging, against the delegate plus the mutations logged but not yet
+ * applied, so a writer sees the effect of every writer ahead of it (e.g. an add then a delete).
+ */
+final class LoggedMutations {
+
+    private final WriteAheadLog wal;
+    private final Predicate<String> existsInDelegate;
+    // Guarded by this: keys with logged, unapplied mutations and whether they exist afterwards
+    private final Map<String, Pending> pending = new HashMap<>();
+    private long issued;
+    private long applied;
+
+    LoggedMutations(WriteAheadLog wal, Predicate<String> existsInDelegate) {
+        this.wal = wal;
+        this.existsInDelegate = existsInDelegate;
+    }
+
+    /**
+     * Whether the key exists once every mutation logged so far is applied
+     * (for use in the check passed to logAndApply)
+     */
+    synchronized boolean exists(String key) {
+        Pending latest = pending.get(key);
+        return latest != null ? latest.existsAfter : existsInDelegate.test(key);
+    }
+
+    /**
+     * Validate, log, wait for durability, then apply after every earlier mutation
+     *
+     * @param key Entity ID the mutation touches
+     * @param existsAfter Whether the entity exists once the mutation is applied
+     * @param check Runs before logging; throws or returns false to reject the mutation unlogged
+     * @return False if the check rejected the mutation
+     */
+    boolean logAndApply(String key, boolean existsAfter, BooleanSupplier check,
+                        RecordType type, WriteAheadLog.RecordWriter writer, Runnable apply) {
+        long seq;
+        long ticket;
+        synchronized (this) {
+            if (!check.getAsBoolean()) {
+                return false;
+            }
+            seq = wal.append(type, writer);
+            ticket = ++issued;
+            pending.put(key, new Pending(ticket, existsAfter));
+        }
+
+        RuntimeException failure = null;
+        try {
+            wal.awaitDurable(seq);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        awaitTurn(ticket);
+        try {
+            if (failure == null) {
+                apply.run();
+            }
+        } finally {
+            synchronized (this) {
+                applied = ticket;
+                Pending latest = pending.get(key);
+                if (latest != null && latest.ticket == ticket) {
+                    pending.remove(key);
+                }
+                notifyAll();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return true;
+    }
+
+    /**
+     * Block until every mutation logged before this call has been applied (or has failed)
+     */
+    synchronized void awaitApplied() {
+        long target = issued;
+        boolean interrupted = false;
+        while (applied < target) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void awaitTurn(long ticket) {
+        boolean interrupted = false;
+        while (applied != ticket - 1) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending(long ticket, boolean existsAfter) {
+    }
+}
@@ -0,0 +1,45 @@
+package org.librarymanagement.persistence;
+
+/**
+ * Types of records stored in the write-ahead log.
+ * PUT records carry the full entity state, so replaying them is idempotent.
+ */
+public enum RecordType {
+    PUT_BOOK(1),
+    DELETE_BOOK(2),
+    PUT_PATRON(3),
+    DELETE_PATRON(4),
+    PUT_LENDING(5),
+    PUT_RESERVATION(6),
+    DELETE_RESERVATION(7),
+    PUT_BRANCH(8),
+    DELETE_BRANCH(9),
+    PUT_TRANSFER(10),
+    SNAPSHOT_END(11);
+
+    private static final RecordType[] BY_CODE = new RecordType[16];
+
+    static {
+        for (RecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    RecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static RecordType fromCode(byte code) {
+        RecordType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown log record type: " + code);
+        }
+        return type;
+    }
+}
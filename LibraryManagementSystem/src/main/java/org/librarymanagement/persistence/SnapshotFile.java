@@ -0,0 +1,159 @@
+package org.librarymanagement.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Point-in-time image of the repositories, stored with the same record framing as the log.
+ * A snapshot named snapshot-N.bin covers every log segment numbered below N; replay continues
+ * from segment N. Files are written to a temporary name and atomically renamed, and end with a
+ * SNAPSHOT_END record carrying the record count, so a partial snapshot is never mistaken for a full one.
+ */
+final class SnapshotFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFile.class);
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    /**
+     * Writes the records of one snapshot
+     */
+    static final class Writer {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        private final DataOutputStream payloadOut = new DataOutputStream(payload);
+        private final CRC32 crc = new CRC32();
+        private long records;
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void write(RecordType type, WriteAheadLog.RecordWriter writer) throws IOException {
+            payload.reset();
+            writer.write(payloadOut);
+            WriteAheadLog.frame(out, type, payload.toByteArray(), payload.size(), crc);
+            records++;
+        }
+
+        long getRecords() {
+            return records;
+        }
+    }
+
+    /**
+     * Produces the snapshot content
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Write a snapshot covering segments below firstSegment and make it durable
+     *
+     * @return Number of entity records written
+     */
+    static long write(Path directory, long firstSegment, Content content) throws IOException {
+        Path target = path(directory, firstSegment);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long records;
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            Writer writer = new Writer(out);
+            content.writeTo(writer);
+            records = writer.getRecords();
+            writer.write(RecordType.SNAPSHOT_END, o -> o.writeLong(records));
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+        return records;
+    }
+
+    /**
+     * Load the newest snapshot in the directory, if any
+     *
+     * @return Number of the first log segment not covered by it (1 when there is no snapshot)
+     */
+    static long loadLatest(Path directory, WriteAheadLog.RecordHandler handler) throws IOException {
+        long latest = latest(directory);
+        if (latest == 0) {
+            return 1;
+        }
+        Path path = path(directory, latest);
+        long[] expected = {-1};
+        long[] seen = {0};
+        WriteAheadLog.replay(path, (type, in) -> {
+            if (type == RecordType.SNAPSHOT_END) {
+                expected[0] = in.readLong();
+            } else {
+                handler.apply(type, in);
+                seen[0]++;
+            }
+        });
+        if (expected[0] != seen[0]) {
+            throw new IOException("Snapshot " + path + " is incomplete: read " + seen[0] + " records");
+        }
+        logger.info("Loaded snapshot {} ({} records)", path, seen[0]);
+        return latest;
+    }
+
+    /**
+     * Delete snapshots older than the given one, plus leftovers of interrupted writes
+     */
+    static void deleteOlderThan(Path directory, long keep) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long number = parse(name);
+                if (name.endsWith(".tmp") || (number > 0 && number < keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static long latest(Path directory) throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                latest = Math.max(latest, parse(file.getFileName().toString()));
+            }
+        }
+        return latest;
+    }
+
+    private static long parse(String name) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Path path(Path directory, long firstSegment) {
+        return directory.resolve(String.format("%s%010d%s", PREFIX, firstSegment, SUFFIX));
+    }
+
+    private static void syncDirectory(Path directory) {
+        // Makes the rename durable; not supported on every platform, so best effort
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory fsync not supported for {}", directory);
+        }
+    }
+}
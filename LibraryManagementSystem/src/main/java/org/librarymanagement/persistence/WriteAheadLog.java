@@ -0,0 +1,440 @@
+package org.librarymanagement.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of repository mutations with group commit.
+ * Writers append a record (cheap, in-memory) and then wait until it is durable; a single
+ * flusher thread writes everything appended so far and issues one fsync for the whole batch,
+ * so concurrent checkouts share fsyncs instead of paying one each.
+ *
+ * The log is split into numbered segment files (wal-0000000001.log, ...). rotate() starts a
+ * new segment, so that segments fully covered by a snapshot can be deleted.
+ *
+ * Record layout: [int payload length][int CRC32 of type + payload][byte type][payload]
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final int HEADER_BYTES = 9;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Serializes one record payload
+     */
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Consumes one record payload during replay
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void apply(RecordType type, DataInput in) throws IOException;
+    }
+
+    private final Path directory;
+    private final long commitDelayNanos;
+    private final Thread flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final ExposedByteArrayOutputStream scratch = new ExposedByteArrayOutputStream();
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+
+    // Guarded by lock
+    private FileChannel channel;
+    private long segment;
+    private ExposedByteArrayOutputStream pending = new ExposedByteArrayOutputStream();
+    private ExposedByteArrayOutputStream spare = new ExposedByteArrayOutputStream();
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private boolean closed;
+    private IOException failure;
+
+    private WriteAheadLog(Path directory, long segment, FileChannel channel, Duration commitDelay) {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = channel;
+        this.commitDelayNanos = commitDelay.toNanos();
+        this.flusher = new Thread(this::flushLoop, "wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Replay the log segments numbered firstSegment and later, then open the last one for appending.
+     * Older segments are already covered by a snapshot and are deleted.
+     * A torn or corrupt tail left by a crash is truncated; corruption in any earlier segment
+     * fails with an IOException, since the records after it cannot be trusted to be complete.
+     *
+     * @param commitDelay How long the flusher lingers to gather a bigger batch (zero = flush as soon as possible)
+     */
+    public static WriteAheadLog open(Path directory, Duration commitDelay, long firstSegment,
+                                     RecordHandler handler) throws IOException {
+        List<Long> segments = listSegments(directory);
+        long last = firstSegment;
+        long validLength = 0;
+        for (long number : segments) {
+            if (number < firstSegment) {
+                Files.delete(segmentPath(directory, number));
+                continue;
+            }
+            Path path = segmentPath(directory, number);
+            validLength = replay(path, handler);
+            if (number != segments.get(segments.size() - 1) && validLength < Files.size(path)) {
+                // Only the last segment can have a torn tail; skipping records here would lose writes
+                throw new IOException("Log segment " + path + " is corrupt after " + validLength
+                        + " bytes and is not the last segment");
+            }
+            last = number;
+        }
+
+        Path path = segmentPath(directory, last);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            logger.warn("Truncating {} bytes of incomplete log tail in {}", channel.size() - validLength, path);
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+        return new WriteAheadLog(directory, last, channel, commitDelay);
+    }
+
+    /**
+     * Feed every intact record of a log file to the handler.
+     *
+     * @return Length of the valid prefix of the file
+     */
+    public static long replay(Path path, RecordHandler handler) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long valid = 0;
+        long records = 0;
+        CRC32 checksum = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte code;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    code = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(code);
+                checksum.update(payload, 0, length);
+                if ((int) checksum.getValue() != expectedCrc) {
+                    break;
+                }
+                handler.apply(RecordType.fromCode(code), new DataInputStream(new ByteArrayInputStream(payload)));
+                valid += HEADER_BYTES + length;
+                records++;
+            }
+        }
+        logger.info("Replayed {} log records from {}", records, path);
+        return valid;
+    }
+
+    /**
+     * Append a record. Returns immediately with a sequence number to pass to awaitDurable.
+     * The payload is serialized under the log lock, so records appear in the order they were encoded.
+     */
+    public long append(RecordType type, RecordWriter writer) {
+        lock.lock();
+        try {
+            ensureOpen();
+            scratch.reset();
+            writer.write(scratchOut);
+            frame(pending, type, scratch.buffer(), scratch.size(), crc);
+            long seq = ++appendedSeq;
+            flushNeeded.signal();
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode log record", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until the record with the given sequence number has been fsynced
+     */
+    public void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log failed", failure);
+                }
+                if (closed && !flusher.isAlive()) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a record and wait for it to become durable
+     */
+    public void appendAndSync(RecordType type, RecordWriter writer) {
+        awaitDurable(append(type, writer));
+    }
+
+    /**
+     * Seal the current segment and continue in a new one.
+     * Every record appended before this call returns is durable in an older segment.
+     *
+     * @return Number of the new segment
+     */
+    public long rotate() {
+        lock.lock();
+        try {
+            ensureOpen();
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            ensureOpen();
+            // The flusher is idle and cannot take a batch while we hold the lock
+            ByteBuffer buffer = ByteBuffer.wrap(pending.buffer(), 0, pending.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            pending.reset();
+            durableSeq = appendedSeq;
+            flushed.signalAll();
+
+            long next = segment + 1;
+            FileChannel nextChannel = FileChannel.open(segmentPath(directory, next),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel.close();
+            channel = nextChannel;
+            segment = next;
+            logger.info("Write-ahead log rotated to segment {}", next);
+            return next;
+        } catch (IOException e) {
+            failure = e;
+            flushed.signalAll();
+            throw new UncheckedIOException("Failed to rotate write-ahead log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete sealed segments numbered below the given one
+     */
+    public void deleteSegmentsBefore(long firstKept) throws IOException {
+        for (long number : listSegments(directory)) {
+            if (number < firstKept && number < currentSegment()) {
+                Files.deleteIfExists(segmentPath(directory, number));
+            }
+        }
+    }
+
+    public long currentSegment() {
+        lock.lock();
+        try {
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushNeeded.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        logger.info("Write-ahead log closed: {}", directory);
+    }
+
+    /**
+     * Write one framed record: [length][crc][type][payload]
+     */
+    static void frame(OutputStream out, RecordType type, byte[] payload, int length, CRC32 crc) throws IOException {
+        crc.reset();
+        crc.update(type.getCode());
+        crc.update(payload, 0, length);
+        writeInt(out, length);
+        writeInt(out, (int) crc.getValue());
+        out.write(type.getCode());
+        out.write(payload, 0, length);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ExposedByteArrayOutputStream batch;
+            FileChannel target;
+            long batchSeq;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    flushNeeded.awaitUninterruptibly();
+                }
+                if (pending.size() == 0) {
+                    return; // closed and fully drained
+                }
+                if (commitDelayNanos > 0 && !closed) {
+                    // Linger briefly so more writers can join this fsync
+                    long remaining = commitDelayNanos;
+                    while (remaining > 0 && !closed) {
+                        try {
+                            remaining = flushNeeded.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                    }
+                }
+                if (pending.size() == 0) {
+                    continue; // a rotation flushed it meanwhile
+                }
+                batch = pending;
+                pending = spare;
+                spare = null;
+                batchSeq = appendedSeq;
+                target = channel;
+                flushing = true;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.buffer(), 0, batch.size());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                error = e;
+                logger.error("Write-ahead log flush failed: {}", directory, e);
+            }
+
+            lock.lock();
+            try {
+                batch.reset();
+                spare = batch;
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = batchSeq;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed earlier", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file in log directory: {}", file);
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * ByteArrayOutputStream that exposes its buffer to avoid copies
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream() {
+            super(1 << 16);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -3,13 +3,18 @@ package org.librarymanagement.repository;
 import org.librarymanagement.mainentities.Book;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * In-memory implementation of BookRepository.
+ * Thread-safe using ConcurrentHashMap.
+ */
 public class InMemoryBookRepository implements BookRepository {
 
     private final Map<String, Book> bookRepository;
 
     public InMemoryBookRepository() {
-        this.bookRepository = new HashMap<>();
+        this.bookRepository = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -17,10 +22,9 @@ public class InMemoryBookRepository implements BookRepository {
         if(book == null){
             throw new IllegalArgumentException("Book cannot be null");
         }
-        if(bookRepository.containsKey(book.getIsbn())) {
+        if(bookRepository.putIfAbsent(book.getIsbn(), book) != null) {
             throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " already exists");
         }
-        bookRepository.put(book.getIsbn(), book);
     }
 
     @Override
@@ -38,10 +42,9 @@ public class InMemoryBookRepository implements BookRepository {
         if(book == null){
             throw new IllegalArgumentException("Book cannot be null");
         }
-        if(!bookRepository.containsKey(book.getIsbn())) {
+        if(bookRepository.replace(book.getIsbn(), book) == null) {
             throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " does not exist");
         }
-        bookRepository.put(book.getIsbn(), book);
     }
 
     @Override
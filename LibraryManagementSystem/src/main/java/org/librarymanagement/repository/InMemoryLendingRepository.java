@@ -3,13 +3,29 @@ package org.librarymanagement.repository;
 import org.librarymanagement.mainentities.LendingRecord;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * In-memory implementation of LendingRepository.
+ * Maintains secondary indexes by patron, by ISBN and for active loans so that
+ * lookups cost O(records of that patron/book) instead of O(all records ever created).
+ * Thread-safe using ConcurrentHashMap; each index bucket is updated atomically via compute.
+ */
 public class InMemoryLendingRepository implements LendingRepository {
     private final Map<String, LendingRecord> lendingRepository;
 
+    // Secondary indexes (key -> recordId -> record)
+    private final ConcurrentHashMap<String, Map<String, LendingRecord>> recordsByPatron;
+    private final ConcurrentHashMap<String, Map<String, LendingRecord>> recordsByIsbn;
+
+    // Active loans only: patronId -> (isbn -> record)
+    private final ConcurrentHashMap<String, Map<String, LendingRecord>> activeByPatron;
+
     public InMemoryLendingRepository() {
-        this.lendingRepository = new HashMap<>();
+        this.lendingRepository = new ConcurrentHashMap<>();
+        this.recordsByPatron = new ConcurrentHashMap<>();
+        this.recordsByIsbn = new ConcurrentHashMap<>();
+        this.activeByPatron = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -17,7 +33,7 @@ public class InMemoryLendingRepository implements LendingRepository {
         if(record==null){
             throw new IllegalArgumentException("LendingRecord cannot be null");
         }
-        lendingRepository.put(record.getRecordId(), record);
+        upsert(record);
     }
 
     @Override
@@ -32,16 +48,12 @@ public class InMemoryLendingRepository implements LendingRepository {
 
     @Override
     public List<LendingRecord> findByPatronId(String patronId) {
-        return lendingRepository.values().stream()
-                .filter(record -> record.getPatronId().equals(patronId))
-                .collect(Collectors.toList());
+        return valuesOf(recordsByPatron.get(patronId));
     }
 
     @Override
     public List<LendingRecord> findByIsbn(String isbn) {
-        return lendingRepository.values().stream()
-                .filter(record -> record.getIsbn().equals(isbn))
-                .collect(Collectors.toList());
+        return valuesOf(recordsByIsbn.get(isbn));
     }
 
     @Override
@@ -49,12 +61,81 @@ public class InMemoryLendingRepository implements LendingRepository {
         if (record == null) {
             throw new IllegalArgumentException("LendingRecord cannot be null");
         }
-        lendingRepository.put(record.getRecordId(), record);
+        // Records are usually mutated in place (e.g. return date set), so always re-index
+        upsert(record);
     }
 
     @Override
     public List<LendingRecord> findActiveLendings(String patronId) {
         // finds Active lending records
-        return lendingRepository.values().stream().filter(record -> record.getPatronId().equals(patronId) && record.isActive()).collect(Collectors.toList());
+        return valuesOf(activeByPatron.get(patronId));
+    }
+
+    @Override
+    public Optional<LendingRecord> findActiveLending(String isbn, String patronId) {
+        Map<String, LendingRecord> active = activeByPatron.get(patronId);
+        return active == null ? Optional.empty() : Optional.ofNullable(active.get(isbn));
+    }
+
+    @Override
+    public List<LendingRecord> findAllActive() {
+        List<LendingRecord> active = new ArrayList<>();
+        for (Map<String, LendingRecord> records : activeByPatron.values()) {
+            active.addAll(records.values());
+        }
+        return active;
+    }
+
+    private void upsert(LendingRecord record) {
+        LendingRecord previous = lendingRepository.put(record.getRecordId(), record);
+        if (previous != null && previous != record) {
+            // Replaced by a different instance: drop entries the new one will not overwrite
+            if (!previous.getPatronId().equals(record.getPatronId())) {
+                removeFrom(recordsByPatron, previous.getPatronId(), previous.getRecordId());
+            }
+            if (!previous.getIsbn().equals(record.getIsbn())) {
+                removeFrom(recordsByIsbn, previous.getIsbn(), previous.getRecordId());
+            }
+            removeActive(previous);
+        }
+        putInto(recordsByPatron, record.getPatronId(), record.getRecordId(), record);
+        putInto(recordsByIsbn, record.getIsbn(), record.getRecordId(), record);
+        if (record.isActive()) {
+            putInto(activeByPatron, record.getPatronId(), record.getIsbn(), record);
+        } else {
+            removeActive(record);
+        }
+    }
+
+    private void removeActive(LendingRecord record) {
+        // Only drop the active entry if it still belongs to this record
+        activeByPatron.computeIfPresent(record.getPatronId(), (patronId, active) -> {
+            LendingRecord current = active.get(record.getIsbn());
+            if (current != null && current.getRecordId().equals(record.getRecordId())) {
+                active.remove(record.getIsbn());
+            }
+            return active.isEmpty() ? null : active;
+        });
+    }
+
+    private static void putInto(ConcurrentHashMap<String, Map<String, LendingRecord>> index,
+                                String key, String innerKey, LendingRecord record) {
+        index.compute(key, (k, records) -> {
+            Map<String, LendingRecord> bucket = records != null ? records : new ConcurrentHashMap<>();
+            bucket.put(innerKey, record);
+            return bucket;
+        });
+    }
+
+    private static void removeFrom(ConcurrentHashMap<String, Map<String, LendingRecord>> index,
+                                   String key, String innerKey) {
+        index.computeIfPresent(key, (k, records) -> {
+            records.remove(innerKey);
+            return records.isEmpty() ? null : records;
+        });
+    }
+
+    private static List<LendingRecord> valuesOf(Map<String, LendingRecord> records) {
+        return records == null ? new ArrayList<>() : new ArrayList<>(records.values());
     }
 }
@@ -1,14 +1,20 @@
 package org.librarymanagement.repository;
 
 
+import org.librarymanagement.mainentities.BorrowingHistoryArchive;
 import org.librarymanagement.mainentities.Patron;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-
+/**
+ * In-memory implementation of PatronRepository.
+ * Thread-safe using ConcurrentHashMap.
+ */
 public class InMemoryPatronRepository implements PatronRepository {
 
-    private final Map<String, Patron> patronRepository = new HashMap<>();
+    private final Map<String, Patron> patronRepository = new ConcurrentHashMap<>();
+    private volatile BorrowingHistoryArchive historyArchive;
 
     public InMemoryPatronRepository() {}
 
@@ -17,10 +23,10 @@ public class InMemoryPatronRepository implements PatronRepository {
         if (patron == null) {
             throw new IllegalArgumentException("Patron cannot be null");
         }
-        if (patronRepository.containsKey(patron.getPatronId())) {
+        attachHistoryArchive(patron);
+        if (patronRepository.putIfAbsent(patron.getPatronId(), patron) != null) {
             throw new IllegalStateException("Patron with ID " + patron.getPatronId() + " already exists");
         }
-        patronRepository.put(patron.getPatronId(), patron);
     }
 
     @Override
@@ -37,10 +43,10 @@ public class InMemoryPatronRepository implements PatronRepository {
         if (patron == null) {
             throw new IllegalArgumentException("Patron cannot be null");
         }
-        if (!patronRepository.containsKey(patron.getPatronId())) {
+        attachHistoryArchive(patron);
+        if (patronRepository.replace(patron.getPatronId(), patron) == null) {
             throw new IllegalStateException("Patron with ID " + patron.getPatronId() + " does not exist");
         }
-        patronRepository.put(patron.getPatronId(), patron);
     }
 
     @Override
@@ -48,4 +54,19 @@ public class InMemoryPatronRepository implements PatronRepository {
         return patronRepository.remove(patronId) != null;
     }
 
+    @Override
+    public void setHistoryArchive(BorrowingHistoryArchive historyArchive) {
+        this.historyArchive = historyArchive;
+        for (Patron patron : patronRepository.values()) {
+            patron.setHistoryArchive(historyArchive);
+        }
+    }
+
+    private void attachHistoryArchive(Patron patron) {
+        BorrowingHistoryArchive archive = historyArchive;
+        if (archive != null && !patron.hasHistoryArchive()) {
+            patron.setHistoryArchive(archive);
+        }
+    }
+
 }
@@ -1,6 +1,8 @@
 package org.librarymanagement.repository;
 
 import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.mainentities.ReservationStatus;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -8,40 +10,93 @@ import java.util.stream.Collectors;
 /**
  * In-memory implementation of ReservationRepository.
  * Thread-safe using ConcurrentHashMap.
+ * Active reservations are kept in a per-ISBN FIFO queue, so head-of-queue,
+ * enqueue and cancel touch only that book's queue instead of every reservation.
+ * Queue positions are not stored: every read sets them from the queue's current rank.
  */
 public class InMemoryReservationRepository implements ReservationRepository {
-    
+
     private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
-    
+    private final Map<String, ReservationQueue> queuesByIsbn = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> reservationIdsByPatron = new ConcurrentHashMap<>();
+
     @Override
     public void save(Reservation reservation) {
         if (reservation == null || reservation.getReservationId() == null) {
             throw new IllegalArgumentException("Reservation and reservationId cannot be null");
         }
         reservations.put(reservation.getReservationId(), reservation);
+        reservationIdsByPatron.computeIfAbsent(reservation.getPatronId(), k -> ConcurrentHashMap.newKeySet())
+                .add(reservation.getReservationId());
+        syncQueue(reservation);
     }
-    
+
     @Override
     public Optional<Reservation> findById(String reservationId) {
-        return Optional.ofNullable(reservations.get(reservationId));
+        return Optional.ofNullable(reservations.get(reservationId)).map(this::withQueuePosition);
     }
-    
+
     @Override
     public List<Reservation> findActiveReservationsByIsbn(String isbn) {
-        return reservations.values().stream()
-                .filter(r -> r.getIsbn().equals(isbn))
-                .filter(r -> r.getStatus().name().equals("ACTIVE"))
-                .sorted(Comparator.comparingInt(Reservation::getQueuePosition))
-                .collect(Collectors.toList());
+        ReservationQueue queue = queuesByIsbn.get(isbn);
+        if (queue == null) {
+            return new ArrayList<>();
+        }
+        List<Reservation> active;
+        synchronized (queue) {
+            active = queue.snapshot();
+        }
+        // Positions are derived from queue order, refresh them while we have the list
+        for (int i = 0; i < active.size(); i++) {
+            active.get(i).setQueuePosition(i + 1);
+        }
+        return active;
+    }
+
+    @Override
+    public Optional<Reservation> findNextActiveReservation(String isbn) {
+        ReservationQueue queue = queuesByIsbn.get(isbn);
+        if (queue == null) {
+            return Optional.empty();
+        }
+        Optional<Reservation> next;
+        synchronized (queue) {
+            next = queue.peek();
+        }
+        next.ifPresent(reservation -> reservation.setQueuePosition(1));
+        return next;
+    }
+
+    @Override
+    public int getQueuePosition(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        return reservation == null ? 0 : rank(reservation);
     }
-    
+
+    @Override
+    public int countActiveReservations(String isbn) {
+        ReservationQueue queue = queuesByIsbn.get(isbn);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
     @Override
     public List<Reservation> findByPatronId(String patronId) {
-        return reservations.values().stream()
-                .filter(r -> r.getPatronId().equals(patronId))
+        Set<String> ids = reservationIdsByPatron.get(patronId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream()
+                .map(reservations::get)
+                .filter(Objects::nonNull)
+                .map(this::withQueuePosition)
                 .collect(Collectors.toList());
     }
-    
+
     @Override
     public void update(Reservation reservation) {
         if (reservation == null || reservation.getReservationId() == null) {
@@ -51,15 +106,69 @@ public class InMemoryReservationRepository implements ReservationRepository {
             throw new IllegalArgumentException("Reservation not found: " + reservation.getReservationId());
         }
         reservations.put(reservation.getReservationId(), reservation);
+        syncQueue(reservation);
     }
-    
+
     @Override
     public void deleteById(String reservationId) {
-        reservations.remove(reservationId);
+        Reservation removed = reservations.remove(reservationId);
+        if (removed == null) {
+            return;
+        }
+        Set<String> ids = reservationIdsByPatron.get(removed.getPatronId());
+        if (ids != null) {
+            ids.remove(reservationId);
+        }
+        ReservationQueue queue = queuesByIsbn.get(removed.getIsbn());
+        if (queue != null) {
+            synchronized (queue) {
+                queue.remove(reservationId);
+            }
+        }
     }
-    
+
     @Override
     public List<Reservation> findAll() {
-        return new ArrayList<>(reservations.values());
+        List<Reservation> all = new ArrayList<>(reservations.values());
+        all.forEach(this::withQueuePosition);
+        return all;
+    }
+
+    /**
+     * 1-based position of the reservation in its ISBN queue, or 0 if it is not waiting
+     */
+    private int rank(Reservation reservation) {
+        ReservationQueue queue = queuesByIsbn.get(reservation.getIsbn());
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.rank(reservation.getReservationId());
+        }
+    }
+
+    private Reservation withQueuePosition(Reservation reservation) {
+        reservation.setQueuePosition(rank(reservation));
+        return reservation;
+    }
+
+    /**
+     * Keep the ISBN queue in line with the reservation status: only ACTIVE reservations wait in line
+     */
+    private void syncQueue(Reservation reservation) {
+        String reservationId = reservation.getReservationId();
+        if (reservation.getStatus() == ReservationStatus.ACTIVE) {
+            ReservationQueue queue = queuesByIsbn.computeIfAbsent(reservation.getIsbn(), k -> new ReservationQueue());
+            synchronized (queue) {
+                queue.enqueue(reservation);
+            }
+        } else {
+            ReservationQueue queue = queuesByIsbn.get(reservation.getIsbn());
+            if (queue != null) {
+                synchronized (queue) {
+                    queue.remove(reservationId);
+                }
+            }
+        }
     }
 }
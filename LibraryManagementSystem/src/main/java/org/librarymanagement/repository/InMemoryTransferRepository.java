@@ -0,0 +1,43 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.BookTransferRequest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of TransferRepository.
+ * Thread-safe using ConcurrentHashMap.
+ */
+public class InMemoryTransferRepository implements TransferRepository {
+    
+    private final Map<String, BookTransferRequest> transfers = new ConcurrentHashMap<>();
+    
+    @Override
+    public void save(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        transfers.put(transferRequest.getTransferId(), transferRequest);
+    }
+    
+    @Override
+    public Optional<BookTransferRequest> findById(String transferId) {
+        return Optional.ofNullable(transfers.get(transferId));
+    }
+    
+    @Override
+    public void update(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        if (!transfers.containsKey(transferRequest.getTransferId())) {
+            throw new IllegalArgumentException("Transfer request not found: " + transferRequest.getTransferId());
+        }
+        transfers.put(transferRequest.getTransferId(), transferRequest);
+    }
+    
+    @Override
+    public List<BookTransferRequest> findAll() {
+        return new ArrayList<>(transfers.values());
+    }
+}
@@ -13,5 +13,7 @@ public interface LendingRepository {
     List<LendingRecord> findByIsbn(String isbn);
     void modify(LendingRecord record);
     List<LendingRecord> findActiveLendings(String patronId);
+    Optional<LendingRecord> findActiveLending(String isbn, String patronId);
+    List<LendingRecord> findAllActive();
 }
 
@@ -0,0 +1,234 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.IdGenerators;
+import org.librarymanagement.mainentities.LendingRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LendingRepository keyed on primitive longs, for record IDs from IdGenerators.
+ * Records live in a LongObjectHashMap keyed by the numeric record ID; the patron, ISBN and
+ * active-loan indexes map a 64-bit hash of the patron ID / ISBN to arrays of record keys, and
+ * every index hit is checked against the record, so hash collisions cannot leak wrong results.
+ * Active record keys are also kept in a dense array, with a LongIntHashMap from key to array slot,
+ * so findAllActive costs O(active loans) instead of a scan of the whole history.
+ * Record IDs that are not compact IDs (e.g. old UUIDs) are rejected.
+ * Thread-safe using a read-write lock.
+ */
+public class LongKeyedLendingRepository implements LendingRepository {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<LendingRecord> records;
+    private final LongLongArrayMap recordsByPatron;
+    private final LongLongArrayMap recordsByIsbn;
+    private final LongLongArrayMap activeByPatron;
+    private final LongIntHashMap activeSlots;
+    private long[] activeKeys = new long[16];
+    private int activeCount;
+
+    public LongKeyedLendingRepository() {
+        this(1024);
+    }
+
+    public LongKeyedLendingRepository(int expectedRecords) {
+        this.records = new LongObjectHashMap<>(expectedRecords);
+        this.recordsByPatron = new LongLongArrayMap();
+        this.recordsByIsbn = new LongLongArrayMap();
+        this.activeByPatron = new LongLongArrayMap();
+        this.activeSlots = new LongIntHashMap();
+    }
+
+    @Override
+    public void add(LendingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("LendingRecord cannot be null");
+        }
+        upsert(record);
+    }
+
+    @Override
+    public Optional<LendingRecord> findById(String recordId) {
+        if (!IdGenerators.isCompactId(recordId)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(records.get(IdGenerators.parse(recordId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LendingRecord> findAll() {
+        lock.readLock().lock();
+        try {
+            return records.values();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LendingRecord> findByPatronId(String patronId) {
+        lock.readLock().lock();
+        try {
+            List<LendingRecord> result = new ArrayList<>();
+            for (long key : recordsByPatron.get(PrimitiveHashing.hash64(patronId))) {
+                LendingRecord record = records.get(key);
+                if (record.getPatronId().equals(patronId)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LendingRecord> findByIsbn(String isbn) {
+        lock.readLock().lock();
+        try {
+            List<LendingRecord> result = new ArrayList<>();
+            for (long key : recordsByIsbn.get(PrimitiveHashing.hash64(isbn))) {
+                LendingRecord record = records.get(key);
+                if (record.getIsbn().equals(isbn)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void modify(LendingRecord record) {
+        if (record == null) {
+            throw new IllegalArgumentException("LendingRecord cannot be null");
+        }
+        // Records are usually mutated in place (e.g. return date set), so always re-index
+        upsert(record);
+    }
+
+    @Override
+    public List<LendingRecord> findActiveLendings(String patronId) {
+        lock.readLock().lock();
+        try {
+            List<LendingRecord> result = new ArrayList<>();
+            for (long key : activeByPatron.get(PrimitiveHashing.hash64(patronId))) {
+                LendingRecord record = records.get(key);
+                if (record.getPatronId().equals(patronId) && record.isActive()) {
+                    result.add(record);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<LendingRecord> findActiveLending(String isbn, String patronId) {
+        lock.readLock().lock();
+        try {
+            for (long key : activeByPatron.get(PrimitiveHashing.hash64(patronId))) {
+                LendingRecord record = records.get(key);
+                if (record.getIsbn().equals(isbn) && record.getPatronId().equals(patronId) && record.isActive()) {
+                    return Optional.of(record);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LendingRecord> findAllActive() {
+        lock.readLock().lock();
+        try {
+            List<LendingRecord> result = new ArrayList<>(activeCount);
+            for (int i = 0; i < activeCount; i++) {
+                LendingRecord record = records.get(activeKeys[i]);
+                // A record may have been returned in place without modify()
+                if (record.isActive()) {
+                    result.add(record);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsert(LendingRecord record) {
+        long key = parseKey(record.getRecordId());
+        long patronHash = PrimitiveHashing.hash64(record.getPatronId());
+        long isbnHash = PrimitiveHashing.hash64(record.getIsbn());
+        lock.writeLock().lock();
+        try {
+            LendingRecord previous = records.put(key, record);
+            if (previous != null) {
+                long previousPatronHash = PrimitiveHashing.hash64(previous.getPatronId());
+                long previousIsbnHash = PrimitiveHashing.hash64(previous.getIsbn());
+                activeByPatron.remove(previousPatronHash, key);
+                if (previousPatronHash != patronHash) {
+                    recordsByPatron.remove(previousPatronHash, key);
+                    recordsByPatron.add(patronHash, key);
+                }
+                if (previousIsbnHash != isbnHash) {
+                    recordsByIsbn.remove(previousIsbnHash, key);
+                    recordsByIsbn.add(isbnHash, key);
+                }
+            } else {
+                recordsByPatron.add(patronHash, key);
+                recordsByIsbn.add(isbnHash, key);
+            }
+            if (record.isActive()) {
+                activeByPatron.add(patronHash, key);
+                addActive(key);
+            } else {
+                removeActive(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addActive(long key) {
+        if (activeSlots.containsKey(key)) {
+            return;
+        }
+        if (activeCount == activeKeys.length) {
+            activeKeys = Arrays.copyOf(activeKeys, activeCount * 2);
+        }
+        activeKeys[activeCount] = key;
+        activeSlots.put(key, activeCount++);
+    }
+
+    private void removeActive(long key) {
+        int slot = activeSlots.getOrDefault(key, -1);
+        if (slot < 0) {
+            return;
+        }
+        // Move the last key into the freed slot
+        long last = activeKeys[--activeCount];
+        activeKeys[slot] = last;
+        activeSlots.put(last, slot);
+        activeSlots.remove(key);
+    }
+
+    private static long parseKey(String recordId) {
+        if (!IdGenerators.isCompactId(recordId)) {
+            throw new IllegalArgumentException("Record ID is not a compact numeric ID: " + recordId);
+        }
+        return IdGenerators.parse(recordId);
+    }
+}
@@ -0,0 +1,81 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.BookTransferRequest;
+import org.librarymanagement.mainentities.IdGenerators;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * TransferRepository keyed on primitive longs, for transfer IDs from IdGenerators.
+ * Transfer IDs that are not compact IDs are rejected.
+ * Thread-safe using a read-write lock.
+ */
+public class LongKeyedTransferRepository implements TransferRepository {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<BookTransferRequest> transfers = new LongObjectHashMap<>();
+
+    @Override
+    public void save(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        long key = parseKey(transferRequest.getTransferId());
+        lock.writeLock().lock();
+        try {
+            transfers.put(key, transferRequest);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<BookTransferRequest> findById(String transferId) {
+        if (!IdGenerators.isCompactId(transferId)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(transfers.get(IdGenerators.parse(transferId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(BookTransferRequest transferRequest) {
+        if (transferRequest == null || transferRequest.getTransferId() == null) {
+            throw new IllegalArgumentException("Transfer request and transferId cannot be null");
+        }
+        long key = parseKey(transferRequest.getTransferId());
+        lock.writeLock().lock();
+        try {
+            if (!transfers.containsKey(key)) {
+                throw new IllegalArgumentException("Transfer request not found: " + transferRequest.getTransferId());
+            }
+            transfers.put(key, transferRequest);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BookTransferRequest> findAll() {
+        lock.readLock().lock();
+        try {
+            return transfers.values();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long parseKey(String transferId) {
+        if (!IdGenerators.isCompactId(transferId)) {
+            throw new IllegalArgumentException("Transfer ID is not a compact numeric ID: " + transferId);
+        }
+        return IdGenerators.parse(transferId);
+    }
+}
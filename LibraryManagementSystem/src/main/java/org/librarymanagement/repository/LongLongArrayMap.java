@@ -0,0 +1,106 @@
+package org.librarymanagement.repository;
+
+import java.util.Arrays;
+
+/**
+ * Multimap from primitive long keys to growable arrays of long values,
+ * e.g. patron key to lending record IDs. Each key owns one long[] whose first
+ * element is the number of values in use, so there are no per-value objects.
+ * Value order is not preserved by remove. Not thread-safe; callers guard it with their own lock.
+ */
+public class LongLongArrayMap {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final LongObjectHashMap<long[]> lists;
+
+    public LongLongArrayMap() {
+        this(16);
+    }
+
+    public LongLongArrayMap(int expectedKeys) {
+        this.lists = new LongObjectHashMap<>(expectedKeys);
+    }
+
+    /**
+     * Append a value to the array of key
+     */
+    public void add(long key, long value) {
+        long[] list = lists.get(key);
+        if (list == null) {
+            list = new long[3];
+            lists.put(key, list);
+        } else if (list[0] + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length * 2 - 1);
+            lists.put(key, list);
+        }
+        int count = (int) list[0];
+        list[count + 1] = value;
+        list[0] = count + 1;
+    }
+
+    /**
+     * Remove one occurrence of value from the array of key
+     *
+     * @return Whether it was present
+     */
+    public boolean remove(long key, long value) {
+        long[] list = lists.get(key);
+        if (list == null) {
+            return false;
+        }
+        int count = (int) list[0];
+        for (int i = 1; i <= count; i++) {
+            if (list[i] == value) {
+                list[i] = list[count]; // swap with the last value
+                list[0] = count - 1;
+                if (count == 1) {
+                    lists.remove(key);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(long key, long value) {
+        long[] list = lists.get(key);
+        if (list == null) {
+            return false;
+        }
+        for (int i = 1; i <= list[0]; i++) {
+            if (list[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy of the values of key (empty if none)
+     */
+    public long[] get(long key) {
+        long[] list = lists.get(key);
+        return list == null ? EMPTY : Arrays.copyOfRange(list, 1, (int) list[0] + 1);
+    }
+
+    public int count(long key) {
+        long[] list = lists.get(key);
+        return list == null ? 0 : (int) list[0];
+    }
+
+    /**
+     * Number of keys with at least one value
+     */
+    public int size() {
+        return lists.size();
+    }
+
+    public void removeAll(long key) {
+        lists.remove(key);
+    }
+
+    public void clear() {
+        lists.clear();
+    }
+}
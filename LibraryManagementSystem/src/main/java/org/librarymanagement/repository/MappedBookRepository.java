@@ -0,0 +1,278 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.BookStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BookRepository that keeps the catalogue off-heap in memory-mapped column files.
+ * The row of a book is its id in the ISBN dictionary (which doubles as the ISBN hash index);
+ * titles and authors share one dictionary, branches have their own.
+ *
+ * Columns (one file each, indexed by row):
+ *   title.col / author.col - int dictionary id (-1 = null)
+ *   year.col               - int
+ *   status.col             - byte, 0 = row never written, otherwise BookStatus ordinal + 1,
+ *                            with the high bit set once the book is deleted (a tombstone)
+ *   branch.col             - short branch dictionary id (-1 = null)
+ *
+ * Book objects are materialized on each lookup, so changes to a returned Book are only stored
+ * once it is passed to modify (as the services already do). Opening an existing directory only
+ * maps the files, so restarts do not reload the catalogue. Dictionaries are append-only: text
+ * replaced by modify stays in the files.
+ * Thread-safe using a read-write lock.
+ */
+public class MappedBookRepository implements BookRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedBookRepository.class);
+    private static final int INITIAL_ROWS = 1024;
+    private static final BookStatus[] STATUSES = BookStatus.values();
+    private static final int DELETED = 0x80;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MappedStringDictionary isbns;
+    private final MappedStringDictionary texts;
+    private final MappedStringDictionary branches;
+    private final MappedFile titleColumn;
+    private final MappedFile authorColumn;
+    private final MappedFile yearColumn;
+    private final MappedFile statusColumn;
+    private final MappedFile branchColumn;
+
+    public MappedBookRepository(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create catalogue directory " + directory, e);
+        }
+        this.isbns = new MappedStringDictionary(directory, "isbn");
+        this.texts = new MappedStringDictionary(directory, "text");
+        this.branches = new MappedStringDictionary(directory, "branch");
+        this.titleColumn = new MappedFile(directory.resolve("title.col"), 4L * INITIAL_ROWS);
+        this.authorColumn = new MappedFile(directory.resolve("author.col"), 4L * INITIAL_ROWS);
+        this.yearColumn = new MappedFile(directory.resolve("year.col"), 4L * INITIAL_ROWS);
+        this.statusColumn = new MappedFile(directory.resolve("status.col"), INITIAL_ROWS);
+        this.branchColumn = new MappedFile(directory.resolve("branch.col"), 2L * INITIAL_ROWS);
+        logger.info("Mapped book catalogue opened in {} ({} rows)", directory, isbns.size());
+    }
+
+    @Override
+    public void add(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            int row = isbns.intern(book.getIsbn());
+            if (isLive(row)) {
+                throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " already exists");
+            }
+            writeRow(row, book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        lock.readLock().lock();
+        try {
+            int row = isbns.find(isbn);
+            return isLive(row) ? Optional.of(materialize(row)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a list over the books present now; each Book is materialized when it is accessed.
+     * A book deleted after this call is still returned with its last stored values.
+     */
+    @Override
+    public List<Book> findAll() {
+        int[] rows;
+        int size = 0;
+        lock.readLock().lock();
+        try {
+            int rowCount = isbns.size();
+            rows = new int[Math.min(rowCount, INITIAL_ROWS)];
+            for (int row = 0; row < rowCount; row++) {
+                if (isLive(row)) {
+                    if (size == rows.length) {
+                        rows = Arrays.copyOf(rows, Math.max(16, rows.length * 2));
+                    }
+                    rows[size++] = row;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new RowList(rows, size);
+    }
+
+    @Override
+    public void modify(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            int row = isbns.find(book.getIsbn());
+            if (!isLive(row)) {
+                throw new IllegalStateException("Book with ISBN " + book.getIsbn() + " does not exist");
+            }
+            writeRow(row, book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(String isbn) {
+        lock.writeLock().lock();
+        try {
+            int row = isbns.find(isbn);
+            if (!isLive(row)) {
+                return false;
+            }
+            byte status = statusColumn.buffer().get(row);
+            statusColumn.buffer().put(row, (byte) (status | DELETED));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of books in the catalogue
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int live = 0;
+            for (int row = 0; row < isbns.size(); row++) {
+                if (isLive(row)) {
+                    live++;
+                }
+            }
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write all dirty pages to disk (the OS does this lazily otherwise)
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            isbns.force();
+            texts.force();
+            branches.force();
+            titleColumn.force();
+            authorColumn.force();
+            yearColumn.force();
+            branchColumn.force();
+            statusColumn.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            isbns.close();
+            texts.close();
+            branches.close();
+            titleColumn.close();
+            authorColumn.close();
+            yearColumn.close();
+            branchColumn.close();
+            statusColumn.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeRow(int row, Book book) {
+        int branchId = branches.intern(book.getBranchId());
+        if (branchId > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct branches for the catalogue store");
+        }
+        ensureRows(row + 1);
+        titleColumn.buffer().putInt(4 * row, texts.intern(book.getTitle()));
+        authorColumn.buffer().putInt(4 * row, texts.intern(book.getAuthor()));
+        yearColumn.buffer().putInt(4 * row, book.getPublicationYear());
+        branchColumn.buffer().putShort(2 * row, (short) branchId);
+        // Status last: a row only becomes visible once the other columns are in place
+        statusColumn.buffer().put(row, (byte) (book.getStatus().ordinal() + 1));
+    }
+
+    private Book materialize(int row) {
+        Book book = new Book(isbns.get(row),
+                texts.get(titleColumn.buffer().getInt(4 * row)),
+                texts.get(authorColumn.buffer().getInt(4 * row)),
+                yearColumn.buffer().getInt(4 * row),
+                branches.get(branchColumn.buffer().getShort(2 * row)));
+        book.setStatus(STATUSES[(statusColumn.buffer().get(row) & ~DELETED) - 1]);
+        return book;
+    }
+
+    private boolean isLive(int row) {
+        if (row < 0 || row >= statusColumn.buffer().capacity()) {
+            return false;
+        }
+        byte status = statusColumn.buffer().get(row);
+        return status != 0 && (status & DELETED) == 0;
+    }
+
+    private void ensureRows(int rows) {
+        titleColumn.ensureCapacity(4L * rows);
+        authorColumn.ensureCapacity(4L * rows);
+        yearColumn.ensureCapacity(4L * rows);
+        statusColumn.ensureCapacity(rows);
+        branchColumn.ensureCapacity(2L * rows);
+    }
+
+    /**
+     * Read-only list of rows that materializes books on access
+     */
+    private final class RowList extends AbstractList<Book> implements RandomAccess {
+        private final int[] rows;
+        private final int size;
+
+        RowList(int[] rows, int size) {
+            this.rows = rows;
+            this.size = size;
+        }
+
+        @Override
+        public Book get(int index) {
+            Objects.checkIndex(index, size);
+            lock.readLock().lock();
+            try {
+                return materialize(rows[index]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
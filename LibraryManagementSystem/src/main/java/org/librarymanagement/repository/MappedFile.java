@@ -0,0 +1,71 @@
+package org.librarymanagement.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file mapped read-write into memory that grows by remapping at double the size.
+ * Only absolute get/put calls should be used on the buffer, so readers can share it.
+ * A single mapping is limited to 2 GB.
+ */
+final class MappedFile implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    MappedFile(Path path, long initialSize) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + path, e);
+        }
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Make sure at least the given number of bytes are mapped. Callers must hold the owner's write lock.
+     */
+    void ensureCapacity(long bytes) {
+        if (bytes <= buffer.capacity()) {
+            return;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Mapped file " + path + " cannot grow beyond 2 GB");
+        }
+        long size = Math.min(Integer.MAX_VALUE, Math.max(bytes, (long) buffer.capacity() * 2));
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow " + path, e);
+        }
+    }
+
+    /**
+     * Write dirty pages to disk
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close " + path, e);
+        }
+    }
+}
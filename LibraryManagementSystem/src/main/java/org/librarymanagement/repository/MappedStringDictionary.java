@@ -0,0 +1,198 @@
+package org.librarymanagement.repository;
+
+import java.io.Closeable;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Append-only string dictionary stored in memory-mapped files.
+ * Each distinct string gets a dense int id; ids are never reused or removed.
+ *
+ * Files:
+ *   name.dat - [int length][UTF-8 bytes] per string
+ *   name.off - [long count][long data end] then one long offset per id
+ *   name.idx - [int capacity][int indexed count] then an open-addressing table of id + 1 (0 = empty)
+ *
+ * The count is written after the string and its offset, so a crash mid-append leaves the
+ * dictionary at the previous size. The hash index is rebuilt on open if it is out of step.
+ * Not thread-safe on its own; the owning repository guards it with a read-write lock.
+ */
+final class MappedStringDictionary implements Closeable {
+
+    private static final int OFFSETS_HEADER = 16;
+    private static final int INDEX_HEADER = 8;
+    private static final int MIN_INDEX_CAPACITY = 1024;
+
+    private final MappedFile data;
+    private final MappedFile offsets;
+    private final MappedFile index;
+    private int count;
+    private long dataEnd;
+    private int indexCapacity;
+
+    MappedStringDictionary(Path directory, String name) {
+        this.data = new MappedFile(directory.resolve(name + ".dat"), 1 << 16);
+        this.offsets = new MappedFile(directory.resolve(name + ".off"), OFFSETS_HEADER + 8L * 1024);
+        this.index = new MappedFile(directory.resolve(name + ".idx"), INDEX_HEADER + 4L * MIN_INDEX_CAPACITY);
+        this.count = (int) offsets.buffer().getLong(0);
+        this.dataEnd = offsets.buffer().getLong(8);
+        this.indexCapacity = index.buffer().getInt(0);
+        if (indexCapacity == 0 || index.buffer().getInt(4) != count) {
+            rebuildIndex(Math.max(MIN_INDEX_CAPACITY, Integer.highestOneBit(Math.max(1, count)) * 4));
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return The string stored under id (null for id -1)
+     */
+    String get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        if (id >= count) {
+            throw new IllegalArgumentException("Unknown dictionary id: " + id);
+        }
+        MappedByteBuffer buffer = data.buffer();
+        int offset = (int) offsets.buffer().getLong(OFFSETS_HEADER + 8 * id);
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The id of value, or -1 if it is not in the dictionary (or value is null)
+     */
+    int find(String value) {
+        if (value == null) {
+            return -1;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int slot = slotFor(bytes);
+        int entry = index.buffer().getInt(slotOffset(slot));
+        return entry == 0 ? -1 : entry - 1;
+    }
+
+    /**
+     * Add value if it is new. Caller must hold the owner's write lock.
+     *
+     * @return The id of value (-1 for null)
+     */
+    int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int slot = slotFor(bytes);
+        int entry = index.buffer().getInt(slotOffset(slot));
+        if (entry != 0) {
+            return entry - 1;
+        }
+
+        int id = count;
+        long offset = dataEnd;
+        data.ensureCapacity(offset + 4 + bytes.length);
+        data.buffer().putInt((int) offset, bytes.length);
+        data.buffer().put((int) offset + 4, bytes);
+        offsets.ensureCapacity(OFFSETS_HEADER + 8L * (id + 1));
+        offsets.buffer().putLong(OFFSETS_HEADER + 8 * id, offset);
+        dataEnd = offset + 4 + bytes.length;
+        count = id + 1;
+        offsets.buffer().putLong(8, dataEnd);
+        offsets.buffer().putLong(0, count);
+
+        if ((long) count * 2 > indexCapacity) {
+            rebuildIndex(indexCapacity * 2);
+        } else {
+            index.buffer().putInt(slotOffset(slot), id + 1);
+            index.buffer().putInt(4, count);
+        }
+        return id;
+    }
+
+    void force() {
+        data.force();
+        offsets.force();
+        index.force();
+    }
+
+    @Override
+    public void close() {
+        data.close();
+        offsets.close();
+        index.close();
+    }
+
+    /**
+     * Linear probing: the slot holding bytes, or the empty slot where it would go
+     */
+    private int slotFor(byte[] bytes) {
+        MappedByteBuffer table = index.buffer();
+        int mask = indexCapacity - 1;
+        int slot = hash(bytes) & mask;
+        while (true) {
+            int entry = table.getInt(slotOffset(slot));
+            if (entry == 0 || matches(entry - 1, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(int id, byte[] bytes) {
+        MappedByteBuffer buffer = data.buffer();
+        int offset = (int) offsets.buffer().getLong(OFFSETS_HEADER + 8 * id);
+        if (buffer.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuildIndex(int capacity) {
+        index.ensureCapacity(INDEX_HEADER + 4L * capacity);
+        MappedByteBuffer table = index.buffer();
+        for (int i = 0; i < capacity; i++) {
+            table.putInt(slotOffset(i), 0);
+        }
+        indexCapacity = capacity;
+        int mask = capacity - 1;
+        MappedByteBuffer buffer = data.buffer();
+        for (int id = 0; id < count; id++) {
+            int offset = (int) offsets.buffer().getLong(OFFSETS_HEADER + 8 * id);
+            byte[] bytes = new byte[buffer.getInt(offset)];
+            buffer.get(offset + 4, bytes);
+            int slot = hash(bytes) & mask;
+            while (table.getInt(slotOffset(slot)) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.putInt(slotOffset(slot), id + 1);
+        }
+        table.putInt(0, capacity);
+        table.putInt(4, count);
+    }
+
+    private static int slotOffset(int slot) {
+        return INDEX_HEADER + 4 * slot;
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        // Spread the bits so the low bits used for the slot are well mixed
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+}
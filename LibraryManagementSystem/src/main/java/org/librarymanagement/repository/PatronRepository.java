@@ -1,5 +1,6 @@
 package org.librarymanagement.repository;
 
+import org.librarymanagement.mainentities.BorrowingHistoryArchive;
 import org.librarymanagement.mainentities.Patron;
 
 import java.util.List;
@@ -12,4 +13,10 @@ public interface PatronRepository {
     void modify(Patron patron);
     boolean delete(String patronId);
 
+    /**
+     * Page older borrowing history from the archive for every stored patron and every patron
+     * added later (LendingService passes its LendingRepository)
+     */
+    void setHistoryArchive(BorrowingHistoryArchive historyArchive);
+
 }
@@ -0,0 +1,35 @@
+package org.librarymanagement.repository;
+
+/**
+ * Hash helpers shared by the primitive-keyed maps and repositories
+ */
+final class PrimitiveHashing {
+
+    private PrimitiveHashing() {
+    }
+
+    /**
+     * Finalizer of MurmurHash3: spreads all key bits into the low bits used for slots
+     */
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string, for indexing string keys in long-keyed maps.
+     * Collisions are possible, so lookups through such an index must verify the key.
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
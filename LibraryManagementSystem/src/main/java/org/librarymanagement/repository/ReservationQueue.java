@@ -0,0 +1,104 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.Reservation;
+
+import java.util.*;
+
+/**
+ * FIFO queue of active reservations for a single ISBN.
+ * Every reservation gets a ticket on enqueue; a Fenwick tree over tickets gives
+ * its rank on demand, so enqueue, head lookup and cancel never renumber the queue.
+ * Not thread-safe - callers synchronize on the queue instance.
+ */
+class ReservationQueue {
+
+    private final LinkedHashMap<String, Reservation> entries = new LinkedHashMap<>();
+    private final Map<String, Integer> tickets = new HashMap<>();
+    private int[] tree = new int[16];
+    private int nextTicket = 1;
+
+    boolean contains(String reservationId) {
+        return entries.containsKey(reservationId);
+    }
+
+    void enqueue(Reservation reservation) {
+        if (entries.containsKey(reservation.getReservationId())) {
+            entries.put(reservation.getReservationId(), reservation);
+            return;
+        }
+        if (nextTicket >= tree.length) {
+            // Out of tickets: renumber if the queue is sparse, otherwise grow the tree
+            int capacity = entries.size() * 2 < tree.length ? tree.length : tree.length * 2;
+            renumber(capacity);
+        }
+        int ticket = nextTicket++;
+        add(ticket, 1);
+        entries.put(reservation.getReservationId(), reservation);
+        tickets.put(reservation.getReservationId(), ticket);
+    }
+
+    boolean remove(String reservationId) {
+        Integer ticket = tickets.remove(reservationId);
+        if (ticket == null) {
+            return false;
+        }
+        entries.remove(reservationId);
+        if (entries.isEmpty()) {
+            // Queue drained - restart ticket numbering so the tree stays small
+            Arrays.fill(tree, 0);
+            nextTicket = 1;
+        } else {
+            add(ticket, -1);
+        }
+        return true;
+    }
+
+    Optional<Reservation> peek() {
+        Iterator<Reservation> it = entries.values().iterator();
+        return it.hasNext() ? Optional.of(it.next()) : Optional.empty();
+    }
+
+    /**
+     * 1-based position of the reservation in the queue, or 0 if it is not queued
+     */
+    int rank(String reservationId) {
+        Integer ticket = tickets.get(reservationId);
+        return ticket == null ? 0 : prefixSum(ticket);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    List<Reservation> snapshot() {
+        return new ArrayList<>(entries.values());
+    }
+
+    private void add(int index, int delta) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefixSum(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void renumber(int capacity) {
+        tree = new int[capacity];
+        nextTicket = 1;
+        for (String reservationId : entries.keySet()) {
+            int ticket = nextTicket++;
+            tickets.put(reservationId, ticket);
+            add(ticket, 1);
+        }
+    }
+}
@@ -24,6 +24,21 @@ public interface ReservationRepository {
      */
     List<Reservation> findActiveReservationsByIsbn(String isbn);
     
+    /**
+     * Find the active reservation at the head of the queue for a specific book
+     */
+    Optional<Reservation> findNextActiveReservation(String isbn);
+    
+    /**
+     * Get the 1-based queue position of an active reservation (0 if it is not waiting in a queue)
+     */
+    int getQueuePosition(String reservationId);
+    
+    /**
+     * Count the active reservations waiting for a specific book
+     */
+    int countActiveReservations(String isbn);
+    
     /**
      * Find all reservations for a specific patron
      */
@@ -0,0 +1,31 @@
+package org.librarymanagement.repository;
+
+import org.librarymanagement.mainentities.BookTransferRequest;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for BookTransferRequest entity operations.
+ */
+public interface TransferRepository {
+    
+    /**
+     * Save a transfer request
+     */
+    void save(BookTransferRequest transferRequest);
+    
+    /**
+     * Find a transfer request by ID
+     */
+    Optional<BookTransferRequest> findById(String transferId);
+    
+    /**
+     * Update a transfer request
+     */
+    void update(BookTransferRequest transferRequest);
+    
+    /**
+     * Get all transfer requests
+     */
+    List<BookTransferRequest> findAll();
+}
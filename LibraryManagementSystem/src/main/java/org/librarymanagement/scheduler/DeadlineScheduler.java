@@ -0,0 +1,241 @@
+package org.librarymanagement.scheduler;
+
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.mainentities.ReservationStatus;
+import org.librarymanagement.observer.LibraryEventObserver;
+import org.librarymanagement.observer.ReservationEvent;
+import org.librarymanagement.observer.ReservationEventType;
+import org.librarymanagement.observer.ReservationObserver;
+import org.librarymanagement.repository.LendingRepository;
+import org.librarymanagement.repository.ReservationRepository;
+import org.librarymanagement.service.LendingService;
+import org.librarymanagement.service.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires overdue events for loans past their due date and expires holds that were not picked up.
+ * Due dates and hold expiry dates are kept in a HierarchicalTimingWheel; the scheduler observes
+ * LendingService (borrow schedules, return cancels) and ReservationService (ready schedules,
+ * cancel/expire/fulfil cancels). Firing goes back through the services, which re-check the current
+ * state, so a deadline that races with a return or pickup is simply ignored.
+ *
+ * Nothing is persisted: start() rebuilds the deadlines from the active loans and holds in the
+ * repositories, and deadlines that passed while the system was down fire on the first tick.
+ *
+ * Usage:
+ *   DeadlineScheduler scheduler = new DeadlineScheduler(lendingService, reservationService,
+ *           lendingRepository, reservationRepository);
+ *   lendingService.addObserver(scheduler);
+ *   reservationService.addObserver(scheduler);
+ *   scheduler.start();
+ */
+public class DeadlineScheduler implements LibraryEventObserver, ReservationObserver, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineScheduler.class);
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SIZE = 256;
+    private static final Set<ReservationEventType> HOLD_EVENTS = EnumSet.of(ReservationEventType.READY,
+            ReservationEventType.CANCELLED, ReservationEventType.EXPIRED, ReservationEventType.FULFILLED);
+
+    private final LendingService lendingService;
+    private final ReservationService reservationService;
+    private final LendingRepository lendingRepository;
+    private final ReservationRepository reservationRepository;
+    private final Clock clock;
+    private final Duration tick;
+    private final HierarchicalTimingWheel<Deadline> wheel;
+    private final ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<Deadline>> loanDeadlines;
+    private final ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<Deadline>> holdDeadlines;
+    private ScheduledExecutorService ticker;
+
+    public DeadlineScheduler(LendingService lendingService, ReservationService reservationService,
+                             LendingRepository lendingRepository, ReservationRepository reservationRepository) {
+        this(lendingService, reservationService, lendingRepository, reservationRepository,
+                DEFAULT_TICK, Clock.systemDefaultZone());
+    }
+
+    public DeadlineScheduler(LendingService lendingService, ReservationService reservationService,
+                             LendingRepository lendingRepository, ReservationRepository reservationRepository,
+                             Duration tick, Clock clock) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.lendingService = lendingService;
+        this.reservationService = reservationService;
+        this.lendingRepository = lendingRepository;
+        this.reservationRepository = reservationRepository;
+        this.clock = clock;
+        this.tick = tick;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_SIZE, clock.millis());
+        this.loanDeadlines = new ConcurrentHashMap<>();
+        this.holdDeadlines = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Rebuild the deadlines from the repositories and start ticking on a daemon thread
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            throw new IllegalStateException("Deadline scheduler already started");
+        }
+        rebuild();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = tick.toMillis();
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                // Keep the ticker alive; the deadlines stay in the wheel
+                logger.error("Deadline scheduler tick failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule every active loan and every hold waiting for pickup
+     *
+     * @return Number of deadlines scheduled
+     */
+    public int rebuild() {
+        int scheduled = 0;
+        for (LendingRecord record : lendingRepository.findAllActive()) {
+            scheduleLoan(record);
+            scheduled++;
+        }
+        for (Reservation reservation : reservationRepository.findAll()) {
+            if (reservation.getStatus() == ReservationStatus.AVAILABLE && reservation.getExpiryDate() != null) {
+                scheduleHold(reservation);
+                scheduled++;
+            }
+        }
+        logger.info("Deadline scheduler rebuilt {} deadlines from the repositories", scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Fire every deadline that has passed by the clock's current time.
+     * Called by the ticker; public so callers without a ticker can drive it.
+     *
+     * @return Number of deadlines fired
+     */
+    public int advance() {
+        List<HierarchicalTimingWheel.Timeout<Deadline>> expired = wheel.advanceTo(clock.millis());
+        for (HierarchicalTimingWheel.Timeout<Deadline> timeout : expired) {
+            Deadline deadline = timeout.getPayload();
+            try {
+                if (deadline.kind == Kind.LOAN) {
+                    loanDeadlines.remove(deadline.id, timeout);
+                    lendingService.processOverdue(deadline.id);
+                } else {
+                    holdDeadlines.remove(deadline.id, timeout);
+                    reservationService.expireReservation(deadline.id);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to process {} deadline for {}", deadline.kind, deadline.id, e);
+            }
+        }
+        return expired.size();
+    }
+
+    /**
+     * Number of loans and holds waiting for their deadline
+     */
+    public int pendingDeadlines() {
+        return wheel.size();
+    }
+
+    @Override
+    public void onBookBorrowed(LendingRecord record) {
+        scheduleLoan(record);
+    }
+
+    @Override
+    public void onBookReturned(LendingRecord record) {
+        cancel(loanDeadlines, record.getRecordId());
+    }
+
+    @Override
+    public Set<ReservationEventType> subscribedEvents() {
+        return HOLD_EVENTS;
+    }
+
+    @Override
+    public void onReservationEvent(ReservationEvent event) {
+        if (event.type() == ReservationEventType.READY) {
+            scheduleHold(event.reservation());
+        } else {
+            // Cancelled, expired or picked up: the hold no longer has a deadline
+            cancel(holdDeadlines, event.reservation().getReservationId());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdown();
+            try {
+                ticker.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void scheduleLoan(LendingRecord record) {
+        schedule(loanDeadlines, new Deadline(Kind.LOAN, record.getRecordId()), record.getDueDate());
+    }
+
+    private void scheduleHold(Reservation reservation) {
+        schedule(holdDeadlines, new Deadline(Kind.HOLD, reservation.getReservationId()), reservation.getExpiryDate());
+    }
+
+    private void schedule(ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<Deadline>> deadlines,
+                          Deadline deadline, LocalDateTime at) {
+        long millis = at.atZone(clock.getZone()).toInstant().toEpochMilli();
+        HierarchicalTimingWheel.Timeout<Deadline> previous = deadlines.put(deadline.id, wheel.schedule(millis, deadline));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private static void cancel(ConcurrentHashMap<String, HierarchicalTimingWheel.Timeout<Deadline>> deadlines,
+                               String id) {
+        HierarchicalTimingWheel.Timeout<Deadline> timeout = deadlines.remove(id);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private enum Kind {
+        LOAN,
+        HOLD
+    }
+
+    private static final class Deadline {
+        private final Kind kind;
+        private final String id;
+
+        Deadline(Kind kind, String id) {
+            this.kind = kind;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.librarymanagement.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding deadlines with O(1) schedule and cancel.
+ *
+ * Time is cut into ticks of tickMillis. Level 0 has one slot per tick for the next wheelSize
+ * ticks; every higher level has slots wheelSize times as wide, so a handful of levels covers
+ * any deadline. Each slot is a doubly-linked list of Timeouts, so inserting is placing the
+ * node in the slot for its deadline and cancelling is unlinking it. When level 0 wraps around,
+ * the due slot of the next level is cascaded down into finer slots (the classic kernel
+ * timer scheme), so every timeout is moved at most once per level.
+ *
+ * Deadlines are rounded up to a whole tick, so a timeout never fires early and at most one
+ * tick late (plus however late advanceTo is called).
+ * Thread-safe: all operations synchronize on the wheel.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Bucket<T>[][] levels;
+    // Timeouts whose deadline had already passed when they were placed
+    private final Bucket<T> ready = new Bucket<>();
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        @SuppressWarnings("unchecked")
+        Bucket<T>[][] levels = (Bucket<T>[][]) new Bucket<?>[(63 + bits - 1) / bits][];
+        this.levels = levels;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule payload to expire at deadlineMillis (a deadline in the past expires on the next advance)
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null");
+        }
+        // Round up so the timeout never fires before its deadline
+        long deadlineTick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, deadlineMillis, deadlineTick, payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move the wheel forward to nowMillis.
+     *
+     * @return The timeouts that expired
+     */
+    public synchronized List<Timeout<T>> advanceTo(long nowMillis) {
+        List<Timeout<T>> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            if (size == ready.count) {
+                // Nothing left in the wheels, skip the empty ticks
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            Bucket<T>[] level0 = levels[0];
+            if (level0 != null) {
+                drain(level0[(int) (currentTick & mask)], expired);
+            }
+        }
+        drain(ready, expired);
+        return expired;
+    }
+
+    /**
+     * Number of pending timeouts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return false;
+        }
+        timeout.bucket.unlink(timeout);
+        timeout.state = Timeout.CANCELLED;
+        size--;
+        return true;
+    }
+
+    /**
+     * Re-place the timeouts of every higher-level slot that starts at the current tick,
+     * coarsest level first
+     */
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < levels.length && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Bucket<T>[] slots = levels[level];
+            if (slots == null) {
+                continue;
+            }
+            Bucket<T> bucket = slots[(int) ((currentTick >>> (bits * level)) & mask)];
+            Timeout<T> timeout = bucket.head;
+            bucket.head = null;
+            bucket.tail = null;
+            bucket.count = 0;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void drain(Bucket<T> bucket, List<Timeout<T>> expired) {
+        Timeout<T> timeout = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        bucket.count = 0;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            timeout.state = Timeout.EXPIRED;
+            size--;
+            expired.add(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            ready.append(timeout);
+            return;
+        }
+        // Level L holds deadlines less than wheelSize^(L+1) ticks away
+        int level = 0;
+        while (level + 1 < levels.length && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        Bucket<T>[] slots = levels[level];
+        if (slots == null) {
+            slots = newLevel();
+            levels[level] = slots;
+        }
+        slots[(int) ((timeout.deadlineTick >>> (bits * level)) & mask)].append(timeout);
+    }
+
+    private Bucket<T>[] newLevel() {
+        @SuppressWarnings("unchecked")
+        Bucket<T>[] slots = (Bucket<T>[]) new Bucket<?>[mask + 1];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Bucket<>();
+        }
+        return slots;
+    }
+
+    /**
+     * Handle to a scheduled deadline
+     */
+    public static final class Timeout<T> {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private final T payload;
+        // Guarded by the wheel
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+        private int state;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, long deadlineMillis, long deadlineTick, T payload) {
+            this.wheel = wheel;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        /**
+         * Remove the timeout from the wheel
+         *
+         * @return false if it already expired or was cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isCancelled() {
+            synchronized (wheel) {
+                return state == CANCELLED;
+            }
+        }
+
+        public boolean isExpired() {
+            synchronized (wheel) {
+                return state == EXPIRED;
+            }
+        }
+    }
+
+    /**
+     * Doubly-linked list of the timeouts in one slot
+     */
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+        private int count;
+
+        void append(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+            count++;
+        }
+
+        void unlink(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            count--;
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package org.librarymanagement.service;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+import org.librarymanagement.observer.CatalogObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service providing type-ahead completions over book titles and authors.
+ * Completions live in a prefix trie keyed by every word-start suffix of the text, so
+ * "cle" completes "The Clean Coder". The trie is path-compressed (a chain of single-child
+ * nodes is one node with a multi-character edge), so nodes grow with the number of keys
+ * rather than their length, and only the node where a key ends holds completions.
+ * Each trie node caches the best score in its subtree, which lets a best-first walk return
+ * the top-k completions (ranked by borrow count) without visiting the whole subtree.
+ * Register it with BookService.addCatalogObserver; borrow counts come from a BorrowPopularityTracker.
+ */
+public class AutocompleteService implements CatalogObserver, BorrowPopularityTracker.PopularityListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final BorrowPopularityTracker popularityTracker;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrieNode root = new TrieNode();
+
+    private final Map<String, Completion> completionsByText = new HashMap<>();
+    private final Map<String, String[]> textsByIsbn = new HashMap<>();
+    private final Map<String, Long> scoreByIsbn = new HashMap<>();
+
+    public AutocompleteService(BorrowPopularityTracker popularityTracker) {
+        this.popularityTracker = popularityTracker;
+        popularityTracker.addListener(this);
+    }
+
+    /**
+     * Complete a prefix with the most borrowed titles/authors
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Complete a prefix with up to limit titles/authors, most borrowed first
+     */
+    public List<String> complete(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return List.of();
+        }
+        String key = normalize(prefix.trim());
+
+        lock.readLock().lock();
+        try {
+            TrieNode node = nodeForPrefix(key);
+            if (node == null) {
+                return List.of();
+            }
+            return topK(node, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        lock.writeLock().lock();
+        try {
+            scoreByIsbn.put(book.getIsbn(), popularityTracker.getBorrowCount(book.getIsbn()));
+            String[] texts = textsOf(book);
+            textsByIsbn.put(book.getIsbn(), texts);
+            for (String text : texts) {
+                attach(text, book.getIsbn());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = textsByIsbn.get(book.getIsbn());
+            String[] current = textsOf(book);
+            if (previous != null && Arrays.equals(previous, current)) {
+                return;
+            }
+            if (previous != null) {
+                for (String text : previous) {
+                    detach(text, book.getIsbn());
+                }
+            }
+            scoreByIsbn.putIfAbsent(book.getIsbn(), popularityTracker.getBorrowCount(book.getIsbn()));
+            textsByIsbn.put(book.getIsbn(), current);
+            for (String text : current) {
+                attach(text, book.getIsbn());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        lock.writeLock().lock();
+        try {
+            String[] texts = textsByIsbn.remove(book.getIsbn());
+            if (texts != null) {
+                for (String text : texts) {
+                    detach(text, book.getIsbn());
+                }
+            }
+            scoreByIsbn.remove(book.getIsbn());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPopularityChanged(String isbn, long borrowCount) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scoreByIsbn.get(isbn);
+            // Counts only grow; listeners may be called out of order under contention
+            if (previous == null || borrowCount <= previous) {
+                return;
+            }
+            long delta = borrowCount - previous;
+            scoreByIsbn.put(isbn, borrowCount);
+            for (String text : textsByIsbn.get(isbn)) {
+                Completion completion = completionsByText.get(text);
+                completion.score += delta;
+                for (String key : completion.keys) {
+                    raiseAlongPath(key, completion.score);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The highest node whose path starts with the prefix (the prefix may end inside its edge)
+     */
+    private TrieNode nodeForPrefix(String prefix) {
+        TrieNode node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            node = node.child(prefix.charAt(depth));
+            if (node == null) {
+                return null;
+            }
+            for (int i = node.start; i < node.end && depth < prefix.length(); i++, depth++) {
+                if (node.source.charAt(i) != prefix.charAt(depth)) {
+                    return null;
+                }
+            }
+        }
+        return node;
+    }
+
+    private List<String> topK(TrieNode start, int limit) {
+        // Best-first walk: nodes are expanded in order of the best score below them
+        PriorityQueue<Object[]> frontier = new PriorityQueue<>((a, b) -> {
+            int byScore = Long.compare((long) b[1], (long) a[1]);
+            if (byScore != 0) {
+                return byScore;
+            }
+            // Completions before nodes of equal score, then alphabetical for stable output
+            boolean aCompletion = a[0] instanceof Completion;
+            boolean bCompletion = b[0] instanceof Completion;
+            if (aCompletion != bCompletion) {
+                return aCompletion ? -1 : 1;
+            }
+            return aCompletion ? ((Completion) a[0]).text.compareTo(((Completion) b[0]).text) : 0;
+        });
+        frontier.add(new Object[]{start, start.best});
+
+        Set<Completion> emitted = new LinkedHashSet<>();
+        while (!frontier.isEmpty() && emitted.size() < limit) {
+            Object item = frontier.poll()[0];
+            if (item instanceof Completion) {
+                emitted.add((Completion) item);
+                continue;
+            }
+            TrieNode node = (TrieNode) item;
+            for (Completion completion : node.completions) {
+                if (!emitted.contains(completion)) {
+                    frontier.add(new Object[]{completion, completion.score});
+                }
+            }
+            for (int i = 0; i < node.size; i++) {
+                TrieNode child = node.children[i];
+                frontier.add(new Object[]{child, child.best});
+            }
+        }
+        List<String> results = new ArrayList<>(emitted.size());
+        for (Completion completion : emitted) {
+            results.add(completion.text);
+        }
+        return results;
+    }
+
+    private void attach(String text, String isbn) {
+        Completion completion = completionsByText.get(text);
+        if (completion == null) {
+            completion = new Completion(text, wordStartSuffixes(text));
+            completionsByText.put(text, completion);
+            for (String key : completion.keys) {
+                insert(key).addCompletion(completion);
+            }
+        }
+        if (completion.isbns.add(isbn)) {
+            completion.score += scoreByIsbn.getOrDefault(isbn, 0L);
+        }
+        for (String key : completion.keys) {
+            raiseAlongPath(key, completion.score);
+        }
+    }
+
+    private void detach(String text, String isbn) {
+        Completion completion = completionsByText.get(text);
+        if (completion == null || !completion.isbns.remove(isbn)) {
+            return;
+        }
+        completion.score -= scoreByIsbn.getOrDefault(isbn, 0L);
+        if (completion.isbns.isEmpty()) {
+            completionsByText.remove(text);
+        }
+        for (String key : completion.keys) {
+            // Walk down recording the path, then recompute bests (and prune) bottom-up
+            List<TrieNode> path = pathOf(key);
+            if (completion.isbns.isEmpty()) {
+                path.get(path.size() - 1).removeCompletion(completion);
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                TrieNode node = path.get(i);
+                if (i > 0 && node.size == 0 && node.completions.length == 0) {
+                    path.get(i - 1).removeChild(node.firstChar());
+                    continue;
+                }
+                if (i > 0 && node.size == 1 && node.completions.length == 0) {
+                    node.absorbOnlyChild();
+                }
+                node.recomputeBest();
+            }
+        }
+    }
+
+    /**
+     * The node where key ends, splitting an edge or adding a leaf as needed
+     */
+    private TrieNode insert(String key) {
+        TrieNode node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            TrieNode child = node.child(key.charAt(depth));
+            if (child == null) {
+                return node.addChild(new TrieNode(key, depth, key.length()));
+            }
+            int matched = 0;
+            int edge = child.end - child.start;
+            while (matched < edge && depth + matched < key.length()
+                    && child.source.charAt(child.start + matched) == key.charAt(depth + matched)) {
+                matched++;
+            }
+            if (matched < edge) {
+                child = node.splitChild(child, matched);
+            }
+            node = child;
+            depth += matched;
+        }
+        return node;
+    }
+
+    /**
+     * Nodes from the root to the node where an inserted key ends
+     */
+    private List<TrieNode> pathOf(String key) {
+        List<TrieNode> path = new ArrayList<>();
+        TrieNode node = root;
+        path.add(node);
+        for (int depth = 0; depth < key.length(); depth += node.end - node.start) {
+            node = node.child(key.charAt(depth));
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void raiseAlongPath(String key, long score) {
+        TrieNode node = root;
+        node.best = Math.max(node.best, score);
+        for (int depth = 0; depth < key.length(); depth += node.end - node.start) {
+            node = node.child(key.charAt(depth));
+            node.best = Math.max(node.best, score);
+        }
+    }
+
+    private static String[] textsOf(Book book) {
+        Set<String> texts = new LinkedHashSet<>();
+        if (book.getTitle() != null && !book.getTitle().isBlank()) {
+            texts.add(book.getTitle().trim());
+        }
+        if (book.getAuthor() != null && !book.getAuthor().isBlank()) {
+            texts.add(book.getAuthor().trim());
+        }
+        return texts.toArray(new String[0]);
+    }
+
+    /**
+     * Normalized keys for the whole text and for every position where a word starts
+     */
+    private static String[] wordStartSuffixes(String text) {
+        String normalized = normalize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1));
+            if (wordStart && Character.isLetterOrDigit(normalized.charAt(i))) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        if (keys.isEmpty()) {
+            keys.add(normalized);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase();
+    }
+
+    /**
+     * A distinct completion text and the books that carry it
+     */
+    private static final class Completion {
+        final String text;
+        final String[] keys;
+        final Set<String> isbns = new HashSet<>();
+        long score;
+
+        Completion(String text, String[] keys) {
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Trie node with children in sorted parallel arrays (compact, binary-searched), keyed by the
+     * first character of their edge. The edge label is source[start, end), where source is a key
+     * that runs through this node, so labels share the keys' strings instead of copying them.
+     */
+    private static final class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+        private static final Completion[] NO_COMPLETIONS = new Completion[0];
+
+        String source;
+        final int start;
+        int end;
+        char[] keys = NO_KEYS;
+        TrieNode[] children = NO_CHILDREN;
+        int size;
+        Completion[] completions = NO_COMPLETIONS;
+        long best;
+
+        TrieNode() {
+            this("", 0, 0);
+        }
+
+        TrieNode(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        char firstChar() {
+            return source.charAt(start);
+        }
+
+        TrieNode child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, size, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        TrieNode addChild(TrieNode child) {
+            int insertAt = -Arrays.binarySearch(keys, 0, size, child.firstChar()) - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+            keys[insertAt] = child.firstChar();
+            children[insertAt] = child;
+            size++;
+            return child;
+        }
+
+        /**
+         * Cut a child's edge after length characters; the returned node takes its place
+         */
+        TrieNode splitChild(TrieNode child, int length) {
+            TrieNode head = new TrieNode(child.source, child.start, child.start + length);
+            head.best = child.best;
+            TrieNode tail = new TrieNode(child.source, child.start + length, child.end);
+            tail.keys = child.keys;
+            tail.children = child.children;
+            tail.size = child.size;
+            tail.completions = child.completions;
+            tail.best = child.best;
+            head.addChild(tail);
+            children[Arrays.binarySearch(keys, 0, size, child.firstChar())] = head;
+            return head;
+        }
+
+        /**
+         * Merge the only child into this node, extending the edge by the child's
+         */
+        void absorbOnlyChild() {
+            TrieNode child = children[0];
+            // The child's source runs through this node too, so it can carry the joined edge
+            source = child.source;
+            end = child.end;
+            keys = child.keys;
+            children = child.children;
+            size = child.size;
+            completions = child.completions;
+        }
+
+        void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, 0, size, c);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(children, pos + 1, children, pos, size - pos - 1);
+            size--;
+            children[size] = null;
+        }
+
+        void addCompletion(Completion completion) {
+            completions = Arrays.copyOf(completions, completions.length + 1);
+            completions[completions.length - 1] = completion;
+        }
+
+        void removeCompletion(Completion completion) {
+            for (int i = 0; i < completions.length; i++) {
+                if (completions[i] == completion) {
+                    Completion[] remaining = new Completion[completions.length - 1];
+                    System.arraycopy(completions, 0, remaining, 0, i);
+                    System.arraycopy(completions, i + 1, remaining, i, remaining.length - i);
+                    completions = remaining.length == 0 ? NO_COMPLETIONS : remaining;
+                    return;
+                }
+            }
+        }
+
+        void recomputeBest() {
+            long max = 0;
+            for (Completion completion : completions) {
+                max = Math.max(max, completion.score);
+            }
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, children[i].best);
+            }
+            best = max;
+        }
+    }
+}
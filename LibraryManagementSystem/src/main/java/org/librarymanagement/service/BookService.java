@@ -2,10 +2,18 @@ package org.librarymanagement.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
+import org.librarymanagement.jfr.RepositoryScanEvent;
+import org.librarymanagement.jfr.SearchEvent;
 import org.librarymanagement.mainentities.Book;
 import org.librarymanagement.mainentities.BookStatus;
+import org.librarymanagement.metrics.Counter;
+import org.librarymanagement.metrics.LatencyRecorder;
+import org.librarymanagement.metrics.MetricsRegistry;
+import org.librarymanagement.observer.CatalogObserver;
+import org.librarymanagement.strategy.IndexedSearchStrategy;
 import org.librarymanagement.strategy.SearchStrategy;
 import org.librarymanagement.repository.BookRepository;
 import org.slf4j.Logger;
@@ -14,14 +22,46 @@ import org.slf4j.LoggerFactory;
 public class BookService {
     private static final Logger logger = LoggerFactory.getLogger(BookService.class);
     private final BookRepository bookRepository;
+    private final List<CatalogObserver> catalogObservers;
+    private volatile LatencyRecorder searchTime = MetricsRegistry.disabled().latency("book.search");
+    private volatile Counter catalogueScans = MetricsRegistry.disabled().counter("book.search.scans");
 
     public BookService(BookRepository bookRepository) {
         this.bookRepository = bookRepository;
+        this.catalogObservers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Record search latencies in the given registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.searchTime = registry.latency("book.search");
+        this.catalogueScans = registry.counter("book.search.scans");
+    }
+
+    /**
+     * Register an observer of catalogue changes (e.g. a search index).
+     * The observer is first brought up to date with every book already in the catalogue.
+     */
+    public void addCatalogObserver(CatalogObserver observer) {
+        for (Book book : bookRepository.findAll()) {
+            observer.onBookAdded(book);
+        }
+        catalogObservers.add(observer);
+        logger.info("Catalog observer added: {}", observer.getClass().getSimpleName());
+    }
+
+    public void removeCatalogObserver(CatalogObserver observer) {
+        catalogObservers.remove(observer);
+        logger.info("Catalog observer removed: {}", observer.getClass().getSimpleName());
     }
 
     public void addBook(Book book) {
         try{
             bookRepository.add(book);
+            for (CatalogObserver observer : catalogObservers) {
+                observer.onBookAdded(book);
+            }
             logger.info("Book added successfully: {}", book.getIsbn());
         }catch (Exception e){
             logger.error("Error adding book: {}", book.getIsbn(), e);
@@ -32,6 +72,7 @@ public class BookService {
     public void modifyBook(Book book) {
         try{
             bookRepository.modify(book);
+            notifyBookModified(book);
             logger.info("Book modified successfully: {}", book.getIsbn());
         }catch (Exception e){
             logger.error("Error modifying book: {}", book.getIsbn(), e);
@@ -41,8 +82,14 @@ public class BookService {
 
     public boolean removeBook(String isbn) {
         try{
+            Optional<Book> existing = catalogObservers.isEmpty() ? Optional.empty() : bookRepository.findByIsbn(isbn);
             boolean removed = bookRepository.delete(isbn);
             if (removed) {
+                existing.ifPresent(book -> {
+                    for (CatalogObserver observer : catalogObservers) {
+                        observer.onBookRemoved(book);
+                    }
+                });
                 logger.info("Book removed successfully: {}", isbn);
             } else {
                 logger.warn("Book not found for removal: {}", isbn);
@@ -54,6 +101,16 @@ public class BookService {
         }
     }
 
+    /**
+     * Pass a change another service stored through the repository (e.g. a status change on
+     * borrow or return) to the catalogue observers, so indexes never hold a stale copy
+     */
+    void notifyBookModified(Book book) {
+        for (CatalogObserver observer : catalogObservers) {
+            observer.onBookModified(book);
+        }
+    }
+
     public Optional<Book> findByIsbn(String isbn) {
         return bookRepository.findByIsbn(isbn);
     }
@@ -64,8 +121,34 @@ public class BookService {
 
     public List<Book> searchBooks(SearchStrategy searchStrategy, String query) {
         logger.info("Searching books with query: {}", query);
-        List<Book> allBooks = getAllBooks();
-        return searchStrategy.search(allBooks, query);
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean indexed = searchStrategy instanceof IndexedSearchStrategy && catalogObservers.contains(searchStrategy);
+        List<Book> results = null;
+        try {
+            if (indexed) {
+                // Registered indexes are kept in sync with the catalogue - no need to copy it
+                results = ((IndexedSearchStrategy) searchStrategy).search(query);
+                return results;
+            }
+            catalogueScans.increment();
+            RepositoryScanEvent scan = new RepositoryScanEvent();
+            scan.begin();
+            List<Book> allBooks = getAllBooks();
+            scan.end(bookRepository, "findAll", allBooks.size());
+            results = searchStrategy.search(allBooks, query);
+            return results;
+        } finally {
+            searchTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.strategy = searchStrategy.getClass().getSimpleName();
+                event.query = query;
+                event.indexed = indexed;
+                event.resultCount = results == null ? 0 : results.size();
+                event.commit();
+            }
+        }
     }
 
     public List<Book> getAvailableBooks() {
@@ -1,14 +1,18 @@
 package org.librarymanagement.service;
 
+import org.librarymanagement.jfr.TransferEvent;
 import org.librarymanagement.mainentities.Book;
 import org.librarymanagement.mainentities.BookTransferRequest;
 import org.librarymanagement.mainentities.TransferStatus;
+import org.librarymanagement.metrics.Counter;
+import org.librarymanagement.metrics.LatencyRecorder;
+import org.librarymanagement.metrics.MetricsRegistry;
 import org.librarymanagement.repository.BookRepository;
+import org.librarymanagement.repository.InMemoryTransferRepository;
+import org.librarymanagement.repository.TransferRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,12 +24,34 @@ public class BookTransferService {
     private static final Logger logger = LoggerFactory.getLogger(BookTransferService.class);
     private final BookRepository bookRepository;
     private final BranchService branchService;
-    private final Map<String, BookTransferRequest> transferRequests;
+    private final TransferRepository transferRepository;
+    private volatile BookService bookService; // Optional - publishes branch changes to catalogue observers
+    private volatile Metrics metrics = new Metrics(MetricsRegistry.disabled());
     
     public BookTransferService(BookRepository bookRepository, BranchService branchService) {
+        this(bookRepository, branchService, new InMemoryTransferRepository());
+    }
+    
+    public BookTransferService(BookRepository bookRepository, BranchService branchService,
+                               TransferRepository transferRepository) {
         this.bookRepository = bookRepository;
         this.branchService = branchService;
-        this.transferRequests = new HashMap<>();
+        this.transferRepository = transferRepository;
+    }
+    
+    /**
+     * Publish the branch change of a completed transfer to the catalogue observers
+     * registered with the book service
+     */
+    public void setBookService(BookService bookService) {
+        this.bookService = bookService;
+    }
+
+    /**
+     * Record transfer latencies and outcomes in the given registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metrics = new Metrics(registry);
     }
     
     /**
@@ -38,6 +64,35 @@ public class BookTransferService {
      * @throws IllegalArgumentException if validation fails
      */
     public BookTransferRequest initiateTransfer(String isbn, String sourceBranchId, String destinationBranchId) {
+        Metrics metrics = this.metrics;
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        long start = System.nanoTime();
+        BookTransferRequest request = null;
+        String failure = null;
+        try {
+            request = createTransfer(isbn, sourceBranchId, destinationBranchId);
+            return request;
+        } catch (RuntimeException e) {
+            metrics.initiatesRejected.increment();
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            metrics.initiateTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.step = "initiate";
+                event.transferId = request == null ? null : request.getTransferId();
+                event.isbn = isbn;
+                event.sourceBranchId = sourceBranchId;
+                event.destinationBranchId = destinationBranchId;
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
+    
+    private BookTransferRequest createTransfer(String isbn, String sourceBranchId, String destinationBranchId) {
         // Validate input
         if (isbn == null || isbn.trim().isEmpty()) {
             throw new IllegalArgumentException("ISBN cannot be null or empty");
@@ -80,7 +135,7 @@ public class BookTransferService {
         // Create the transfer request
         BookTransferRequest transferRequest = new BookTransferRequest(isbn, sourceBranchId, destinationBranchId);
         transferRequest.setStatus(TransferStatus.PENDING);
-        transferRequests.put(transferRequest.getTransferId(), transferRequest);
+        transferRepository.save(transferRequest);
         
         logger.info("Transfer request initiated: {} for book {} from branch {} to branch {}", 
                 transferRequest.getTransferId(), isbn, sourceBranchId, destinationBranchId);
@@ -95,12 +150,43 @@ public class BookTransferService {
      * @throws IllegalArgumentException if the transfer request is not found or already completed
      */
     public void completeTransfer(String transferId) {
+        Metrics metrics = this.metrics;
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            moveBook(transferId);
+        } catch (RuntimeException e) {
+            metrics.completesRejected.increment();
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            metrics.completeTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.step = "complete";
+                event.transferId = transferId;
+                if (transferId != null) {
+                    transferRepository.findById(transferId).ifPresent(request -> {
+                        event.isbn = request.getIsbn();
+                        event.sourceBranchId = request.getSourceBranchId();
+                        event.destinationBranchId = request.getDestinationBranchId();
+                    });
+                }
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
+    
+    private void moveBook(String transferId) {
         if (transferId == null || transferId.trim().isEmpty()) {
             throw new IllegalArgumentException("Transfer ID cannot be null or empty");
         }
         
         // Find the transfer request
-        BookTransferRequest transferRequest = transferRequests.get(transferId);
+        BookTransferRequest transferRequest = transferRepository.findById(transferId).orElse(null);
         if (transferRequest == null) {
             logger.error("Transfer request not found: {}", transferId);
             throw new IllegalArgumentException("Transfer request not found: " + transferId);
@@ -132,10 +218,15 @@ public class BookTransferService {
         String oldBranchId = book.getBranchId();
         book.setBranchId(transferRequest.getDestinationBranchId());
         bookRepository.modify(book);
+        BookService bookService = this.bookService;
+        if (bookService != null) {
+            bookService.notifyBookModified(book);
+        }
         
         // Update transfer request status
         transferRequest.setStatus(TransferStatus.COMPLETED);
         transferRequest.setRemarks("Transfer completed successfully");
+        transferRepository.update(transferRequest);
         
         logger.info("Transfer completed: {} - Book {} moved from branch {} to branch {}", 
                 transferId, isbn, oldBranchId, transferRequest.getDestinationBranchId());
@@ -152,7 +243,7 @@ public class BookTransferService {
             throw new IllegalArgumentException("Transfer ID cannot be null or empty");
         }
         
-        BookTransferRequest transferRequest = transferRequests.get(transferId);
+        BookTransferRequest transferRequest = transferRepository.findById(transferId).orElse(null);
         if (transferRequest == null) {
             logger.error("Transfer request not found: {}", transferId);
             throw new IllegalArgumentException("Transfer request not found: " + transferId);
@@ -165,7 +256,9 @@ public class BookTransferService {
         
         transferRequest.setStatus(TransferStatus.CANCELLED);
         transferRequest.setRemarks("Transfer cancelled by user");
+        transferRepository.update(transferRequest);
         
+        metrics.cancelled.increment();
         logger.info("Transfer cancelled: {}", transferId);
     }
     
@@ -176,6 +269,25 @@ public class BookTransferService {
      * @return Optional containing the transfer request if found
      */
     public Optional<BookTransferRequest> getTransferRequest(String transferId) {
-        return Optional.ofNullable(transferRequests.get(transferId));
+        return transferRepository.findById(transferId);
+    }
+    
+    /**
+     * Instruments of one registry, swapped as a whole by setMetricsRegistry
+     */
+    private static final class Metrics {
+        private final LatencyRecorder initiateTime;
+        private final LatencyRecorder completeTime;
+        private final Counter initiatesRejected;
+        private final Counter completesRejected;
+        private final Counter cancelled;
+        
+        Metrics(MetricsRegistry registry) {
+            this.initiateTime = registry.latency("transfer.initiate");
+            this.completeTime = registry.latency("transfer.complete");
+            this.initiatesRejected = registry.counter("transfer.initiate.rejected");
+            this.completesRejected = registry.counter("transfer.complete.rejected");
+            this.cancelled = registry.counter("transfer.cancelled");
+        }
     }
 }
@@ -1,39 +1,71 @@
 package org.librarymanagement.service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.librarymanagement.jfr.BorrowEvent;
+import org.librarymanagement.jfr.ObserverDispatchEvent;
+import org.librarymanagement.jfr.ReturnEvent;
 import org.librarymanagement.mainentities.Book;
 import org.librarymanagement.mainentities.BookStatus;
+import org.librarymanagement.mainentities.IdGenerators;
 import org.librarymanagement.mainentities.LendingRecord;
 import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.metrics.Counter;
+import org.librarymanagement.metrics.LatencyRecorder;
+import org.librarymanagement.metrics.MetricsRegistry;
 import org.librarymanagement.observer.LibraryEventObserver;
 import org.librarymanagement.repository.BookRepository;
 import org.librarymanagement.repository.LendingRepository;
 import org.librarymanagement.repository.PatronRepository;
-import org.librarymanagement.service.ReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class LendingService {
     private static final Logger logger = LoggerFactory.getLogger(LendingService.class);
     private static final int DEFAULT_LENDING_DAYS = 14;
+    private static final int DEFAULT_LOCK_STRIPES = 64;
 
     private final BookRepository bookRepository;
     private final PatronRepository patronRepository;
     private final LendingRepository lendingRepository;
     private final List<LibraryEventObserver> observers;
-    private ReservationService reservationService; // Optional - for reservation integration
+    private volatile ReservationService reservationService; // Optional - for reservation integration
+    private volatile BookService bookService; // Optional - publishes status changes to catalogue observers
+    private volatile Metrics metrics = new Metrics(MetricsRegistry.disabled());
+
+    // Borrow/return lock the book's stripe, then the patron's stripe (fixed order, so no deadlock)
+    private final LockStripes isbnLocks;
+    private final LockStripes patronLocks;
 
     public LendingService(BookRepository bookRepository,
                           PatronRepository patronRepository,
                           LendingRepository lendingRepository) {
+        this(bookRepository, patronRepository, lendingRepository, DEFAULT_LOCK_STRIPES);
+    }
+
+    /**
+     * Create a lending service that is safe to call from many threads.
+     * Operations on different books and patrons proceed in parallel; operations on the
+     * same book or patron are serialized, so a copy can never be lent twice.
+     *
+     * @param lockStripes Number of lock stripes per key space (rounded up to a power of two)
+     */
+    public LendingService(BookRepository bookRepository,
+                          PatronRepository patronRepository,
+                          LendingRepository lendingRepository,
+                          int lockStripes) {
         this.bookRepository = bookRepository;
         this.patronRepository = patronRepository;
         this.lendingRepository = lendingRepository;
-        this.observers = new ArrayList<>();
+        this.observers = new CopyOnWriteArrayList<>();
+        this.isbnLocks = new LockStripes(lockStripes);
+        this.patronLocks = new LockStripes(lockStripes);
+        // Older history is paged from the lending store instead of kept on the patron
+        patronRepository.setHistoryArchive(lendingRepository::findByPatronId);
     }
     
     /**
@@ -41,10 +73,27 @@ public class LendingService {
      * This allows the lending service to check for reservations when books are returned
      */
     public void setReservationService(ReservationService reservationService) {
+        // Hold transitions lock the same book stripes as borrow and return
+        reservationService.setIsbnLocks(isbnLocks);
         this.reservationService = reservationService;
         logger.info("ReservationService integrated with LendingService");
     }
 
+    /**
+     * Publish book status changes to the catalogue observers registered with the book service,
+     * so search indexes and recommendation rankings see books become borrowed and available
+     */
+    public void setBookService(BookService bookService) {
+        this.bookService = bookService;
+    }
+
+    /**
+     * Record borrow/return latencies and outcomes in the given registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metrics = new Metrics(registry);
+    }
+
   // Observer pattern methods
     public void addObserver(LibraryEventObserver observer) {
       observers.add(observer);
@@ -57,78 +106,199 @@ public class LendingService {
    }
 
     private void notifyBookBorrowed(LendingRecord record) {
-       for (LibraryEventObserver observer : observers) {
+        for (LibraryEventObserver observer : observers) {
+            ObserverDispatchEvent event = new ObserverDispatchEvent();
+            event.begin();
             observer.onBookBorrowed(record);
+            event.end(observer, "BORROWED");
         }
     }
 
     private void notifyBookReturned(LendingRecord record) {
         for (LibraryEventObserver observer : observers) {
+            ObserverDispatchEvent event = new ObserverDispatchEvent();
+            event.begin();
             observer.onBookReturned(record);
+            event.end(observer, "RETURNED");
         }
     }
 
-    public LendingRecord borrowBook(String isbn, String patronId) {
-        // Validate book exists and is available
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + isbn));
+    private void notifyBookOverdue(LendingRecord record) {
+        for (LibraryEventObserver observer : observers) {
+            ObserverDispatchEvent event = new ObserverDispatchEvent();
+            event.begin();
+            observer.onBookOverdue(record);
+            event.end(observer, "OVERDUE");
+        }
+    }
 
-        if (!book.isAvailable()) {
-            throw new IllegalStateException("Book is not available for borrowing: " + isbn);
+    public LendingRecord borrowBook(String isbn, String patronId) {
+        Metrics metrics = this.metrics;
+        BorrowEvent event = new BorrowEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            return checkout(isbn, patronId);
+        } catch (RuntimeException e) {
+            metrics.borrowsRejected.increment();
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            metrics.borrowTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.isbn = isbn;
+                event.patronId = patronId;
+                event.patronType = patronTypeOf(patronId);
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
         }
+    }
 
-        // Validate patron exists and can borrow
-        Patron patron = patronRepository.findById(patronId)
-                .orElseThrow(() -> new IllegalArgumentException("Patron not found: " + patronId));
+    public void returnBook(String isbn, String patronId) {
+        Metrics metrics = this.metrics;
+        ReturnEvent event = new ReturnEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            checkin(isbn, patronId);
+        } catch (RuntimeException e) {
+            metrics.returnsRejected.increment();
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            metrics.returnTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.isbn = isbn;
+                event.patronId = patronId;
+                event.patronType = patronTypeOf(patronId);
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
 
-        if (!patron.canBorrowMore()) {
-            throw new IllegalStateException("Patron has reached borrowing limit: " + patronId);
+    private void publishStatusChange(Book book) {
+        BookService bookService = this.bookService;
+        if (bookService != null) {
+            bookService.notifyBookModified(book);
         }
+    }
 
-        // Create lending record
-        String recordId = UUID.randomUUID().toString();
-        LocalDateTime borrowDate = LocalDateTime.now();
-        LocalDateTime dueDate = borrowDate.plusDays(DEFAULT_LENDING_DAYS);
+    private String patronTypeOf(String patronId) {
+        return patronRepository.findById(patronId).map(patron -> patron.getPatronType().name()).orElse(null);
+    }
+
+    private LendingRecord checkout(String isbn, String patronId) {
+        LendingRecord record;
+        ReentrantLock isbnLock = isbnLocks.lockFor(isbn);
+        ReentrantLock patronLock = patronLocks.lockFor(patronId);
+        isbnLock.lock();
+        patronLock.lock();
+        try {
+            // Validate book exists and is available
+            Book book = bookRepository.findByIsbn(isbn)
+                    .orElseThrow(() -> new IllegalArgumentException("Book not found: " + isbn));
 
-        LendingRecord record = new LendingRecord(recordId, patronId, isbn, borrowDate, dueDate);
+            if (!book.isAvailable()) {
+                throw new IllegalStateException("Book is not available for borrowing: " + isbn);
+            }
 
-        // Update book status
-        book.setStatus(BookStatus.BORROWED);
-        bookRepository.modify(book);
+            // Validate patron exists and can borrow
+            Patron patron = patronRepository.findById(patronId)
+                    .orElseThrow(() -> new IllegalArgumentException("Patron not found: " + patronId));
 
-        // Save lending record
-        lendingRepository.add(record);
+            // Create lending record
+            String recordId = IdGenerators.nextCompactId();
+            LocalDateTime borrowDate = LocalDateTime.now();
+            LocalDateTime dueDate = borrowDate.plusDays(DEFAULT_LENDING_DAYS);
 
-        // Update patron history
-        patron.addLendingRecord(record);
-        patronRepository.modify(patron);
+            record = new LendingRecord(recordId, patronId, isbn, borrowDate, dueDate);
+
+            // Claim a loan slot (constant-time counter check) and add to patron history
+            if (!patron.tryAddActiveLoan(record)) {
+                throw new IllegalStateException("Patron has reached borrowing limit: " + patronId);
+            }
+
+            boolean bookModified = false;
+            try {
+                // Update book status
+                book.setStatus(BookStatus.BORROWED);
+                bookRepository.modify(book);
+                bookModified = true;
+
+                // Save lending record (the patron's loans live on the record, so the patron is not rewritten)
+                lendingRepository.add(record);
+            } catch (RuntimeException e) {
+                // Undo the checkout so the copy does not stay BORROWED without an active loan
+                patron.abandonLoan(record);
+                book.setStatus(BookStatus.AVAILABLE);
+                if (bookModified) {
+                    try {
+                        bookRepository.modify(book);
+                    } catch (RuntimeException rollbackFailure) {
+                        e.addSuppressed(rollbackFailure);
+                    }
+                }
+                throw e;
+            }
+            // Still under the book's lock, so observers see its status changes in order
+            publishStatusChange(book);
+        } finally {
+            patronLock.unlock();
+            isbnLock.unlock();
+        }
 
         // Notify observers
         notifyBookBorrowed(record);
 
         logger.info("Book borrowed - ISBN: {}, Patron: {}", isbn, patronId);
+
+        // Close the patron's hold if this is a reserved book being picked up
+        ReservationService reservationService = this.reservationService;
+        if (reservationService != null) {
+            try {
+                reservationService.fulfillReservation(record);
+            } catch (Exception e) {
+                logger.error("Error fulfilling reservation for book: " + isbn, e);
+            }
+        }
         return record;
     }
 
-    public void returnBook(String isbn, String patronId) {
-        // Find active lending record
-        List<LendingRecord> records = lendingRepository.findByIsbn(isbn);
+    private void checkin(String isbn, String patronId) {
+        LendingRecord activeRecord;
+        ReentrantLock isbnLock = isbnLocks.lockFor(isbn);
+        ReentrantLock patronLock = patronLocks.lockFor(patronId);
+        isbnLock.lock();
+        patronLock.lock();
+        try {
+            // Find active lending record
+            activeRecord = lendingRepository.findActiveLending(isbn, patronId)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No active lending record found for book: " + isbn + " and patron: " + patronId));
 
-        LendingRecord activeRecord = records.stream()
-                .filter(r -> r.getPatronId().equals(patronId) && r.isActive())
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException(
-                        "No active lending record found for book: " + isbn + " and patron: " + patronId));
+            // Update return date
+            activeRecord.setReturnDate(LocalDateTime.now());
+            lendingRepository.modify(activeRecord);
 
-        // Update return date
-        activeRecord.setReturnDate(LocalDateTime.now());
-        lendingRepository.modify(activeRecord);
+            // Release the patron's loan slot
+            patronRepository.findById(patronId).ifPresent(patron -> patron.completeLoan(activeRecord));
 
-        // Update book status
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + isbn));
-        book.setStatus(BookStatus.AVAILABLE);
-        bookRepository.modify(book);
+            // Update book status
+            Book book = bookRepository.findByIsbn(isbn)
+                    .orElseThrow(() -> new IllegalArgumentException("Book not found: " + isbn));
+            book.setStatus(BookStatus.AVAILABLE);
+            bookRepository.modify(book);
+            publishStatusChange(book);
+        } finally {
+            patronLock.unlock();
+            isbnLock.unlock();
+        }
 
         // Notify observers
         notifyBookReturned(activeRecord);
@@ -136,6 +306,7 @@ public class LendingService {
         logger.info("Book returned - ISBN: {}, Patron: {}", isbn, patronId);
         
         // Check for reservations and notify next patron in queue
+        ReservationService reservationService = this.reservationService;
         if (reservationService != null) {
             try {
                 reservationService.processBookReturn(isbn);
@@ -146,9 +317,73 @@ public class LendingService {
         }
     }
 
+    /**
+     * Called when a loan passes its due date; notifies observers if the book is still out
+     *
+     * @return Whether the loan was still active
+     */
+    public boolean processOverdue(String recordId) {
+        Optional<LendingRecord> recordOpt = lendingRepository.findById(recordId);
+        if (recordOpt.isEmpty() || !recordOpt.get().isActive()) {
+            return false;
+        }
+        LendingRecord record = recordOpt.get();
+        metrics.overdue.increment();
+        logger.warn("Book overdue - ISBN: {}, Patron: {}, Due Date: {}",
+                record.getIsbn(), record.getPatronId(), record.getDueDate());
+        notifyBookOverdue(record);
+        return true;
+    }
+
     public List<LendingRecord> getPatronActiveBorrows(String patronId) {
         // find active borrows of patron
         return lendingRepository.findActiveLendings(patronId);
     }
 
+    /**
+     * Consistency check for the per-patron active-loan counters.
+     * Compares each patron's counter and active-loan set with the active records in the
+     * lending repository and rebuilds the ones that drifted.
+     *
+     * @return Number of patrons whose active loans were rebuilt
+     */
+    public int reconcileActiveLoans() {
+        int rebuilt = 0;
+        for (Patron patron : patronRepository.findAll()) {
+            ReentrantLock patronLock = patronLocks.lockFor(patron.getPatronId());
+            patronLock.lock();
+            try {
+                List<LendingRecord> active = lendingRepository.findActiveLendings(patron.getPatronId());
+                if (!patron.activeLoansMatch(active)) {
+                    logger.warn("Active loans of patron {} out of sync ({} counted, {} in lending records), rebuilding",
+                            patron.getPatronId(), patron.getCurrentBorrowedCount(), active.size());
+                    patron.resetActiveLoans(active);
+                    rebuilt++;
+                }
+            } finally {
+                patronLock.unlock();
+            }
+        }
+        logger.info("Active-loan consistency check finished, {} patrons rebuilt", rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Instruments of one registry, swapped as a whole by setMetricsRegistry
+     */
+    private static final class Metrics {
+        private final LatencyRecorder borrowTime;
+        private final LatencyRecorder returnTime;
+        private final Counter borrowsRejected;
+        private final Counter returnsRejected;
+        private final Counter overdue;
+
+        Metrics(MetricsRegistry registry) {
+            this.borrowTime = registry.latency("lending.borrow");
+            this.returnTime = registry.latency("lending.return");
+            this.borrowsRejected = registry.counter("lending.borrow.rejected");
+            this.returnsRejected = registry.counter("lending.return.rejected");
+            this.overdue = registry.counter("lending.overdue");
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package org.librarymanagement.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks selected by key hash.
+ * Lets unrelated keys (ISBNs, patron IDs) proceed in parallel without a global lock
+ * while operations on the same key are serialized.
+ */
+final class LockStripes {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    LockStripes(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & mask];
+    }
+}
@@ -1,9 +1,15 @@
 package org.librarymanagement.service;
 
+import org.librarymanagement.jfr.RecommendEvent;
+import org.librarymanagement.jfr.RepositoryScanEvent;
 import org.librarymanagement.mainentities.Book;
 import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.metrics.Counter;
+import org.librarymanagement.metrics.LatencyRecorder;
+import org.librarymanagement.metrics.MetricsRegistry;
 import org.librarymanagement.repository.BookRepository;
 import org.librarymanagement.repository.PatronRepository;
+import org.librarymanagement.strategy.IndexedRecommendationStrategy;
 import org.librarymanagement.strategy.RecommendationStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +30,9 @@ public class RecommendationService {
     private final BookRepository bookRepository;
     private final PatronRepository patronRepository;
     private RecommendationStrategy strategy;
+    private volatile LatencyRecorder recommendTime = MetricsRegistry.disabled().latency("recommendation.recommend");
+    private volatile Counter emptyResults = MetricsRegistry.disabled().counter("recommendation.empty");
+    private volatile Counter catalogueScans = MetricsRegistry.disabled().counter("recommendation.scans");
     
     public RecommendationService(BookRepository bookRepository, 
                                 PatronRepository patronRepository,
@@ -33,6 +42,15 @@ public class RecommendationService {
         this.strategy = defaultStrategy;
     }
     
+    /**
+     * Record recommendation latencies in the given registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.recommendTime = registry.latency("recommendation.recommend");
+        this.emptyResults = registry.counter("recommendation.empty");
+        this.catalogueScans = registry.counter("recommendation.scans");
+    }
+    
     /**
      * Set the recommendation strategy
      */
@@ -76,10 +94,9 @@ public class RecommendationService {
         }
         
         Patron patron = patronOpt.get();
-        List<Book> allBooks = bookRepository.findAll();
         
         // Generate recommendations using current strategy
-        List<Book> recommendations = strategy.recommend(patron, allBooks, limit);
+        List<Book> recommendations = recommend(patron, strategy, limit);
         
         logger.info("Generated {} recommendations for patron {}", recommendations.size(), patronId);
         return recommendations;
@@ -101,8 +118,42 @@ public class RecommendationService {
         }
         
         Patron patron = patronOpt.get();
-        List<Book> allBooks = bookRepository.findAll();
         
-        return customStrategy.recommend(patron, allBooks, limit);
+        return recommend(patron, customStrategy, limit);
+    }
+    
+    /**
+     * Run a strategy, recording its latency and a Recommend event.
+     * Indexed strategies answer from their own index; the others get a copy of the catalogue.
+     */
+    private List<Book> recommend(Patron patron, RecommendationStrategy recommendationStrategy, int limit) {
+        RecommendEvent event = new RecommendEvent();
+        event.begin();
+        long start = System.nanoTime();
+        
+        List<Book> recommendations;
+        if (recommendationStrategy instanceof IndexedRecommendationStrategy) {
+            recommendations = ((IndexedRecommendationStrategy) recommendationStrategy).recommend(patron, limit);
+        } else {
+            catalogueScans.increment();
+            RepositoryScanEvent scan = new RepositoryScanEvent();
+            scan.begin();
+            List<Book> allBooks = bookRepository.findAll();
+            scan.end(bookRepository, "findAll", allBooks.size());
+            recommendations = recommendationStrategy.recommend(patron, allBooks, limit);
+        }
+        recommendTime.recordSince(start);
+        if (recommendations.isEmpty()) {
+            emptyResults.increment();
+        }
+        if (event.shouldCommit()) {
+            event.patronId = patron.getPatronId();
+            event.patronType = patron.getPatronType().name();
+            event.strategy = recommendationStrategy.getClass().getSimpleName();
+            event.limit = limit;
+            event.resultCount = recommendations.size();
+            event.commit();
+        }
+        return recommendations;
     }
 }
@@ -1,9 +1,18 @@
 package org.librarymanagement.service;
 
+import org.librarymanagement.jfr.HoldHandOffEvent;
+import org.librarymanagement.jfr.ObserverDispatchEvent;
+import org.librarymanagement.jfr.ReserveEvent;
 import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
 import org.librarymanagement.mainentities.Patron;
 import org.librarymanagement.mainentities.Reservation;
 import org.librarymanagement.mainentities.ReservationStatus;
+import org.librarymanagement.metrics.Counter;
+import org.librarymanagement.metrics.LatencyRecorder;
+import org.librarymanagement.metrics.MetricsRegistry;
+import org.librarymanagement.observer.ReservationEvent;
+import org.librarymanagement.observer.ReservationEventType;
 import org.librarymanagement.observer.ReservationObserver;
 import org.librarymanagement.repository.BookRepository;
 import org.librarymanagement.repository.PatronRepository;
@@ -12,23 +21,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service class for managing book reservations.
  * Implements Observer pattern to notify patrons when reserved books become available.
+ * Observers are kept per event type, so each event only reaches the observers subscribed to it.
+ * Hold transitions (offer, expire, fulfil, cancel) lock the book's stripe and re-check the status
+ * under it, so a hold cannot be both expired and fulfilled, nor a copy offered to a second patron
+ * meanwhile. Once integrated with a LendingService the stripes are the ones it locks on borrow and
+ * return, so hold transitions are also serialized with the book's loans.
  */
 public class ReservationService {
     
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
     private static final int RESERVATION_HOLD_DAYS = 3; // Days to hold a book for pickup
+    private static final int LOCK_STRIPES = 64;
     
     private final ReservationRepository reservationRepository;
     private final BookRepository bookRepository;
     private final PatronRepository patronRepository;
-    private final List<ReservationObserver> observers;
+    private final Map<ReservationEventType, List<ReservationObserver>> observers;
+    private volatile LockStripes isbnLocks = new LockStripes(LOCK_STRIPES);
+    private volatile Metrics metrics = new Metrics(MetricsRegistry.disabled());
     
     public ReservationService(ReservationRepository reservationRepository, 
                             BookRepository bookRepository,
@@ -36,31 +56,63 @@ public class ReservationService {
         this.reservationRepository = reservationRepository;
         this.bookRepository = bookRepository;
         this.patronRepository = patronRepository;
-        this.observers = new ArrayList<>();
+        this.observers = new EnumMap<>(ReservationEventType.class);
+        for (ReservationEventType type : ReservationEventType.values()) {
+            observers.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+    
+    /**
+     * Lock books on the given stripes (LendingService shares its own when integrated).
+     * Call before the service is in use.
+     */
+    void setIsbnLocks(LockStripes isbnLocks) {
+        this.isbnLocks = isbnLocks;
+    }
+    
+    /**
+     * Record reservation latencies and hold outcomes in the given registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metrics = new Metrics(registry);
     }
     
     /**
-     * Add an observer for reservation events
+     * Add an observer for the reservation events it subscribes to
      */
     public void addObserver(ReservationObserver observer) {
-        observers.add(observer);
-        logger.info("Observer added: {}", observer.getClass().getSimpleName());
+        for (ReservationEventType type : observer.subscribedEvents()) {
+            observers.get(type).add(observer);
+        }
+        logger.info("Observer added: {} for {}", observer.getClass().getSimpleName(), observer.subscribedEvents());
     }
     
     /**
      * Remove an observer
      */
     public void removeObserver(ReservationObserver observer) {
-        observers.remove(observer);
+        for (List<ReservationObserver> subscribers : observers.values()) {
+            subscribers.remove(observer);
+        }
         logger.info("Observer removed: {}", observer.getClass().getSimpleName());
     }
     
     /**
-     * Notify all observers
+     * Whether anyone listens to this event type (events are only built if so)
+     */
+    private boolean hasObservers(ReservationEventType type) {
+        return !observers.get(type).isEmpty();
+    }
+    
+    /**
+     * Notify the observers subscribed to the event's type
      */
-    private void notifyObservers(String event, Object data) {
-        for (ReservationObserver observer : observers) {
-            observer.update(event, data);
+    private void notifyObservers(ReservationEvent event) {
+        for (ReservationObserver observer : observers.get(event.type())) {
+            ObserverDispatchEvent dispatch = new ObserverDispatchEvent();
+            dispatch.begin();
+            observer.onReservationEvent(event);
+            dispatch.end(observer, event.type().name());
         }
     }
     
@@ -68,6 +120,33 @@ public class ReservationService {
      * Create a reservation for a book
      */
     public Reservation createReservation(String isbn, String patronId) {
+        Metrics metrics = this.metrics;
+        ReserveEvent event = new ReserveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Reservation reservation = null;
+        String failure = null;
+        try {
+            reservation = reserve(isbn, patronId);
+            return reservation;
+        } catch (RuntimeException e) {
+            metrics.createsRejected.increment();
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            metrics.createTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.isbn = isbn;
+                event.patronId = patronId;
+                event.queuePosition = reservation == null ? 0 : reservation.getQueuePosition();
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
+    
+    private Reservation reserve(String isbn, String patronId) {
         logger.info("Creating reservation for book {} by patron {}", isbn, patronId);
         
         // Validate book exists
@@ -106,18 +185,17 @@ public class ReservationService {
         // Create reservation
         Reservation reservation = new Reservation(isbn, patronId);
         
-        // Set queue position
-        List<Reservation> existingReservations = reservationRepository.findActiveReservationsByIsbn(isbn);
-        reservation.setQueuePosition(existingReservations.size() + 1);
-        
-        // Save reservation
+        // Save reservation (enqueues it at the tail of the book's queue)
         reservationRepository.save(reservation);
+        reservation.setQueuePosition(reservationRepository.getQueuePosition(reservation.getReservationId()));
         
         logger.info("Reservation created: {} for book {} at position {}", 
                 reservation.getReservationId(), isbn, reservation.getQueuePosition());
         
         // Notify observers
-        notifyObservers("RESERVATION_CREATED", reservation);
+        if (hasObservers(ReservationEventType.CREATED)) {
+            notifyObservers(new ReservationEvent.Created(reservation));
+        }
         
         return reservation;
     }
@@ -126,38 +204,68 @@ public class ReservationService {
      * Process book return - check if there are any reservations and notify next patron in queue
      */
     public void processBookReturn(String isbn) {
+        HoldHandOffEvent event = new HoldHandOffEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Reservation ready = null;
+        try {
+            ready = offerToNextInQueue(isbn);
+        } finally {
+            metrics.processReturnTime.recordSince(start);
+            if (event.shouldCommit()) {
+                event.isbn = isbn;
+                event.reservationId = ready == null ? null : ready.getReservationId();
+                event.patronId = ready == null ? null : ready.getPatronId();
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * @return The hold that became ready for pickup, or null if nobody was waiting
+     */
+    private Reservation offerToNextInQueue(String isbn) {
         logger.info("Processing book return for reservations: {}", isbn);
         
-        List<Reservation> activeReservations = reservationRepository.findActiveReservationsByIsbn(isbn);
-        
-        if (!activeReservations.isEmpty()) {
+        Reservation nextReservation;
+        ReentrantLock isbnLock = isbnLocks.lockFor(isbn);
+        isbnLock.lock();
+        try {
+            // The copy may have been borrowed since it came back
+            Optional<Book> bookOpt = bookRepository.findByIsbn(isbn);
+            if (bookOpt.isPresent() && !bookOpt.get().isAvailable()) {
+                return null;
+            }
+            
+            Optional<Reservation> nextOpt = reservationRepository.findNextActiveReservation(isbn);
+            if (nextOpt.isEmpty()) {
+                return null;
+            }
+            
             // Get the first reservation in queue
-            Reservation nextReservation = activeReservations.get(0);
+            nextReservation = nextOpt.get();
             
-            // Mark as available and set expiry date
-            nextReservation.setStatus(getReservationStatusEnum("AVAILABLE"));
+            // Mark as available and set expiry date (removes it from the queue)
+            nextReservation.setStatus(ReservationStatus.AVAILABLE);
             nextReservation.setExpiryDate(LocalDateTime.now().plusDays(RESERVATION_HOLD_DAYS));
             nextReservation.setNotificationSentDate(LocalDateTime.now());
             reservationRepository.update(nextReservation);
+        } finally {
+            isbnLock.unlock();
+        }
+        metrics.ready.increment();
+        
+        // Get patron details
+        Optional<Patron> patronOpt = patronRepository.findById(nextReservation.getPatronId());
+        if (patronOpt.isPresent() && hasObservers(ReservationEventType.READY)) {
+            Patron patron = patronOpt.get();
+            logger.info("Notifying patron {} that book {} is ready for pickup", 
+                    patron.getName(), isbn);
             
-            // Get patron details
-            Optional<Patron> patronOpt = patronRepository.findById(nextReservation.getPatronId());
-            if (patronOpt.isPresent()) {
-                Patron patron = patronOpt.get();
-                logger.info("Notifying patron {} that book {} is ready for pickup", 
-                        patron.getName(), isbn);
-                
-                // Notify observers (email, SMS, etc.)
-                notifyObservers("RESERVATION_READY", new Object[]{nextReservation, patron});
-            }
-            
-            // Update queue positions for remaining reservations
-            for (int i = 1; i < activeReservations.size(); i++) {
-                Reservation res = activeReservations.get(i);
-                res.setQueuePosition(i);
-                reservationRepository.update(res);
-            }
+            // Notify observers (email, SMS, etc.)
+            notifyObservers(new ReservationEvent.Ready(nextReservation, patron));
         }
+        return nextReservation;
     }
     
     /**
@@ -173,19 +281,95 @@ public class ReservationService {
         }
         
         Reservation reservation = resOpt.get();
-        reservation.setStatus(getReservationStatusEnum("CANCELLED"));
-        reservationRepository.update(reservation);
+        ReentrantLock isbnLock = isbnLocks.lockFor(reservation.getIsbn());
+        isbnLock.lock();
+        try {
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            reservation.setQueuePosition(0);
+            // Removing it from the book's queue implicitly moves everyone behind it up
+            reservationRepository.update(reservation);
+        } finally {
+            isbnLock.unlock();
+        }
         
+        metrics.cancelled.increment();
         logger.info("Reservation cancelled: {}", reservationId);
+        if (hasObservers(ReservationEventType.CANCELLED)) {
+            notifyObservers(new ReservationEvent.Cancelled(reservation));
+        }
+    }
+    
+    /**
+     * Expire a hold that was not picked up in time and offer the book to the next patron in the queue
+     *
+     * @return Whether the reservation was still waiting for pickup
+     */
+    public boolean expireReservation(String reservationId) {
+        Optional<Reservation> resOpt = reservationRepository.findById(reservationId);
+        if (resOpt.isEmpty()) {
+            return false;
+        }
+        
+        Reservation reservation = resOpt.get();
+        ReentrantLock isbnLock = isbnLocks.lockFor(reservation.getIsbn());
+        isbnLock.lock();
+        try {
+            // Checked under the lock: the patron may be picking the book up right now
+            if (reservation.getStatus() != ReservationStatus.AVAILABLE) {
+                return false;
+            }
+            reservation.setStatus(ReservationStatus.EXPIRED);
+            reservation.setQueuePosition(0);
+            reservationRepository.update(reservation);
+        } finally {
+            isbnLock.unlock();
+        }
         
-        // Update queue positions for remaining reservations
-        List<Reservation> remainingReservations = 
-                reservationRepository.findActiveReservationsByIsbn(reservation.getIsbn());
-        for (int i = 0; i < remainingReservations.size(); i++) {
-            Reservation res = remainingReservations.get(i);
-            res.setQueuePosition(i + 1);
-            reservationRepository.update(res);
+        metrics.expired.increment();
+        logger.info("Reservation expired: {} for book {}", reservationId, reservation.getIsbn());
+        if (hasObservers(ReservationEventType.EXPIRED)) {
+            notifyObservers(new ReservationEvent.Expired(reservation));
         }
+        
+        // Only advance the queue if the book is still on the hold shelf
+        Optional<Book> bookOpt = bookRepository.findByIsbn(reservation.getIsbn());
+        if (bookOpt.isPresent() && bookOpt.get().isAvailable()) {
+            processBookReturn(reservation.getIsbn());
+        }
+        return true;
+    }
+    
+    /**
+     * Close the patron's hold on a book once they borrow it (called by LendingService)
+     *
+     * @return Whether the patron had a hold waiting for pickup
+     */
+    public boolean fulfillReservation(LendingRecord record) {
+        Reservation reservation;
+        ReentrantLock isbnLock = isbnLocks.lockFor(record.getIsbn());
+        isbnLock.lock();
+        try {
+            // Looked up under the lock so a hold expiring meanwhile is not fulfilled as well
+            Optional<Reservation> holdOpt = reservationRepository.findByPatronId(record.getPatronId()).stream()
+                    .filter(r -> r.getIsbn().equals(record.getIsbn()) && r.getStatus() == ReservationStatus.AVAILABLE)
+                    .findFirst();
+            if (holdOpt.isEmpty()) {
+                return false;
+            }
+            
+            reservation = holdOpt.get();
+            reservation.setStatus(ReservationStatus.FULFILLED);
+            reservationRepository.update(reservation);
+        } finally {
+            isbnLock.unlock();
+        }
+        
+        metrics.fulfilled.increment();
+        logger.info("Reservation fulfilled: {} for book {}", reservation.getReservationId(), record.getIsbn());
+        if (hasObservers(ReservationEventType.FULFILLED)) {
+            notifyObservers(new ReservationEvent.Fulfilled(reservation, record));
+        }
+        return true;
     }
     
     /**
@@ -202,18 +386,41 @@ public class ReservationService {
         return reservationRepository.findActiveReservationsByIsbn(isbn);
     }
     
+    /**
+     * Get the current queue position of a reservation (0 if it is no longer waiting)
+     */
+    public int getQueuePosition(String reservationId) {
+        return reservationRepository.getQueuePosition(reservationId);
+    }
+    
     /**
      * Helper method to check if reservation status is active
      */
     private boolean isActiveStatus(Reservation reservation) {
-        String status = reservation.getStatus().name();
-        return "ACTIVE".equals(status) || "AVAILABLE".equals(status);
+        ReservationStatus status = reservation.getStatus();
+        return status == ReservationStatus.ACTIVE || status == ReservationStatus.AVAILABLE;
     }
     
     /**
-     * Helper method to get ReservationStatus enum
+     * Instruments of one registry, swapped as a whole by setMetricsRegistry
      */
-    private ReservationStatus getReservationStatusEnum(String status) {
-        return ReservationStatus.valueOf(status);
+    private static final class Metrics {
+        private final LatencyRecorder createTime;
+        private final LatencyRecorder processReturnTime;
+        private final Counter createsRejected;
+        private final Counter ready;
+        private final Counter cancelled;
+        private final Counter expired;
+        private final Counter fulfilled;
+        
+        Metrics(MetricsRegistry registry) {
+            this.createTime = registry.latency("reservation.create");
+            this.processReturnTime = registry.latency("reservation.process_return");
+            this.createsRejected = registry.counter("reservation.create.rejected");
+            this.ready = registry.counter("reservation.ready");
+            this.cancelled = registry.counter("reservation.cancelled");
+            this.expired = registry.counter("reservation.expired");
+            this.fulfilled = registry.counter("reservation.fulfilled");
+        }
     }
 }
@@ -0,0 +1,280 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant search over titles and authors.
+ * Uses a symmetric-delete index: every dictionary term is stored under all strings obtained by
+ * deleting up to maxDistance characters, and a query term looks up its own deletes. Only the
+ * few terms sharing a delete are checked with a bounded Levenshtein distance, instead of
+ * comparing against every book.
+ * Every query term must match (AND). Results are ranked by total edit distance, then by borrow count.
+ * Short query terms get a smaller budget (0 edits up to 2 chars, 1 edit up to 5 chars) to avoid noise.
+ * Register it with BookService.addCatalogObserver so the index follows catalogue changes.
+ */
+public class FuzzySearchStrategy implements IndexedSearchStrategy {
+
+    private static final int DEFAULT_MAX_DISTANCE = 2;
+
+    private final int maxDistance;
+    private final BorrowPopularityTracker popularityTracker;
+    private final EnumSet<SearchField> fields;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Book> booksByIsbn = new HashMap<>();
+    private final Map<String, String[]> termsByIsbn = new HashMap<>();
+    private final Map<String, Set<String>> isbnsByTerm = new HashMap<>();
+    private final Map<String, Set<String>> termsByDelete = new HashMap<>();
+
+    public FuzzySearchStrategy() {
+        this(DEFAULT_MAX_DISTANCE, null);
+    }
+
+    /**
+     * @param maxDistance Maximum edit distance per query term (1 or 2)
+     * @param popularityTracker Optional borrow counts used to break distance ties (may be null)
+     */
+    public FuzzySearchStrategy(int maxDistance, BorrowPopularityTracker popularityTracker) {
+        this(maxDistance, popularityTracker, SearchField.TITLE, SearchField.AUTHOR);
+    }
+
+    public FuzzySearchStrategy(int maxDistance, BorrowPopularityTracker popularityTracker,
+                               SearchField first, SearchField... rest) {
+        if (maxDistance < 1 || maxDistance > 2) {
+            throw new IllegalArgumentException("Max distance must be 1 or 2");
+        }
+        this.maxDistance = maxDistance;
+        this.popularityTracker = popularityTracker;
+        this.fields = EnumSet.of(first, rest);
+    }
+
+    @Override
+    public List<Book> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        Set<String> queryTerms = new LinkedHashSet<>(InvertedIndexSearchStrategy.tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> distanceByIsbn = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Map<String, Integer> matches = matchTerm(queryTerm);
+                if (distanceByIsbn == null) {
+                    distanceByIsbn = matches;
+                } else {
+                    // AND: keep books matched by every term, summing their distances
+                    Map<String, Integer> combined = new HashMap<>();
+                    for (Map.Entry<String, Integer> entry : distanceByIsbn.entrySet()) {
+                        Integer distance = matches.get(entry.getKey());
+                        if (distance != null) {
+                            combined.put(entry.getKey(), entry.getValue() + distance);
+                        }
+                    }
+                    distanceByIsbn = combined;
+                }
+                if (distanceByIsbn.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<String, Integer>> ranked = new ArrayList<>(distanceByIsbn.entrySet());
+            ranked.sort(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue)
+                    .thenComparing(Comparator.comparingLong((Map.Entry<String, Integer> e) -> popularity(e.getKey()))
+                            .reversed()));
+            List<Book> results = new ArrayList<>(ranked.size());
+            for (Map.Entry<String, Integer> entry : ranked) {
+                results.add(booksByIsbn.get(entry.getKey()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        lock.writeLock().lock();
+        try {
+            booksByIsbn.remove(book.getIsbn());
+            String[] terms = termsByIsbn.remove(book.getIsbn());
+            if (terms != null) {
+                for (String term : terms) {
+                    removeTerm(term, book.getIsbn());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Books containing a dictionary term within the allowed distance of queryTerm, with the best distance
+     */
+    private Map<String, Integer> matchTerm(String queryTerm) {
+        int budget = budgetFor(queryTerm);
+        Map<String, Integer> bestTermDistance = new HashMap<>();
+        for (String delete : deletesOf(queryTerm, budget)) {
+            Set<String> terms = termsByDelete.get(delete);
+            if (terms == null) {
+                continue;
+            }
+            for (String term : terms) {
+                if (bestTermDistance.containsKey(term)) {
+                    continue;
+                }
+                int distance = boundedLevenshtein(queryTerm, term, budget);
+                if (distance <= budget) {
+                    bestTermDistance.put(term, distance);
+                }
+            }
+        }
+
+        Map<String, Integer> distanceByIsbn = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : bestTermDistance.entrySet()) {
+            for (String isbn : isbnsByTerm.get(entry.getKey())) {
+                distanceByIsbn.merge(isbn, entry.getValue(), Math::min);
+            }
+        }
+        return distanceByIsbn;
+    }
+
+    private void index(Book book) {
+        TreeSet<String> termSet = new TreeSet<>();
+        for (SearchField field : fields) {
+            termSet.addAll(InvertedIndexSearchStrategy.tokenize(field.valueOf(book)));
+        }
+        String[] terms = termSet.toArray(new String[0]);
+
+        lock.writeLock().lock();
+        try {
+            String[] previous = termsByIsbn.put(book.getIsbn(), terms);
+            booksByIsbn.put(book.getIsbn(), book);
+            if (previous != null) {
+                for (String term : previous) {
+                    if (Arrays.binarySearch(terms, term) < 0) {
+                        removeTerm(term, book.getIsbn());
+                    }
+                }
+            }
+            for (String term : terms) {
+                Set<String> isbns = isbnsByTerm.get(term);
+                if (isbns == null) {
+                    isbns = new HashSet<>();
+                    isbnsByTerm.put(term, isbns);
+                    for (String delete : deletesOf(term, maxDistance)) {
+                        termsByDelete.computeIfAbsent(delete, d -> new HashSet<>()).add(term);
+                    }
+                }
+                isbns.add(book.getIsbn());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeTerm(String term, String isbn) {
+        Set<String> isbns = isbnsByTerm.get(term);
+        if (isbns == null) {
+            return;
+        }
+        isbns.remove(isbn);
+        if (isbns.isEmpty()) {
+            // Last book using this term - drop it from the delete index too
+            isbnsByTerm.remove(term);
+            for (String delete : deletesOf(term, maxDistance)) {
+                Set<String> terms = termsByDelete.get(delete);
+                if (terms != null) {
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByDelete.remove(delete);
+                    }
+                }
+            }
+        }
+    }
+
+    private int budgetFor(String queryTerm) {
+        if (queryTerm.length() <= 2) {
+            return 0;
+        }
+        if (queryTerm.length() <= 5) {
+            return Math.min(1, maxDistance);
+        }
+        return maxDistance;
+    }
+
+    private long popularity(String isbn) {
+        return popularityTracker == null ? 0 : popularityTracker.getBorrowCount(isbn);
+    }
+
+    /**
+     * The term itself plus every string reachable by deleting up to maxDeletes characters
+     */
+    private static Set<String> deletesOf(String term, int maxDeletes) {
+        Set<String> deletes = new HashSet<>();
+        deletes.add(term);
+        Set<String> frontier = Set.of(term);
+        for (int d = 0; d < maxDeletes; d++) {
+            Set<String> next = new HashSet<>();
+            for (String s : frontier) {
+                for (int i = 0; i < s.length(); i++) {
+                    String deleted = s.substring(0, i) + s.substring(i + 1);
+                    if (deletes.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return deletes;
+    }
+
+    /**
+     * Levenshtein distance, giving up (returning bound + 1) once it must exceed bound
+     */
+    static int boundedLevenshtein(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,107 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.metrics.SpaceSavingTopK;
+import org.librarymanagement.observer.HeavyHitterPopularityTracker;
+import org.librarymanagement.observer.HeavyHitterPopularityTracker.Segment;
+import org.librarymanagement.repository.BookRepository;
+
+import java.util.*;
+
+/**
+ * Recommendation strategy based on what patrons like this one borrow.
+ * Recommends the most borrowed books among patrons of the same type at the patron's branch
+ * (the branch of their latest loan), then among that patron type anywhere, then among everyone,
+ * using the approximate counts of a HeavyHitterPopularityTracker.
+ *
+ * Candidates come from the tracker and are looked up in the BookRepository, so nothing is
+ * indexed: the catalogue callbacks do nothing and registering with BookService is optional.
+ */
+public class HeavyHitterRecommendationStrategy implements IndexedRecommendationStrategy {
+
+    private final HeavyHitterPopularityTracker popularityTracker;
+    private final BookRepository bookRepository;
+
+    public HeavyHitterRecommendationStrategy(HeavyHitterPopularityTracker popularityTracker,
+                                             BookRepository bookRepository) {
+        this.popularityTracker = popularityTracker;
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public List<Book> recommend(Patron patron, int limit) {
+        Set<String> borrowedIsbns = new HashSet<>();
+        for (LendingRecord record : patron.getBorrowingHistory()) {
+            borrowedIsbns.add(record.getIsbn());
+        }
+
+        List<Segment> segments = new ArrayList<>(3);
+        String branchId = branchOfLatestLoan(patron);
+        if (branchId != null) {
+            segments.add(new Segment(branchId, patron.getPatronType()));
+        }
+        segments.add(new Segment(null, patron.getPatronType()));
+        segments.add(Segment.ALL);
+
+        Set<String> seen = new HashSet<>(borrowedIsbns);
+        List<Book> recommendations = new ArrayList<>(Math.min(limit, 64));
+        for (Segment segment : segments) {
+            addTopBorrowed(segment, limit, seen, recommendations);
+            if (recommendations.size() >= limit) {
+                break;
+            }
+        }
+        return recommendations;
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        // Books are looked up by ISBN when recommended
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        // Books are looked up by ISBN when recommended
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        // Books are looked up by ISBN when recommended
+    }
+
+    /**
+     * Add available, unseen books from a segment's top list until the limit is reached.
+     * The top list is fetched again twice as long while too many of its books are skipped;
+     * each fetch is walked from the start because the longer list may be ordered differently.
+     */
+    private void addTopBorrowed(Segment segment, int limit, Set<String> seen, List<Book> recommendations) {
+        int capacity = popularityTracker.getCapacity();
+        int k = Math.min(capacity, limit + seen.size());
+        while (recommendations.size() < limit) {
+            List<SpaceSavingTopK.HeavyHitter> top = popularityTracker.topBorrowed(segment, k);
+            for (int i = 0; i < top.size() && recommendations.size() < limit; i++) {
+                String isbn = top.get(i).item();
+                if (seen.add(isbn)) {
+                    bookRepository.findByIsbn(isbn).filter(Book::isAvailable).ifPresent(recommendations::add);
+                }
+            }
+            if (top.size() < k || k == capacity) {
+                return;
+            }
+            k = Math.min(capacity, k * 2);
+        }
+    }
+
+    private String branchOfLatestLoan(Patron patron) {
+        List<LendingRecord> recent = patron.getRecentHistory();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            Optional<Book> book = bookRepository.findByIsbn(recent.get(i).getIsbn());
+            if (book.isPresent() && book.get().getBranchId() != null) {
+                return book.get().getBranchId();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.observer.CatalogObserver;
+
+import java.util.List;
+
+/**
+ * Recommendation strategy backed by its own index of the catalogue.
+ * The index is kept up to date through CatalogObserver callbacks once it is
+ * registered with BookService, so recommendations never need a copy of the whole catalogue.
+ */
+public interface IndexedRecommendationStrategy extends RecommendationStrategy, CatalogObserver {
+
+    /**
+     * Generate book recommendations for a patron from the indexed catalogue
+     *
+     * @param patron The patron to generate recommendations for
+     * @param limit Maximum number of recommendations to return
+     * @return List of recommended books
+     */
+    List<Book> recommend(Patron patron, int limit);
+
+    /**
+     * Indexed strategies answer from their index; the supplied list is ignored.
+     */
+    @Override
+    default List<Book> recommend(Patron patron, List<Book> allBooks, int limit) {
+        return recommend(patron, limit);
+    }
+}
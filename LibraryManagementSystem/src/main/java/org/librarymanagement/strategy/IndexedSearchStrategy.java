@@ -0,0 +1,46 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.observer.CatalogObserver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search strategy backed by its own index of the catalogue.
+ * The index is kept up to date through CatalogObserver callbacks once it is
+ * registered with BookService, so queries never need a copy of the whole catalogue.
+ */
+public interface IndexedSearchStrategy extends SearchStrategy, CatalogObserver {
+
+    /**
+     * Search the indexed catalogue
+     *
+     * @param query The search query
+     * @return Matching books
+     */
+    List<Book> search(String query);
+
+    /**
+     * Answers from the index, restricted to the supplied books (the index must be registered
+     * with BookService or fed the books through onBookAdded).
+     * Matches are returned as the supplied instances, in index order.
+     */
+    @Override
+    default List<Book> search(List<Book> books, String query) {
+        Map<String, Book> supplied = new HashMap<>(books.size() * 2);
+        for (Book book : books) {
+            supplied.put(book.getIsbn(), book);
+        }
+        List<Book> results = new ArrayList<>();
+        for (Book match : search(query)) {
+            Book book = supplied.get(match.getIsbn());
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+}
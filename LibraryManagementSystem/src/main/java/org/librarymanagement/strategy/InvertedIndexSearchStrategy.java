@@ -0,0 +1,188 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text search over titles and authors backed by a tokenized inverted index.
+ * Each book gets a compact int doc id; every term maps to a sorted posting list of doc ids.
+ * A query matches books containing ALL of its terms (in any of the indexed fields).
+ * Register it with BookService.addCatalogObserver so the index follows catalogue changes.
+ */
+public class InvertedIndexSearchStrategy implements IndexedSearchStrategy {
+
+    private final EnumSet<SearchField> fields;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docIdByIsbn = new HashMap<>();
+    private final List<Book> docs = new ArrayList<>();
+    private final List<String[]> docTerms = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+
+    public InvertedIndexSearchStrategy() {
+        this(SearchField.TITLE, SearchField.AUTHOR);
+    }
+
+    public InvertedIndexSearchStrategy(SearchField first, SearchField... rest) {
+        this.fields = EnumSet.of(first, rest);
+    }
+
+    @Override
+    public List<Book> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            int[] matches = PostingList.intersect(lists);
+            List<Book> results = new ArrayList<>(matches.length);
+            for (int docId : matches) {
+                results.add(docs.get(docId));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdByIsbn.remove(book.getIsbn());
+            if (docId == null) {
+                return;
+            }
+            for (String term : docTerms.get(docId)) {
+                removePosting(term, docId);
+            }
+            docs.set(docId, null);
+            docTerms.set(docId, null);
+            freeDocIds.push(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of books currently indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdByIsbn.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Book book) {
+        String[] terms = termsOf(book);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdByIsbn.get(book.getIsbn());
+            int docId = existing != null ? existing : allocateDocId();
+            if (existing == null) {
+                docIdByIsbn.put(book.getIsbn(), docId);
+                for (String term : terms) {
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(docId);
+                }
+            } else {
+                // Books are edited in place, so diff against the terms we indexed last time
+                String[] previous = docTerms.get(docId);
+                for (String term : previous) {
+                    if (Arrays.binarySearch(terms, term) < 0) {
+                        removePosting(term, docId);
+                    }
+                }
+                for (String term : terms) {
+                    if (Arrays.binarySearch(previous, term) < 0) {
+                        postings.computeIfAbsent(term, t -> new PostingList()).add(docId);
+                    }
+                }
+            }
+            docs.set(docId, book);
+            docTerms.set(docId, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocateDocId() {
+        if (!freeDocIds.isEmpty()) {
+            return freeDocIds.pop();
+        }
+        docs.add(null);
+        docTerms.add(null);
+        return docs.size() - 1;
+    }
+
+    private void removePosting(String term, int docId) {
+        PostingList list = postings.get(term);
+        if (list != null) {
+            list.remove(docId);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Distinct terms of the indexed fields, sorted for cheap diffing
+     */
+    private String[] termsOf(Book book) {
+        TreeSet<String> terms = new TreeSet<>();
+        for (SearchField field : fields) {
+            terms.addAll(tokenize(field.valueOf(book)));
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    /**
+     * Split text into lower-case alphanumeric terms
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
@@ -3,56 +3,223 @@ package org.librarymanagement.strategy;
 import org.librarymanagement.mainentities.Book;
 import org.librarymanagement.mainentities.LendingRecord;
 import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+import org.librarymanagement.observer.PopularitySource;
 
+import java.io.Closeable;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Recommendation strategy based on book popularity.
  * Recommends books that are frequently borrowed by all patrons.
+ *
+ * Borrow counts come from a PopularitySource: all-time counts from a BorrowPopularityTracker, or
+ * a TrendingPopularityTracker window (e.g. the last 7 days) for a trending mode. The ranking is kept
+ * sorted by borrow count, then by publication year (newest first).
+ * Count changes only mark the ISBN as pending, so borrowing never waits for the ranking lock; a
+ * daemon thread moves the pending books to their new buckets in batches, one write lock per batch.
+ * Repeated borrows of a book before its move collapse into one, and the ranking lags the counts by
+ * that batch at most; call flush() to apply pending changes on the calling thread.
+ * A recommendation walks the ranking from the top and skips unavailable or already borrowed
+ * books, so it costs O(limit + patron history + skipped books) instead of sorting the catalogue.
+ * Register it with BookService.addCatalogObserver so the ranking follows catalogue changes, and
+ * give LendingService the BookService (setBookService) so availability follows borrows and returns.
  */
-public class PopularityBasedRecommendationStrategy implements RecommendationStrategy {
-    
-    private final Map<String, Integer> bookPopularityCache;
-    
-    public PopularityBasedRecommendationStrategy() {
-        this.bookPopularityCache = new HashMap<>();
-    }
-    
+public class PopularityBasedRecommendationStrategy implements IndexedRecommendationStrategy,
+        BorrowPopularityTracker.PopularityListener, Closeable {
+
+    private static final Comparator<Ranked> BY_YEAR_THEN_ISBN = Comparator
+            .comparingInt((Ranked ranked) -> ranked.publicationYear).reversed()
+            .thenComparing(ranked -> ranked.book.getIsbn());
+
+    private final PopularitySource popularitySource;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Ranked> rankedByIsbn = new HashMap<>();
+    private final NavigableMap<Long, NavigableSet<Ranked>> booksByBorrowCount = new TreeMap<>(Comparator.reverseOrder());
+
+    private final Set<String> pendingIsbns = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService reranker;
+
+    public PopularityBasedRecommendationStrategy(PopularitySource popularitySource) {
+        this.popularitySource = popularitySource;
+        this.reranker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "popularity-ranking");
+            thread.setDaemon(true);
+            return thread;
+        });
+        popularitySource.addListener(this);
+    }
+
+    @Override
+    public List<Book> recommend(Patron patron, int limit) {
+        Set<String> borrowedIsbns = new HashSet<>();
+        for (LendingRecord record : patron.getBorrowingHistory()) {
+            borrowedIsbns.add(record.getIsbn());
+        }
+
+        List<Book> recommendations = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            for (NavigableSet<Ranked> bucket : booksByBorrowCount.values()) {
+                for (Ranked ranked : bucket) {
+                    Book book = ranked.book;
+                    if (book.isAvailable() && !borrowedIsbns.contains(book.getIsbn())) {
+                        recommendations.add(book);
+                        if (recommendations.size() >= limit) {
+                            return recommendations;
+                        }
+                    }
+                }
+            }
+            return recommendations;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        rank(book);
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        rank(book);
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        lock.writeLock().lock();
+        try {
+            Ranked ranked = rankedByIsbn.remove(book.getIsbn());
+            if (ranked != null) {
+                unlink(ranked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPopularityChanged(String isbn, long borrowCount) {
+        pendingIsbns.add(isbn);
+        // One drain at a time; ISBNs added while it runs are picked up by it or by the next one
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                reranker.execute(() -> {
+                    drainScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // Closed: the ISBN stays pending until flush() is called
+                drainScheduled.set(false);
+            }
+        }
+    }
+
     /**
-     * Update popularity cache with borrowing data from all patrons
+     * Move every book whose count changed to its new bucket now
      */
-    public void updatePopularityData(List<Patron> allPatrons) {
-        bookPopularityCache.clear();
-        
-        for (Patron patron : allPatrons) {
-            for (LendingRecord record : patron.getBorrowingHistory()) {
-                bookPopularityCache.merge(record.getIsbn(), 1, Integer::sum);
+    public void flush() {
+        if (pendingIsbns.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Iterator<String> pending = pendingIsbns.iterator();
+            while (pending.hasNext()) {
+                String isbn = pending.next();
+                pending.remove();
+                Ranked ranked = rankedByIsbn.get(isbn);
+                if (ranked == null) {
+                    continue;
+                }
+                // Counts are re-read here, so the ranking always ends at the latest count
+                long current = popularitySource.getBorrowCount(isbn);
+                if (current != ranked.borrowCount) {
+                    unlink(ranked);
+                    ranked.borrowCount = current;
+                    link(ranked);
+                }
             }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
-    
+
+    /**
+     * Stop the ranking thread; later count changes wait for flush()
+     */
     @Override
-    public List<Book> recommend(Patron patron, List<Book> allBooks, int limit) {
-        // Get books patron has already borrowed
-        Set<String> borrowedIsbns = patron.getBorrowingHistory().stream()
-                .map(LendingRecord::getIsbn)
-                .collect(Collectors.toSet());
-        
-        // Sort books by popularity (borrow count) and filter out already borrowed books
-        return allBooks.stream()
-                .filter(Book::isAvailable)
-                .filter(book -> !borrowedIsbns.contains(book.getIsbn()))
-                .sorted((b1, b2) -> {
-                    int count1 = bookPopularityCache.getOrDefault(b1.getIsbn(), 0);
-                    int count2 = bookPopularityCache.getOrDefault(b2.getIsbn(), 0);
-                    // Sort by popularity descending, then by publication year descending
-                    if (count1 != count2) {
-                        return Integer.compare(count2, count1);
-                    }
-                    return Integer.compare(b2.getPublicationYear(), b1.getPublicationYear());
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+    public void close() {
+        popularitySource.removeListener(this);
+        reranker.shutdown();
+    }
+
+    /**
+     * Number of books currently ranked
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rankedByIsbn.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rank(Book book) {
+        lock.writeLock().lock();
+        try {
+            Ranked previous = rankedByIsbn.get(book.getIsbn());
+            if (previous != null && previous.publicationYear == book.getPublicationYear()) {
+                // Status changes on every borrow and return; the book keeps its place
+                previous.book = book;
+                return;
+            }
+            if (previous != null) {
+                unlink(previous);
+            }
+            Ranked ranked = new Ranked(book, book.getPublicationYear(), popularitySource.getBorrowCount(book.getIsbn()));
+            rankedByIsbn.put(book.getIsbn(), ranked);
+            link(ranked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void link(Ranked ranked) {
+        booksByBorrowCount.computeIfAbsent(ranked.borrowCount, count -> new TreeSet<>(BY_YEAR_THEN_ISBN)).add(ranked);
+    }
+
+    private void unlink(Ranked ranked) {
+        NavigableSet<Ranked> bucket = booksByBorrowCount.get(ranked.borrowCount);
+        if (bucket != null && bucket.remove(ranked) && bucket.isEmpty()) {
+            booksByBorrowCount.remove(ranked.borrowCount);
+        }
+    }
+
+    /**
+     * A book in the ranking; the year is copied so a later edit cannot reorder its bucket in place
+     */
+    private static final class Ranked {
+        Book book;
+        final int publicationYear;
+        long borrowCount;
+
+        Ranked(Book book, int publicationYear, long borrowCount) {
+            this.book = book;
+            this.publicationYear = publicationYear;
+            this.borrowCount = borrowCount;
+        }
     }
 }
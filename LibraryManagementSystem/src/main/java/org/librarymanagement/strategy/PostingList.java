@@ -0,0 +1,113 @@
+package org.librarymanagement.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted, duplicate-free list of int document ids backed by a primitive array.
+ * Appending an id larger than the last one is O(1); other inserts/removals shift the tail.
+ * Not thread-safe - owned by an index that guards it with its own lock.
+ */
+final class PostingList {
+
+    private int[] ids;
+    private int size;
+
+    PostingList() {
+        this.ids = new int[4];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    void add(int id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Intersect posting lists, smallest first, galloping through the larger lists.
+     *
+     * @return Sorted ids present in every list
+     */
+    static int[] intersect(List<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        PostingList[] ordered = lists.toArray(new PostingList[0]);
+        Arrays.sort(ordered, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(ordered[0].ids, ordered[0].size);
+        int count = result.length;
+        for (int l = 1; l < ordered.length && count > 0; l++) {
+            PostingList other = ordered[l];
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int pos = gallop(other.ids, from, other.size, result[i]);
+                if (pos < other.size && other.ids[pos] == result[i]) {
+                    result[kept++] = result[i];
+                }
+                from = pos;
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * First index in [from, to) whose value is >= target
+     */
+    private static int gallop(int[] values, int from, int to, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < to && values[high] < target) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        int pos = Arrays.binarySearch(values, low, Math.min(high, to), target);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+
+/**
+ * Book fields that text search strategies can index.
+ */
+public enum SearchField {
+    TITLE,
+    AUTHOR;
+
+    public String valueOf(Book book) {
+        String value = this == TITLE ? book.getTitle() : book.getAuthor();
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,161 @@
+package org.librarymanagement.strategy;
+
+import org.librarymanagement.mainentities.Book;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Substring search on a single field backed by a trigram index.
+ * Keeps the exact "contains" semantics of TitleSearchStrategy/AuthorSearchStrategy:
+ * candidates are narrowed by intersecting the posting lists of the query's trigrams,
+ * then verified against the stored lower-cased field value.
+ * Queries shorter than three characters cannot use the index and are verified against every book.
+ * Register it with BookService.addCatalogObserver so the index follows catalogue changes.
+ */
+public class TrigramSearchStrategy implements IndexedSearchStrategy {
+
+    private final SearchField field;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docIdByIsbn = new HashMap<>();
+    private final List<Book> docs = new ArrayList<>();
+    private final List<String> docValues = new ArrayList<>(); // lower-cased field value per doc
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+
+    public TrigramSearchStrategy(SearchField field) {
+        this.field = field;
+    }
+
+    @Override
+    public List<Book> search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        String searchQuery = query.trim().toLowerCase();
+
+        lock.readLock().lock();
+        try {
+            List<Book> results = new ArrayList<>();
+            if (searchQuery.length() < 3) {
+                for (int docId = 0; docId < docs.size(); docId++) {
+                    String value = docValues.get(docId);
+                    if (value != null && value.contains(searchQuery)) {
+                        results.add(docs.get(docId));
+                    }
+                }
+                return results;
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigramsOf(searchQuery)) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            for (int docId : PostingList.intersect(lists)) {
+                // Trigrams can all be present without being contiguous, so verify
+                if (docValues.get(docId).contains(searchQuery)) {
+                    results.add(docs.get(docId));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookAdded(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookModified(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookRemoved(Book book) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdByIsbn.remove(book.getIsbn());
+            if (docId == null) {
+                return;
+            }
+            for (long trigram : trigramsOf(docValues.get(docId))) {
+                removePosting(trigram, docId);
+            }
+            docs.set(docId, null);
+            docValues.set(docId, null);
+            freeDocIds.push(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Book book) {
+        String value = field.valueOf(book).toLowerCase();
+        Set<Long> trigrams = trigramsOf(value);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdByIsbn.get(book.getIsbn());
+            int docId = existing != null ? existing : allocateDocId();
+            boolean changed = existing == null || !value.equals(docValues.get(docId));
+            if (existing == null) {
+                docIdByIsbn.put(book.getIsbn(), docId);
+            } else if (changed) {
+                for (long trigram : trigramsOf(docValues.get(docId))) {
+                    if (!trigrams.contains(trigram)) {
+                        removePosting(trigram, docId);
+                    }
+                }
+            }
+            if (changed) {
+                for (long trigram : trigrams) {
+                    postings.computeIfAbsent(trigram, t -> new PostingList()).add(docId);
+                }
+            }
+            // Always take the new copy, so results carry the latest status
+            docs.set(docId, book);
+            docValues.set(docId, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocateDocId() {
+        if (!freeDocIds.isEmpty()) {
+            return freeDocIds.pop();
+        }
+        docs.add(null);
+        docValues.add(null);
+        return docs.size() - 1;
+    }
+
+    private void removePosting(long trigram, int docId) {
+        PostingList list = postings.get(trigram);
+        if (list != null) {
+            list.remove(docId);
+            if (list.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Distinct trigrams of a string, each packed as three 16-bit chars in a long
+     */
+    private static Set<Long> trigramsOf(String value) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            long packed = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+            trigrams.add(packed);
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,118 @@
+package org.librarymanagement.workload;
+
+import org.librarymanagement.metrics.MetricsRegistry;
+import org.librarymanagement.metrics.MetricsReporter;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+import org.librarymanagement.repository.*;
+import org.librarymanagement.scheduler.DeadlineScheduler;
+import org.librarymanagement.service.*;
+import org.librarymanagement.strategy.AuthorBasedRecommendationStrategy;
+import org.librarymanagement.strategy.InvertedIndexSearchStrategy;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line load test: builds a synthetic library on the in-memory repositories, wired like
+ * LibraryManagementDemo, drives it open-loop and prints the LoadTestReport followed by the
+ * services' own metrics (also dumped every 10 seconds while the test runs).
+ *
+ * Usage (all options optional):
+ *   ./gradlew loadTest -PloadTestArgs="--rate=5000 --threads=16 --duration=120 --books=1000000"
+ *
+ * Options: --books, --patrons, --branches, --students (share 0-1), --book-skew, --patron-skew,
+ * --mix (e.g. search=50,borrow=20,return=20,reserve=10), --seed, --rate (ops/s), --threads,
+ * --duration and --warmup (seconds).
+ */
+public class LoadTest {
+
+    private static final Set<String> OPTIONS = Set.of("books", "patrons", "branches", "students", "book-skew",
+            "patron-skew", "mix", "seed", "rate", "threads", "duration", "warmup");
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        WorkloadConfig defaults = WorkloadConfig.defaults();
+        WorkloadConfig config = new WorkloadConfig(
+                Integer.parseInt(options.getOrDefault("books", String.valueOf(defaults.books()))),
+                Integer.parseInt(options.getOrDefault("patrons", String.valueOf(defaults.patrons()))),
+                Integer.parseInt(options.getOrDefault("branches", String.valueOf(defaults.branches()))),
+                Double.parseDouble(options.getOrDefault("students", String.valueOf(defaults.studentShare()))),
+                Double.parseDouble(options.getOrDefault("book-skew", String.valueOf(defaults.bookSkew()))),
+                Double.parseDouble(options.getOrDefault("patron-skew", String.valueOf(defaults.patronSkew()))),
+                options.containsKey("mix") ? OperationMix.parse(options.get("mix")) : defaults.mix(),
+                Long.parseLong(options.getOrDefault("seed", String.valueOf(defaults.seed()))));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "2000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+
+        BookRepository bookRepository = new InMemoryBookRepository();
+        PatronRepository patronRepository = new InMemoryPatronRepository();
+        LendingRepository lendingRepository = new InMemoryLendingRepository();
+        ReservationRepository reservationRepository = new InMemoryReservationRepository();
+
+        BookService bookService = new BookService(bookRepository);
+        PatronService patronService = new PatronService(patronRepository);
+        BranchService branchService = new BranchService(new InMemoryBranchRepository());
+        LendingService lendingService = new LendingService(bookRepository, patronRepository, lendingRepository);
+        ReservationService reservationService = new ReservationService(
+                reservationRepository, bookRepository, patronRepository);
+        lendingService.setReservationService(reservationService);
+        BookTransferService transferService = new BookTransferService(bookRepository, branchService);
+        lendingService.setBookService(bookService);
+        transferService.setBookService(bookService);
+        RecommendationService recommendationService = new RecommendationService(
+                bookRepository, patronRepository, new AuthorBasedRecommendationStrategy());
+        InvertedIndexSearchStrategy searchStrategy = new InvertedIndexSearchStrategy();
+        bookService.addCatalogObserver(searchStrategy);
+        lendingService.addObserver(new BorrowPopularityTracker());
+        MetricsRegistry metrics = new MetricsRegistry();
+        bookService.setMetricsRegistry(metrics);
+        lendingService.setMetricsRegistry(metrics);
+        reservationService.setMetricsRegistry(metrics);
+        transferService.setMetricsRegistry(metrics);
+        recommendationService.setMetricsRegistry(metrics);
+
+        WorkloadGenerator generator = new WorkloadGenerator(config);
+        generator.populate(branchService, bookService, patronService);
+
+        DeadlineScheduler deadlineScheduler = new DeadlineScheduler(lendingService, reservationService,
+                lendingRepository, reservationRepository);
+        lendingService.addObserver(deadlineScheduler);
+        reservationService.addObserver(deadlineScheduler);
+        deadlineScheduler.start();
+        metrics.gauge("scheduler.pending", deadlineScheduler::pendingDeadlines);
+        MetricsReporter reporter = new MetricsReporter(metrics, Duration.ofSeconds(10), System.out::print);
+        reporter.start();
+
+        OperationExecutor executor = new OperationExecutor(bookService, lendingService, reservationService,
+                recommendationService, transferService, searchStrategy);
+        LoadTestReport report = new LoadTestDriver(executor, threads).run(generator, rate, duration, warmup);
+        reporter.close();
+        deadlineScheduler.close();
+
+        System.out.printf("Workload: %d books, %d patrons, %d branches, seed %d, mix %s%n",
+                config.books(), config.patrons(), config.branches(), config.seed(), config.mix());
+        System.out.print(report.format());
+        System.out.printf("%nService metrics (including warm-up)%n");
+        System.out.print(metrics.format());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --option=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name + " (known: " + OPTIONS + ")");
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,207 @@
+package org.librarymanagement.workload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: operations are issued at a target rate no matter how fast the
+ * library answers, the way independent users would send them.
+ *
+ * A single issuing thread draws operations from the WorkloadGenerator and schedules them with
+ * Poisson arrivals (exponential gaps, seeded from the workload seed so a run can be replayed).
+ * Each operation goes to a pool of worker threads through an unbounded queue, so a slow
+ * request never delays the ones scheduled after it. Latency is measured from the scheduled
+ * start, which is what avoids coordinated omission: a stall shows up in every request that
+ * was due during it, not only in the one that stalled. Operations still queued or running when
+ * the run gives up are recorded as abandoned, with the time they had waited by then, so a
+ * backlog the library never cleared still counts in the response-time percentiles.
+ */
+public class LoadTestDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDriver.class);
+    private static final long SPIN_NANOS = 50_000;
+    private static final long LATE_NANOS = 1_000_000;
+    private static final int LOGGED_FAILURES = 10;
+
+    private final OperationExecutor executor;
+    private final int threads;
+
+    public LoadTestDriver(OperationExecutor executor, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.executor = executor;
+        this.threads = threads;
+    }
+
+    /**
+     * Issue operations at ratePerSecond for warmup + duration, then wait for the backlog to drain
+     * (at most as long as the run itself) and report the operations scheduled after the warm-up.
+     */
+    public LoadTestReport run(WorkloadGenerator generator, double ratePerSecond, Duration duration, Duration warmup) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (duration.isNegative() || duration.isZero() || warmup.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive and warm-up not negative");
+        }
+        LoadTestReport report = new LoadTestReport(ratePerSecond, threads);
+        AtomicInteger workerCount = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "load-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.prestartAllCoreThreads();
+
+        Random arrivals = new Random(generator.getConfig().seed() * 31 + 7);
+        double meanGapNanos = 1e9 / ratePerSecond;
+        LongAccumulator lastCompletion = new LongAccumulator(Math::max, 0);
+        LongAdder failures = new LongAdder();
+        Set<ScheduledOperation> running = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+        long measuredFrom = start + warmup.toNanos();
+        long end = measuredFrom + duration.toNanos();
+        long issued = 0;
+        long lateStarts = 0;
+        int maxBacklog = 0;
+        logger.info("Load test started: {} ops/s on {} threads for {} s after {} s warm-up, mix {}",
+                ratePerSecond, threads, duration.toSeconds(), warmup.toSeconds(), generator.getConfig().mix());
+
+        double next = start;
+        while ((long) next < end) {
+            long scheduled = (long) next;
+            Operation operation = generator.next();
+            if (waitUntil(scheduled) > LATE_NANOS) {
+                lateStarts++;
+            }
+            boolean measured = scheduled >= measuredFrom;
+            workers.execute(new ScheduledOperation(operation, scheduled, measured, report, lastCompletion,
+                    failures, running));
+            issued++;
+            maxBacklog = Math.max(maxBacklog, workers.getQueue().size());
+            next += -Math.log(1 - arrivals.nextDouble()) * meanGapNanos;
+        }
+
+        workers.shutdown();
+        long unfinished = 0;
+        try {
+            if (!workers.awaitTermination(Math.max(duration.toMillis(), 1000), TimeUnit.MILLISECONDS)) {
+                unfinished = abandon(workers, running);
+                logger.warn("Load test gave up on {} operations that were still queued or running", unfinished);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unfinished = abandon(workers, running);
+        }
+        long measuredNanos = Math.max(0, Math.max(lastCompletion.get(), end) - measuredFrom);
+        report.finish(measuredNanos, unfinished, lateStarts, maxBacklog);
+        logger.info("Load test finished: {} operations issued, {} measured", issued, report.getCompleted());
+        return report;
+    }
+
+    /**
+     * Stop the workers and record every measured operation they did not finish as abandoned
+     *
+     * @return Number of operations queued or running at that moment
+     */
+    private static long abandon(ThreadPoolExecutor workers, Set<ScheduledOperation> running) {
+        long gaveUp = System.nanoTime();
+        // Running operations first: shutdownNow interrupts them, and an interrupted one may return at once
+        List<Runnable> unfinished = new ArrayList<>(running);
+        unfinished.addAll(workers.shutdownNow());
+        for (Runnable runnable : unfinished) {
+            ((ScheduledOperation) runnable).abandon(gaveUp);
+        }
+        return unfinished.size();
+    }
+
+    /**
+     * An operation and when it was due; recorded exactly once, by the worker or by abandon()
+     */
+    private final class ScheduledOperation implements Runnable {
+        private final Operation operation;
+        private final long scheduled;
+        private final boolean measured;
+        private final LoadTestReport report;
+        private final LongAccumulator lastCompletion;
+        private final LongAdder failures;
+        private final Set<ScheduledOperation> running;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        ScheduledOperation(Operation operation, long scheduled, boolean measured, LoadTestReport report,
+                           LongAccumulator lastCompletion, LongAdder failures, Set<ScheduledOperation> running) {
+            this.operation = operation;
+            this.scheduled = scheduled;
+            this.measured = measured;
+            this.report = report;
+            this.lastCompletion = lastCompletion;
+            this.failures = failures;
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            running.add(this);
+            long started = System.nanoTime();
+            LoadTestReport.Outcome outcome = LoadTestReport.Outcome.COMPLETED;
+            try {
+                executor.execute(operation);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                outcome = LoadTestReport.Outcome.REJECTED;
+            } catch (RuntimeException e) {
+                outcome = LoadTestReport.Outcome.FAILED;
+                failures.increment();
+                if (failures.sum() <= LOGGED_FAILURES) {
+                    logger.error("Operation {} failed", operation, e);
+                }
+            } finally {
+                running.remove(this);
+            }
+            long finished = System.nanoTime();
+            if (measured && recorded.compareAndSet(false, true)) {
+                report.record(operation.type(), outcome, finished - scheduled, finished - started);
+                lastCompletion.accumulate(finished);
+            }
+        }
+
+        void abandon(long gaveUp) {
+            if (measured && recorded.compareAndSet(false, true)) {
+                report.recordAbandoned(operation.type(), gaveUp - scheduled);
+            }
+        }
+    }
+
+    /**
+     * Park until the deadline, spinning for the last few microseconds to start on time
+     *
+     * @return How late the call returned, in nanoseconds
+     */
+    private static long waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return -remaining;
+    }
+}
@@ -0,0 +1,169 @@
+package org.librarymanagement.workload;
+
+import org.librarymanagement.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a load test run: throughput and, per operation type, counts and two latency
+ * distributions. Response time runs from the moment the operation was scheduled to start, so
+ * time spent queued behind a slow request is included (corrected for coordinated omission);
+ * service time runs from the moment a worker picked it up. Only operations scheduled after the
+ * warm-up are counted. Abandoned operations (given up on at the end of the run) are in the
+ * response times with the time they had waited, but not in the completed count or service times.
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<OperationType, Stats> stats = new EnumMap<>(OperationType.class);
+    private final double targetRate;
+    private final int threads;
+    private long measuredNanos;
+    private long unfinished;
+    private long lateStarts;
+    private int maxBacklog;
+
+    LoadTestReport(double targetRate, int threads) {
+        this.targetRate = targetRate;
+        this.threads = threads;
+        for (OperationType type : OperationType.values()) {
+            stats.put(type, new Stats());
+        }
+    }
+
+    void record(OperationType type, Outcome outcome, long responseNanos, long serviceNanos) {
+        Stats operationStats = stats.get(type);
+        operationStats.responseTimes.record(responseNanos);
+        operationStats.serviceTimes.record(serviceNanos);
+        switch (outcome) {
+            case REJECTED:
+                operationStats.rejected.increment();
+                break;
+            case FAILED:
+                operationStats.failed.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    void recordAbandoned(OperationType type, long responseNanos) {
+        Stats operationStats = stats.get(type);
+        operationStats.responseTimes.record(responseNanos);
+        operationStats.abandoned.increment();
+    }
+
+    void finish(long measuredNanos, long unfinished, long lateStarts, int maxBacklog) {
+        this.measuredNanos = measuredNanos;
+        this.unfinished = unfinished;
+        this.lateStarts = lateStarts;
+        this.maxBacklog = maxBacklog;
+    }
+
+    /**
+     * Completed operations per second over the measured period
+     */
+    public double getThroughput() {
+        return measuredNanos == 0 ? 0 : getCompleted() * 1e9 / measuredNanos;
+    }
+
+    public long getCompleted() {
+        return stats.values().stream().mapToLong(s -> s.serviceTimes.getCount()).sum();
+    }
+
+    /**
+     * Measured operations that never finished; their response time is a lower bound
+     */
+    public long getAbandoned() {
+        return stats.values().stream().mapToLong(s -> s.abandoned.sum()).sum();
+    }
+
+    public long getRejected() {
+        return stats.values().stream().mapToLong(s -> s.rejected.sum()).sum();
+    }
+
+    public long getFailed() {
+        return stats.values().stream().mapToLong(s -> s.failed.sum()).sum();
+    }
+
+    /**
+     * Operations still queued or running when the run gave up waiting for them
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public LatencyHistogram getResponseTimes(OperationType type) {
+        return stats.get(type).responseTimes;
+    }
+
+    public LatencyHistogram getServiceTimes(OperationType type) {
+        return stats.get(type).serviceTimes;
+    }
+
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Throughput: %.1f ops/s (target %.1f ops/s, %d threads), %d completed in %.1f s%n",
+                getThroughput(), targetRate, threads, getCompleted(), measuredNanos / 1e9));
+        text.append(String.format("Rejected: %d, failed: %d, unfinished: %d (%d measured), started late: %d, max backlog: %d%n",
+                getRejected(), getFailed(), unfinished, getAbandoned(), lateStarts, maxBacklog));
+        text.append(String.format("%nResponse time in microseconds (from scheduled start, corrected for coordinated omission;"
+                + " abandoned operations count until the run gave up)%n"));
+        appendTable(text, true);
+        text.append(String.format("%nService time in microseconds (from worker start)%n"));
+        appendTable(text, false);
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    private void appendTable(StringBuilder text, boolean response) {
+        text.append(String.format("%-10s %9s %9s %7s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "rejected", "failed", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        LatencyHistogram all = new LatencyHistogram();
+        long rejected = 0;
+        long failed = 0;
+        for (Map.Entry<OperationType, Stats> entry : stats.entrySet()) {
+            LatencyHistogram histogram = response ? entry.getValue().responseTimes : entry.getValue().serviceTimes;
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            rejected += entry.getValue().rejected.sum();
+            failed += entry.getValue().failed.sum();
+            appendRow(text, entry.getKey().name().toLowerCase(), histogram,
+                    entry.getValue().rejected.sum(), entry.getValue().failed.sum());
+        }
+        appendRow(text, "all", all, rejected, failed);
+    }
+
+    private static void appendRow(StringBuilder text, String name, LatencyHistogram histogram,
+                                  long rejected, long failed) {
+        text.append(String.format("%-10s %9d %9d %7d %10.1f", name, histogram.getCount(), rejected, failed,
+                histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            text.append(String.format(" %10.1f", histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        text.append(String.format(" %10.1f%n", histogram.getMax() / 1000.0));
+    }
+
+    enum Outcome {
+        COMPLETED,
+        REJECTED,
+        FAILED
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram responseTimes = new LatencyHistogram();
+        private final LatencyHistogram serviceTimes = new LatencyHistogram();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder abandoned = new LongAdder();
+    }
+}
@@ -0,0 +1,12 @@
+package org.librarymanagement.workload;
+
+/**
+ * One generated request. Fields an operation type does not use are null:
+ * BORROW/RESERVE use isbn and patronId, RETURN patronId, SEARCH query,
+ * RECOMMEND patronId and TRANSFER isbn and branchId (the destination).
+ *
+ * @param sequence Position in the generated sequence, starting at 0
+ */
+public record Operation(long sequence, OperationType type, String isbn, String patronId,
+                        String query, String branchId) {
+}
@@ -0,0 +1,86 @@
+package org.librarymanagement.workload;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.BookTransferRequest;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.service.BookService;
+import org.librarymanagement.service.BookTransferService;
+import org.librarymanagement.service.LendingService;
+import org.librarymanagement.service.RecommendationService;
+import org.librarymanagement.service.ReservationService;
+import org.librarymanagement.strategy.SearchStrategy;
+
+import java.util.List;
+
+/**
+ * Runs generated operations against the service layer.
+ * Requests the library turns down (book already out, borrow limit reached, nothing to return...)
+ * surface as the services' IllegalArgumentException / IllegalStateException, like they would
+ * for a real client; the load test counts them as rejected rather than failed.
+ */
+public class OperationExecutor {
+
+    private final BookService bookService;
+    private final LendingService lendingService;
+    private final ReservationService reservationService;
+    private final RecommendationService recommendationService;
+    private final BookTransferService transferService;
+    private final SearchStrategy searchStrategy;
+
+    public OperationExecutor(BookService bookService, LendingService lendingService,
+                             ReservationService reservationService, RecommendationService recommendationService,
+                             BookTransferService transferService, SearchStrategy searchStrategy) {
+        this.bookService = bookService;
+        this.lendingService = lendingService;
+        this.reservationService = reservationService;
+        this.recommendationService = recommendationService;
+        this.transferService = transferService;
+        this.searchStrategy = searchStrategy;
+    }
+
+    public void execute(Operation operation) {
+        switch (operation.type()) {
+            case BORROW:
+                lendingService.borrowBook(operation.isbn(), operation.patronId());
+                break;
+            case RETURN:
+                returnOldestLoan(operation.patronId());
+                break;
+            case RESERVE:
+                reservationService.createReservation(operation.isbn(), operation.patronId());
+                break;
+            case SEARCH:
+                bookService.searchBooks(searchStrategy, operation.query());
+                break;
+            case RECOMMEND:
+                recommendationService.getRecommendations(operation.patronId());
+                break;
+            case TRANSFER:
+                transfer(operation.isbn(), operation.branchId());
+                break;
+            default:
+                throw new IllegalStateException("Unhandled operation type: " + operation.type());
+        }
+    }
+
+    private void returnOldestLoan(String patronId) {
+        List<LendingRecord> loans = lendingService.getPatronActiveBorrows(patronId);
+        if (loans.isEmpty()) {
+            throw new IllegalStateException("Patron has no active loans: " + patronId);
+        }
+        LendingRecord oldest = loans.get(0);
+        for (LendingRecord loan : loans) {
+            if (loan.getBorrowDate().isBefore(oldest.getBorrowDate())) {
+                oldest = loan;
+            }
+        }
+        lendingService.returnBook(oldest.getIsbn(), patronId);
+    }
+
+    private void transfer(String isbn, String destinationBranchId) {
+        Book book = bookService.findByIsbn(isbn)
+                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + isbn));
+        BookTransferRequest request = transferService.initiateTransfer(isbn, book.getBranchId(), destinationBranchId);
+        transferService.completeTransfer(request.getTransferId());
+    }
+}
@@ -0,0 +1,95 @@
+package org.librarymanagement.workload;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Relative weights of the operation types in a workload, e.g. "search=50,borrow=20,return=20".
+ * Types that are not listed get weight 0.
+ */
+public class OperationMix {
+
+    private final Map<OperationType, Integer> weights;
+    private final OperationType[] types;
+    private final int[] cumulative;
+
+    public OperationMix(Map<OperationType, Integer> weights) {
+        this.weights = new EnumMap<>(OperationType.class);
+        int total = 0;
+        for (Map.Entry<OperationType, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Weight of " + entry.getKey() + " cannot be negative");
+            }
+            if (entry.getValue() > 0) {
+                this.weights.put(entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Operation mix needs at least one positive weight");
+        }
+        this.types = this.weights.keySet().toArray(new OperationType[0]);
+        this.cumulative = new int[types.length];
+        int running = 0;
+        for (int i = 0; i < types.length; i++) {
+            running += this.weights.get(types[i]);
+            cumulative[i] = running;
+        }
+    }
+
+    /**
+     * Read-heavy mix: mostly searches, borrows balanced by returns, a few holds,
+     * recommendations and transfers
+     */
+    public static OperationMix defaults() {
+        return parse("search=50,borrow=18,return=18,reserve=8,recommend=4,transfer=2");
+    }
+
+    /**
+     * Parse "type=weight,type=weight,..." (type names are case-insensitive)
+     */
+    public static OperationMix parse(String spec) {
+        Map<OperationType, Integer> weights = new EnumMap<>(OperationType.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected type=weight but got: " + part);
+            }
+            OperationType type;
+            try {
+                type = OperationType.valueOf(pair[0].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation type: " + pair[0].trim());
+            }
+            try {
+                weights.put(type, Integer.parseInt(pair[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for " + type + ": " + pair[1].trim());
+            }
+        }
+        return new OperationMix(weights);
+    }
+
+    OperationType pick(Random random) {
+        int point = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return types[i];
+            }
+        }
+        return types[types.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<OperationType, Integer> entry : weights.entrySet()) {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(entry.getKey().name().toLowerCase()).append('=').append(entry.getValue());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package org.librarymanagement.workload;
+
+/**
+ * Kinds of requests the synthetic workload sends to the service layer
+ */
+public enum OperationType {
+    BORROW,
+    RETURN,
+    RESERVE,
+    SEARCH,
+    RECOMMEND,
+    TRANSFER
+}
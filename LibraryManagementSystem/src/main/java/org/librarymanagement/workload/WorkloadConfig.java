@@ -0,0 +1,36 @@
+package org.librarymanagement.workload;
+
+/**
+ * Shape of a synthetic library and of the traffic against it.
+ *
+ * @param books Catalogue size
+ * @param patrons Number of patrons
+ * @param branches Number of branches the books are spread over
+ * @param studentShare Fraction of patrons that are students (the rest are faculty)
+ * @param bookSkew Zipfian theta of book popularity (0 &lt; theta &lt; 1)
+ * @param patronSkew Zipfian theta of patron activity (0 &lt; theta &lt; 1)
+ * @param mix Relative frequency of each operation type
+ * @param seed Seed of every random choice; the same seed gives the same library and operation sequence
+ */
+public record WorkloadConfig(int books, int patrons, int branches, double studentShare,
+                             double bookSkew, double patronSkew, OperationMix mix, long seed) {
+
+    public WorkloadConfig {
+        if (books <= 0 || patrons <= 0) {
+            throw new IllegalArgumentException("Book and patron counts must be positive");
+        }
+        if (branches < 2) {
+            throw new IllegalArgumentException("Transfers need at least two branches");
+        }
+        if (studentShare < 0 || studentShare > 1) {
+            throw new IllegalArgumentException("Student share must be between 0 and 1");
+        }
+        if (mix == null) {
+            throw new IllegalArgumentException("Operation mix cannot be null");
+        }
+    }
+
+    public static WorkloadConfig defaults() {
+        return new WorkloadConfig(100_000, 10_000, 5, 0.8, 0.99, 0.9, OperationMix.defaults(), 42);
+    }
+}
@@ -0,0 +1,236 @@
+package org.librarymanagement.workload;
+
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.Branch;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronFactory;
+import org.librarymanagement.service.BookService;
+import org.librarymanagement.service.BranchService;
+import org.librarymanagement.service.PatronService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a synthetic library and a replayable sequence of operations against it.
+ *
+ * Catalogue: titles are 2-4 words drawn from a generated vocabulary with Zipfian word
+ * frequency, and authors are drawn from a Zipfian distribution too, so a few prolific authors
+ * write many books and most write one or two. Patrons are students and faculty in the
+ * configured proportion.
+ * Traffic: book popularity and patron activity are Zipfian over a shuffled order, so the
+ * popular books are spread over the ISBN range. Search queries use the same word frequencies
+ * as the titles.
+ *
+ * Everything is derived from the seed: two generators with the same config produce the same
+ * catalogue and the same operation sequence (patron IDs come from IdGenerators and differ
+ * between runs, but map to the same generated patrons). Not thread-safe; one thread draws
+ * the operations and hands them out.
+ */
+public class WorkloadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadGenerator.class);
+    private static final String[] SYLLABLES = {
+            "an", "bel", "cor", "da", "el", "fen", "gar", "hol", "is", "jor", "ka", "lin", "mar",
+            "nor", "os", "pel", "quin", "ra", "sol", "tor", "ul", "ven", "wyn", "yr", "zan"
+    };
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final double WORD_SKEW = 0.8;
+    private static final int BOOKS_PER_AUTHOR = 8;
+
+    private final WorkloadConfig config;
+    private final Random random;
+    private final String[] vocabulary;
+    private final ZipfianGenerator words;
+    private final ZipfianGenerator bookPopularity;
+    private final ZipfianGenerator patronActivity;
+    private final int[] bookByRank;
+    private final int[] patronByRank;
+    private final List<Book> books;
+    private final List<Patron> patrons;
+    private final List<Branch> branches;
+    private long sequence;
+
+    public WorkloadGenerator(WorkloadConfig config) {
+        this.config = config;
+        this.random = new Random(config.seed());
+        this.vocabulary = vocabulary(random);
+        this.words = new ZipfianGenerator(VOCABULARY_SIZE, WORD_SKEW);
+        this.bookPopularity = new ZipfianGenerator(config.books(), config.bookSkew());
+        this.patronActivity = new ZipfianGenerator(config.patrons(), config.patronSkew());
+        this.bookByRank = shuffledIndexes(config.books(), random);
+        this.patronByRank = shuffledIndexes(config.patrons(), random);
+        this.branches = createBranches(config.branches());
+        this.books = createBooks();
+        this.patrons = createPatrons();
+    }
+
+    /**
+     * Register the generated branches, books and patrons with the services
+     */
+    public void populate(BranchService branchService, BookService bookService, PatronService patronService) {
+        long start = System.nanoTime();
+        for (Branch branch : branches) {
+            branchService.registerBranch(branch);
+        }
+        for (Book book : books) {
+            bookService.addBook(book);
+        }
+        for (Patron patron : patrons) {
+            patronService.addPatron(patron);
+        }
+        logger.info("Synthetic library populated: {} books, {} patrons, {} branches in {} ms",
+                books.size(), patrons.size(), branches.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Draw the next operation of the sequence
+     */
+    public Operation next() {
+        OperationType type = config.mix().pick(random);
+        long id = sequence++;
+        switch (type) {
+            case BORROW:
+            case RESERVE:
+                return new Operation(id, type, popularBook().getIsbn(), activePatron().getPatronId(), null, null);
+            case RETURN:
+            case RECOMMEND:
+                return new Operation(id, type, null, activePatron().getPatronId(), null, null);
+            case SEARCH:
+                return new Operation(id, type, null, null, query(), null);
+            case TRANSFER:
+                Branch destination = branches.get(random.nextInt(branches.size()));
+                return new Operation(id, type, popularBook().getIsbn(), null, null, destination.getBranchId());
+            default:
+                throw new IllegalStateException("Unhandled operation type: " + type);
+        }
+    }
+
+    public WorkloadConfig getConfig() {
+        return config;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public List<Patron> getPatrons() {
+        return patrons;
+    }
+
+    public List<Branch> getBranches() {
+        return branches;
+    }
+
+    private Book popularBook() {
+        return books.get(bookByRank[bookPopularity.next(random)]);
+    }
+
+    private Patron activePatron() {
+        return patrons.get(patronByRank[patronActivity.next(random)]);
+    }
+
+    private String query() {
+        int kind = random.nextInt(10);
+        if (kind < 7) {
+            return word();
+        }
+        if (kind < 9) {
+            return word() + " " + word();
+        }
+        // Surname of an author of a popular book
+        String author = popularBook().getAuthor();
+        return author.substring(author.indexOf(' ') + 1);
+    }
+
+    private String word() {
+        return vocabulary[words.next(random)];
+    }
+
+    private List<Branch> createBranches(int count) {
+        List<Branch> created = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = String.format("BR%03d", i + 1);
+            created.add(new Branch(id, "Branch " + (i + 1), (i + 1) + " Library Road",
+                    "555-01" + String.format("%02d", i), "branch" + (i + 1) + "@library.org"));
+        }
+        return created;
+    }
+
+    private List<Book> createBooks() {
+        int authorCount = Math.max(1, config.books() / BOOKS_PER_AUTHOR);
+        ZipfianGenerator authorOutput = new ZipfianGenerator(authorCount, 0.7);
+        List<Book> created = new ArrayList<>(config.books());
+        for (int i = 0; i < config.books(); i++) {
+            int titleWords = 2 + random.nextInt(3);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < titleWords; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                title.append(capitalize(word()));
+            }
+            String author = authorName(authorOutput.next(random));
+            // Skewed towards recent publications
+            int year = 2024 - (int) (125 * Math.pow(random.nextDouble(), 3));
+            String branchId = branches.get(random.nextInt(branches.size())).getBranchId();
+            created.add(new Book(String.format("978%010d", i), title.toString(), author, year, branchId));
+        }
+        return created;
+    }
+
+    private List<Patron> createPatrons() {
+        List<Patron> created = new ArrayList<>(config.patrons());
+        for (int i = 0; i < config.patrons(); i++) {
+            String name = capitalize(vocabulary[random.nextInt(VOCABULARY_SIZE)]) + " "
+                    + capitalize(vocabulary[random.nextInt(VOCABULARY_SIZE)]);
+            String email = "patron" + i + "@library.org";
+            String phone = String.format("555-%07d", i);
+            created.add(random.nextDouble() < config.studentShare()
+                    ? PatronFactory.createStudent(name, email, phone)
+                    : PatronFactory.createFaculty(name, email, phone));
+        }
+        return created;
+    }
+
+    private String authorName(int author) {
+        // Deterministic per author index, so all books of an author share the name
+        String first = vocabulary[(int) ((author * 2654435761L) % VOCABULARY_SIZE)];
+        String last = vocabulary[author % VOCABULARY_SIZE];
+        return capitalize(first) + " " + capitalize(last) + (author >= VOCABULARY_SIZE ? " " + author / VOCABULARY_SIZE : "");
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] created = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            created[i] = word.toString();
+        }
+        return created;
+    }
+
+    private static int[] shuffledIndexes(int count, Random random) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,69 @@
+package org.librarymanagement.workload;
+
+import java.util.Random;
+
+/**
+ * Draws ranks 0..n-1 from a Zipfian distribution: rank r is picked with probability
+ * proportional to 1 / (r + 1)^theta, so rank 0 is the most popular.
+ * Uses the rejection-free method of Gray et al. ("Quickly Generating Billion-Record Synthetic
+ * Databases", the one YCSB uses): the zeta constant is computed once in O(n), after which
+ * every draw is O(1). theta must lie strictly between 0 and 1; 0.99 gives the classic heavy skew.
+ * Not thread-safe when drawing from a shared Random; the constants themselves are immutable.
+ */
+public class ZipfianGenerator {
+
+    private final int items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double secondRankThreshold;
+
+    public ZipfianGenerator(int items, double theta) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("Item count must be positive");
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("Zipfian theta must be between 0 and 1 (exclusive)");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        double zeta2 = zeta(2, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+        this.secondRankThreshold = 1 + Math.pow(0.5, theta);
+    }
+
+    /**
+     * Next rank, 0 being the most popular
+     */
+    public int next(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0 || items == 1) {
+            return 0;
+        }
+        if (uz < secondRankThreshold) {
+            return 1;
+        }
+        int rank = (int) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package org.librarymanagement.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the documented error bounds of CountMinSketch on a ZipfStream
+ */
+class CountMinSketchTest {
+
+    @Test
+    void estimatesNeverUndercountAndRarelyExceedEpsilonTimesN() {
+        for (double theta : new double[]{0.5, 0.99}) {
+            CountMinSketch sketch = CountMinSketch.forError(0.001, 0.01);
+            Map<String, Long> exact = ZipfStream.feed(theta, sketch::add);
+
+            assertEquals(ZipfStream.ADDITIONS, sketch.getTotalCount());
+            long bound = (long) Math.floor(sketch.getEpsilon() * sketch.getTotalCount());
+            int aboveBound = 0;
+            for (Map.Entry<String, Long> entry : exact.entrySet()) {
+                long estimate = sketch.estimate(entry.getKey());
+                long count = entry.getValue();
+                assertTrue(estimate >= count, () -> "Undercount of " + entry.getKey() + ": " + estimate + " < " + count);
+                if (estimate - count > bound) {
+                    aboveBound++;
+                }
+            }
+            double share = (double) aboveBound / exact.size();
+            assertTrue(share <= sketch.getDelta(),
+                    () -> "theta " + theta + ": " + share + " of estimates above epsilon * N, delta is " + sketch.getDelta());
+        }
+    }
+
+    @Test
+    void forErrorSizesTheSketchFromEpsilonAndDelta() {
+        CountMinSketch sketch = CountMinSketch.forError(0.001, 0.01);
+        assertEquals(2719, sketch.getWidth());
+        assertEquals(5, sketch.getDepth());
+        assertTrue(sketch.getEpsilon() <= 0.001);
+        assertTrue(sketch.getDelta() <= 0.01);
+        assertEquals(0, sketch.estimate("never added"));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CountMinSketch.forError(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> CountMinSketch.forError(0.001, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(100, 5).add("x", 0));
+    }
+}
@@ -0,0 +1,78 @@
+package org.librarymanagement.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the documented bounds of SpaceSavingTopK on a ZipfStream
+ */
+class SpaceSavingTopKTest {
+
+    private static final int CAPACITY = 500;
+
+    @Test
+    void reportedCountsBracketTheTrueCountsAndHeavyItemsAreTracked() {
+        for (double theta : new double[]{0.5, 0.99}) {
+            SpaceSavingTopK topK = new SpaceSavingTopK(CAPACITY);
+            Map<String, Long> exact = ZipfStream.feed(theta, topK::add);
+
+            assertEquals(ZipfStream.ADDITIONS, topK.getTotalCount());
+            long maxError = ZipfStream.ADDITIONS / CAPACITY;
+            assertEquals(maxError, topK.getMaxError());
+
+            List<SpaceSavingTopK.HeavyHitter> tracked = topK.top(CAPACITY);
+            assertEquals(CAPACITY, tracked.size());
+            Set<String> trackedItems = new HashSet<>();
+            long previous = Long.MAX_VALUE;
+            for (SpaceSavingTopK.HeavyHitter hitter : tracked) {
+                long count = exact.getOrDefault(hitter.item(), 0L);
+                assertTrue(hitter.lowerBound() <= count && count <= hitter.count(),
+                        () -> hitter + " does not bracket the true count " + count);
+                assertTrue(hitter.error() <= maxError, () -> hitter + " has an error above N / capacity");
+                assertTrue(hitter.count() <= previous, "Top list is not sorted by count");
+                assertEquals(hitter.count(), topK.estimate(hitter.item()));
+                previous = hitter.count();
+                trackedItems.add(hitter.item());
+            }
+            for (Map.Entry<String, Long> entry : exact.entrySet()) {
+                if (entry.getValue() > maxError) {
+                    assertTrue(trackedItems.contains(entry.getKey()),
+                            () -> entry.getKey() + " occurs " + entry.getValue() + " times but is not tracked");
+                } else if (!trackedItems.contains(entry.getKey())) {
+                    assertTrue(topK.estimate(entry.getKey()) >= entry.getValue(), "Untracked estimate undercounts");
+                }
+            }
+        }
+    }
+
+    @Test
+    void countsAreExactWhileTheSummaryHasFreeCounters() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(3);
+        topK.add("a", 5);
+        topK.add("b", 2);
+        topK.add("a");
+        assertEquals(List.of(new SpaceSavingTopK.HeavyHitter("a", 6, 0), new SpaceSavingTopK.HeavyHitter("b", 2, 0)),
+                topK.top(10));
+        assertEquals(0, topK.estimate("c"));
+
+        topK.add("c");
+        topK.add("d");
+        // d took over c's counter (the smallest) and inherited its count as error
+        assertEquals(new SpaceSavingTopK.HeavyHitter("d", 2, 1), topK.top(3).get(2));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingTopK(0));
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingTopK(1).add("x", 0));
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingTopK(1).top(0));
+    }
+}
@@ -0,0 +1,38 @@
+package org.librarymanagement.metrics;
+
+import org.librarymanagement.workload.ZipfianGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Seeded Zipf stream of ISBN-like keys shared by the frequency-estimator tests,
+ * fed to the estimator while the exact counts are kept to check it against
+ */
+final class ZipfStream {
+
+    static final int ITEMS = 100_000;
+    static final int ADDITIONS = 1_000_000;
+
+    private ZipfStream() {
+    }
+
+    /**
+     * Send ADDITIONS keys drawn from ITEMS with skew theta to the sink
+     *
+     * @return Exact number of times each key was sent
+     */
+    static Map<String, Long> feed(double theta, Consumer<String> sink) {
+        ZipfianGenerator zipf = new ZipfianGenerator(ITEMS, theta);
+        Random random = new Random(42);
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < ADDITIONS; i++) {
+            String isbn = "978-" + zipf.next(random);
+            sink.accept(isbn);
+            exact.merge(isbn, 1L, Long::sum);
+        }
+        return exact;
+    }
+}
@@ -0,0 +1,153 @@
+package org.librarymanagement.observer;
+
+import org.junit.jupiter.api.Test;
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronFactory;
+import org.librarymanagement.mainentities.PatronType;
+import org.librarymanagement.metrics.SpaceSavingTopK;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Borrows land in the right segments, live borrows at the branch holding the book at that moment.
+ */
+class HeavyHitterPopularityTrackerTest {
+
+    private static final HeavyHitterPopularityTracker.Segment MAIN =
+            new HeavyHitterPopularityTracker.Segment("MAIN", null);
+    private static final HeavyHitterPopularityTracker.Segment EAST =
+            new HeavyHitterPopularityTracker.Segment("EAST", null);
+    private static final HeavyHitterPopularityTracker.Segment STUDENTS =
+            new HeavyHitterPopularityTracker.Segment(null, PatronType.STUDENT);
+    private static final HeavyHitterPopularityTracker.Segment FACULTY =
+            new HeavyHitterPopularityTracker.Segment(null, PatronType.FACULTY);
+    private static final HeavyHitterPopularityTracker.Segment MAIN_STUDENTS =
+            new HeavyHitterPopularityTracker.Segment("MAIN", PatronType.STUDENT);
+
+    private final InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+    private final InMemoryPatronRepository patronRepository = new InMemoryPatronRepository();
+    private final HeavyHitterPopularityTracker tracker =
+            new HeavyHitterPopularityTracker(bookRepository, patronRepository);
+    private final Patron student = PatronFactory.createStudent("Student", "s@example.org", "555-0001");
+    private final Patron faculty = PatronFactory.createFaculty("Faculty", "f@example.org", "555-0002");
+    private int records;
+
+    HeavyHitterPopularityTrackerTest() {
+        patronRepository.add(student);
+        patronRepository.add(faculty);
+        bookRepository.add(new Book("1", "Refactoring", "Martin Fowler", 1999, "MAIN"));
+        bookRepository.add(new Book("2", "Clean Code", "Robert C. Martin", 2008, "MAIN"));
+        bookRepository.add(new Book("3", "Domain-Driven Design", "Eric Evans", 2003, "EAST"));
+    }
+
+    @Test
+    void liveBorrowsCountInEverySegmentTheyBelongTo() {
+        tracker.onBookBorrowed(record("1", student));
+        tracker.onBookBorrowed(record("3", faculty));
+
+        assertEquals(2, tracker.getBorrowCount(HeavyHitterPopularityTracker.Segment.ALL));
+        assertEquals(1, tracker.getBorrowCount(MAIN));
+        assertEquals(1, tracker.getBorrowCount(STUDENTS));
+        assertEquals(1, tracker.getBorrowCount(MAIN_STUDENTS));
+        assertEquals(1, tracker.estimateBorrowCount(MAIN_STUDENTS, "1"));
+        assertEquals(0, tracker.estimateBorrowCount(MAIN_STUDENTS, "3"));
+        assertEquals(1, tracker.estimateBorrowCount(EAST, "3"));
+        assertEquals(Set.of(HeavyHitterPopularityTracker.Segment.ALL, MAIN, EAST, STUDENTS, FACULTY, MAIN_STUDENTS,
+                new HeavyHitterPopularityTracker.Segment("EAST", PatronType.FACULTY)), tracker.getSegments());
+
+        // Returns do not change popularity
+        tracker.onBookReturned(record("1", student));
+        assertEquals(2, tracker.getBorrowCount(HeavyHitterPopularityTracker.Segment.ALL));
+    }
+
+    @Test
+    void borrowsFollowTheBookToItsNewBranch() {
+        tracker.onBookBorrowed(record("1", student));
+        Book moved = bookRepository.findByIsbn("1").get();
+        moved.setBranchId("EAST");
+        bookRepository.modify(moved);
+        tracker.onBookBorrowed(record("1", student));
+
+        assertEquals(1, tracker.estimateBorrowCount(MAIN, "1"));
+        assertEquals(1, tracker.estimateBorrowCount(EAST, "1"));
+        assertEquals(2, tracker.estimateBorrowCount(STUDENTS, "1"));
+    }
+
+    @Test
+    void seededHistorySkipsBranchSegments() {
+        tracker.seed(List.of(record("1", student), record("1", faculty), record("3", faculty)));
+
+        assertEquals(3, tracker.getBorrowCount(HeavyHitterPopularityTracker.Segment.ALL));
+        assertEquals(1, tracker.getBorrowCount(STUDENTS));
+        assertEquals(2, tracker.getBorrowCount(FACULTY));
+        assertEquals(2, tracker.estimateBorrowCount(HeavyHitterPopularityTracker.Segment.ALL, "1"));
+        assertEquals(Set.of(HeavyHitterPopularityTracker.Segment.ALL, STUDENTS, FACULTY), tracker.getSegments());
+        assertEquals(List.of(), tracker.topBorrowed(MAIN, 10));
+    }
+
+    @Test
+    void topBorrowedIsOrderedAndNeverUndercounts() {
+        List<LendingRecord> history = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            history.add(record("2", student));
+        }
+        for (int i = 0; i < 3; i++) {
+            history.add(record("1", student));
+        }
+        history.add(record("3", student));
+        tracker.seed(history);
+
+        List<SpaceSavingTopK.HeavyHitter> top = tracker.topBorrowed(STUDENTS, 2);
+        assertEquals(List.of("2", "1"), top.stream().map(SpaceSavingTopK.HeavyHitter::item).toList());
+        assertEquals(5, top.get(0).count());
+        assertEquals(3, tracker.topBorrowed(STUDENTS, 10).size());
+        for (String isbn : List.of("1", "2", "3")) {
+            long exact = history.stream().filter(record -> record.getIsbn().equals(isbn)).count();
+            assertTrue(tracker.estimateBorrowCount(STUDENTS, isbn) >= exact, isbn + " undercounted");
+        }
+    }
+
+    @Test
+    void smallCapacityKeepsTheHeavyHitters() {
+        HeavyHitterPopularityTracker small = new HeavyHitterPopularityTracker(bookRepository, patronRepository,
+                0.01, 0.01, 2);
+        List<LendingRecord> history = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            history.add(record("1", faculty));
+            history.add(record("nobody-" + i, faculty));
+        }
+        small.seed(history);
+
+        SpaceSavingTopK.HeavyHitter top = small.topBorrowed(FACULTY, 1).get(0);
+        assertEquals("1", top.item());
+        assertTrue(top.lowerBound() <= 50 && 50 <= top.count(), top + " does not bracket 50");
+        assertThrows(IllegalArgumentException.class, () -> small.topBorrowed(FACULTY, 3));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> tracker.topBorrowed(MAIN, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeavyHitterPopularityTracker(bookRepository, patronRepository, 0, 0.01, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeavyHitterPopularityTracker(bookRepository, patronRepository, 0.01, 1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HeavyHitterPopularityTracker(bookRepository, patronRepository, 0.01, 0.01, 0));
+    }
+
+    private LendingRecord record(String isbn, Patron patron) {
+        LocalDateTime now = LocalDateTime.now();
+        return new LendingRecord("record-" + records++, patron.getPatronId(), isbn, now, now.plusDays(14));
+    }
+}
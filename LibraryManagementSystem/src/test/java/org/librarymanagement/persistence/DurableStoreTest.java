@@ -0,0 +1,233 @@
+package org.librarymanagement.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.BookTransferRequest;
+import org.librarymanagement.mainentities.Branch;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronFactory;
+import org.librarymanagement.mainentities.Reservation;
+import org.librarymanagement.mainentities.ReservationStatus;
+import org.librarymanagement.mainentities.TransferStatus;
+import org.librarymanagement.service.LendingService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A store reopened from its directory holds exactly what was written before it was closed,
+ * whether that comes from the log alone or from a snapshot plus the log written after it.
+ */
+class DurableStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedStoreReplaysTheLog() {
+        List<String> before;
+        try (DurableStore store = DurableStore.open(directory)) {
+            List<String> patronIds = populate(store, 0);
+            lend(store, patronIds, 0);
+            before = state(store);
+        }
+
+        try (DurableStore store = DurableStore.open(directory)) {
+            assertEquals(before, state(store));
+        }
+    }
+
+    @Test
+    void snapshotTruncatesTheLogAndRestartSeesTheSameState() throws IOException {
+        List<String> before;
+        try (DurableStore store = DurableStore.open(directory)) {
+            List<String> patronIds = populate(store, 0);
+            lend(store, patronIds, 0);
+            store.snapshot();
+            assertEquals(List.of("snapshot-0000000002.bin", "wal-0000000002.log"), files(),
+                    "segments covered by the snapshot are deleted");
+
+            // Written after the snapshot, so they only exist in the new segment
+            List<String> morePatrons = populate(store, 1);
+            lend(store, morePatrons, 1);
+            store.getBookRepository().delete(isbn(0, 0));
+            store.getBranchRepository().deleteById("branch-0-1");
+            before = state(store);
+        }
+
+        try (DurableStore store = DurableStore.open(directory)) {
+            assertEquals(before, state(store));
+            store.snapshot();
+        }
+        assertEquals(List.of("snapshot-0000000003.bin", "wal-0000000003.log"), files());
+        try (DurableStore store = DurableStore.open(directory)) {
+            assertEquals(before, state(store));
+        }
+    }
+
+    @Test
+    void snapshotsTakenWhileWritersRunLoseNothing() throws Exception {
+        int writers = 4;
+        int booksPerWriter = 300;
+        try (DurableStore store = DurableStore.open(directory)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < booksPerWriter; i++) {
+                        store.getBookRepository().add(new Book(isbn(writer, i), "Title " + i, "Author " + writer, 2000));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (int i = 0; i < 5; i++) {
+                store.snapshot();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        try (DurableStore store = DurableStore.open(directory)) {
+            assertEquals(writers * booksPerWriter, store.getBookRepository().findAll().size());
+        }
+    }
+
+    @Test
+    void rejectedMutationsAreNotLogged() {
+        List<String> before;
+        try (DurableStore store = DurableStore.open(directory)) {
+            populate(store, 0);
+            Book duplicate = new Book(isbn(0, 0), "Other title", "Other author", 1999);
+            assertThrows(IllegalStateException.class, () -> store.getBookRepository().add(duplicate));
+            assertThrows(IllegalStateException.class,
+                    () -> store.getBookRepository().modify(new Book("missing", "T", "A", 2000)));
+            assertFalse(store.getBookRepository().delete("missing"), "nothing to delete");
+            before = state(store);
+        }
+
+        try (DurableStore store = DurableStore.open(directory)) {
+            assertEquals(before, state(store));
+            assertEquals("Title 0", store.getBookRepository().findByIsbn(isbn(0, 0)).get().getTitle());
+        }
+    }
+
+    @Test
+    void writesAfterCloseFail() {
+        DurableStore store = DurableStore.open(directory);
+        store.close();
+        assertThrows(IllegalStateException.class,
+                () -> store.getBookRepository().add(new Book("late", "T", "A", 2000)));
+        assertTrue(store.getBookRepository().findByIsbn("late").isEmpty(), "a failed write is not applied");
+    }
+
+    /**
+     * Two branches, ten books, four patrons, reservations and transfers; returns the patron IDs
+     */
+    private static List<String> populate(DurableStore store, int round) {
+        for (int b = 0; b < 2; b++) {
+            store.getBranchRepository().save(new Branch("branch-" + round + "-" + b, "Branch " + b,
+                    b + " Main Street", "555-01" + b, "branch" + b + "@example.org"));
+        }
+        for (int i = 0; i < 10; i++) {
+            store.getBookRepository().add(new Book(isbn(round, i), "Title " + i, "Author " + i % 3, 1990 + i,
+                    "branch-" + round + "-" + i % 2));
+        }
+        List<String> patronIds = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Patron patron = p % 2 == 0
+                    ? PatronFactory.createStudent("Student " + p, "s" + p + "@example.org", "555-000" + p)
+                    : PatronFactory.createFaculty("Faculty " + p, "f" + p + "@example.org", "555-100" + p);
+            store.getPatronRepository().add(patron);
+            patronIds.add(patron.getPatronId());
+        }
+
+        Reservation waiting = new Reservation(isbn(round, 1), patronIds.get(1));
+        store.getReservationRepository().save(waiting);
+        Reservation cancelled = new Reservation(isbn(round, 2), patronIds.get(2));
+        store.getReservationRepository().save(cancelled);
+        cancelled.setStatus(ReservationStatus.CANCELLED);
+        store.getReservationRepository().update(cancelled);
+        Reservation deleted = new Reservation(isbn(round, 3), patronIds.get(3));
+        store.getReservationRepository().save(deleted);
+        store.getReservationRepository().deleteById(deleted.getReservationId());
+
+        BookTransferRequest transfer = new BookTransferRequest(isbn(round, 4), "branch-" + round + "-0",
+                "branch-" + round + "-1");
+        store.getTransferRepository().save(transfer);
+        transfer.setStatus(TransferStatus.COMPLETED);
+        store.getTransferRepository().update(transfer);
+        return patronIds;
+    }
+
+    /**
+     * Borrow a few books and return some of them
+     */
+    private static void lend(DurableStore store, List<String> patronIds, int round) {
+        LendingService lending = new LendingService(store.getBookRepository(), store.getPatronRepository(),
+                store.getLendingRepository());
+        for (int i = 0; i < 8; i++) {
+            lending.borrowBook(isbn(round, i), patronIds.get(i % patronIds.size()));
+        }
+        for (int i = 0; i < 8; i += 3) {
+            lending.returnBook(isbn(round, i), patronIds.get(i % patronIds.size()));
+        }
+    }
+
+    private static String isbn(int round, int i) {
+        return "978-" + round + "-" + i;
+    }
+
+    /**
+     * Everything the store persists, one sorted line per entity
+     */
+    private static List<String> state(DurableStore store) {
+        List<String> lines = new ArrayList<>();
+        for (Branch branch : store.getBranchRepository().findAll()) {
+            lines.add("branch " + branch.getBranchId() + " " + branch.getName() + " " + branch.getAddress()
+                    + " " + branch.getPhoneNumber() + " " + branch.getEmail());
+        }
+        for (Book book : store.getBookRepository().findAll()) {
+            lines.add("book " + book.getIsbn() + " " + book.getTitle() + " " + book.getAuthor() + " "
+                    + book.getPublicationYear() + " " + book.getStatus() + " " + book.getBranchId());
+        }
+        for (Patron patron : store.getPatronRepository().findAll()) {
+            lines.add("patron " + patron.getPatronId() + " " + patron.getName() + " " + patron.getEmail() + " "
+                    + patron.getPhoneNumber() + " " + patron.getPatronType() + " "
+                    + patron.getCurrentBorrowedCount() + " " + patron.getBorrowingHistory().size());
+        }
+        for (LendingRecord record : store.getLendingRepository().findAll()) {
+            lines.add("lending " + record.getRecordId() + " " + record.getPatronId() + " " + record.getIsbn()
+                    + " " + record.isActive());
+        }
+        for (Reservation reservation : store.getReservationRepository().findAll()) {
+            lines.add("reservation " + reservation.getReservationId() + " " + reservation.getIsbn() + " "
+                    + reservation.getPatronId() + " " + reservation.getStatus());
+        }
+        for (BookTransferRequest transfer : store.getTransferRepository().findAll()) {
+            lines.add("transfer " + transfer.getTransferId() + " " + transfer.getIsbn() + " "
+                    + transfer.getSourceBranchId() + " " + transfer.getDestinationBranchId() + " "
+                    + transfer.getStatus());
+        }
+        lines.sort(null);
+        return lines;
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
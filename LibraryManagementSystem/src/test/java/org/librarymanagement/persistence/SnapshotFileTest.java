@@ -0,0 +1,106 @@
+package org.librarymanagement.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshots load completely or not at all.
+ */
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void withoutASnapshotReplayStartsAtTheFirstSegment() throws IOException {
+        List<String> loaded = new ArrayList<>();
+        assertEquals(1, SnapshotFile.loadLatest(directory, (type, in) -> loaded.add(in.readUTF())));
+        assertTrue(loaded.isEmpty(), "nothing to load");
+    }
+
+    @Test
+    void latestSnapshotIsLoadedWithItsRecords() throws IOException {
+        assertEquals(2, SnapshotFile.write(directory, 3, writer -> writeRecords(writer, "old 0", "old 1")));
+        assertEquals(3, SnapshotFile.write(directory, 7, writer -> writeRecords(writer, "a", "b", "c")));
+
+        List<String> loaded = new ArrayList<>();
+        assertEquals(7, SnapshotFile.loadLatest(directory, (type, in) -> loaded.add(in.readUTF())));
+        assertEquals(List.of("a", "b", "c"), loaded);
+
+        SnapshotFile.deleteOlderThan(directory, 7);
+        assertEquals(List.of("snapshot-0000000007.bin"), files());
+    }
+
+    @Test
+    void snapshotWithoutItsEndRecordIsRejected() throws IOException {
+        SnapshotFile.write(directory, 2, writer -> writeRecords(writer, "a", "b"));
+        Path snapshot = directory.resolve("snapshot-0000000002.bin");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        // The SNAPSHOT_END record is a 9 byte header plus an 8 byte count
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 17));
+
+        assertThrows(IOException.class, () -> SnapshotFile.loadLatest(directory, (type, in) -> in.readUTF()));
+    }
+
+    @Test
+    void snapshotWhoseEndRecordCountsMoreRecordsIsRejected() throws IOException {
+        // Framed by hand: two records, but SNAPSHOT_END claims three were written
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+        frame(file, RecordType.PUT_BOOK, crc, out -> out.writeUTF("a"));
+        frame(file, RecordType.PUT_BOOK, crc, out -> out.writeUTF("b"));
+        frame(file, RecordType.SNAPSHOT_END, crc, out -> out.writeLong(3));
+        Files.write(directory.resolve("snapshot-0000000002.bin"), file.toByteArray());
+
+        IOException e = assertThrows(IOException.class,
+                () -> SnapshotFile.loadLatest(directory, (type, in) -> in.readUTF()));
+        assertTrue(e.getMessage().contains("incomplete"), e.getMessage());
+    }
+
+    @Test
+    void leftoverTemporaryFilesAreIgnoredAndCleanedUp() throws IOException {
+        SnapshotFile.write(directory, 4, writer -> writeRecords(writer, "a"));
+        Files.write(directory.resolve("snapshot-0000000009.bin.tmp"), new byte[]{1, 2, 3});
+
+        List<String> loaded = new ArrayList<>();
+        assertEquals(4, SnapshotFile.loadLatest(directory, (type, in) -> loaded.add(in.readUTF())));
+        assertEquals(List.of("a"), loaded);
+
+        SnapshotFile.deleteOlderThan(directory, 4);
+        assertEquals(List.of("snapshot-0000000004.bin"), files());
+    }
+
+    private static void writeRecords(SnapshotFile.Writer writer, String... payloads) throws IOException {
+        for (String payload : payloads) {
+            writer.write(RecordType.PUT_BOOK, out -> out.writeUTF(payload));
+        }
+    }
+
+    private static void frame(ByteArrayOutputStream file, RecordType type, CRC32 crc,
+                              WriteAheadLog.RecordWriter writer) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writer.write(new DataOutputStream(payload));
+        WriteAheadLog.frame(file, type, payload.toByteArray(), payload.size(), crc);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
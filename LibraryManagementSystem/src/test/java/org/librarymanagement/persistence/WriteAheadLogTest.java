@@ -0,0 +1,214 @@
+package org.librarymanagement.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Records written through the log come back on replay, across segments and crashes.
+ * Payloads are plain strings; replay does not look inside them.
+ */
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendedRecordsAreReplayedAfterReopening() throws IOException {
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            for (int i = 0; i < 100; i++) {
+                appendDurably(wal, "record " + i);
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(expected(0, 100), replayed);
+    }
+
+    @Test
+    void tornTailIsTruncatedAndAppendingContinuesAfterIt() throws IOException {
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            for (int i = 0; i < 10; i++) {
+                appendDurably(wal, "record " + i);
+            }
+        }
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+        // A crash in the middle of a write: a header promising more payload than follows it
+        Files.write(segment, new byte[]{0, 0, 0, 64, 1, 2, 3, 4, 1, 'x', 'y'}, StandardOpenOption.APPEND);
+
+        List<String> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(replayed)) {
+            assertEquals(expected(0, 10), replayed);
+            assertEquals(intact, Files.size(segment), "torn tail should be cut off");
+            appendDurably(wal, "record 10");
+        }
+
+        replayed.clear();
+        open(replayed).close();
+        assertEquals(expected(0, 11), replayed);
+    }
+
+    @Test
+    void corruptChecksumEndsTheValidPrefix() throws IOException {
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            for (int i = 0; i < 3; i++) {
+                appendDurably(wal, "record " + i);
+            }
+        }
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x5a;
+        Files.write(segment, bytes);
+
+        List<String> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(expected(0, 2), replayed);
+    }
+
+    @Test
+    void rotationStartsANewSegmentAndReplayCrossesSegments() throws IOException {
+        long second;
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            appendDurably(wal, "record 0");
+            appendDurably(wal, "record 1");
+            second = wal.rotate();
+            assertEquals(2, second);
+            assertEquals(second, wal.currentSegment());
+            // Not waited for: rotate() itself makes everything before it durable
+            wal.append(RecordType.PUT_BOOK, out -> out.writeUTF("record 2"));
+            wal.rotate();
+            appendDurably(wal, "record 3");
+        }
+        assertEquals(3, segmentCount());
+
+        List<String> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(expected(0, 4), replayed);
+
+        // A snapshot covering segment 1 lets replay start at segment 2 and drops segment 1
+        replayed.clear();
+        WriteAheadLog.open(directory, Duration.ZERO, second, (type, in) -> replayed.add(in.readUTF())).close();
+        assertEquals(expected(2, 4), replayed);
+        assertEquals(2, segmentCount());
+    }
+
+    @Test
+    void deleteSegmentsBeforeKeepsTheCurrentSegment() throws IOException {
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            appendDurably(wal, "record 0");
+            long next = wal.rotate();
+            appendDurably(wal, "record 1");
+            wal.deleteSegmentsBefore(next + 1);
+            assertEquals(1, segmentCount());
+            assertEquals(next, wal.currentSegment());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        WriteAheadLog.open(directory, Duration.ZERO, 2, (type, in) -> replayed.add(in.readUTF())).close();
+        assertEquals(List.of("record 1"), replayed);
+    }
+
+    @Test
+    void corruptionBeforeTheLastSegmentFailsOpen() throws IOException {
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            appendDurably(wal, "record 0");
+            appendDurably(wal, "record 1");
+            wal.rotate();
+            appendDurably(wal, "record 2");
+        }
+        Path first;
+        try (Stream<Path> files = Files.list(directory)) {
+            first = files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().findFirst().get();
+        }
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[bytes.length - 1] ^= 0x5a;
+        Files.write(first, bytes);
+
+        assertThrows(IOException.class, () -> open(new ArrayList<>()));
+    }
+
+    @Test
+    void appendingAfterCloseFails() throws IOException {
+        WriteAheadLog wal = open(new ArrayList<>());
+        wal.close();
+        assertThrows(IllegalStateException.class, () -> wal.append(RecordType.PUT_BOOK, out -> out.writeUTF("late")));
+    }
+
+    @Test
+    void concurrentWritersAreAllDurable() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        try (WriteAheadLog wal = open(new ArrayList<>())) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        appendDurably(wal, id + ":" + i);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        open(replayed).close();
+        assertEquals(threads * perThread, replayed.size());
+        // Each writer's records appear in the order it wrote them
+        int[] next = new int[threads];
+        for (String record : replayed) {
+            String[] parts = record.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]), "order of writer " + thread);
+        }
+        for (int count : next) {
+            assertEquals(perThread, count, "records of one writer");
+        }
+    }
+
+    private WriteAheadLog open(List<String> replayed) throws IOException {
+        return WriteAheadLog.open(directory, Duration.ZERO, 1, (type, in) -> replayed.add(in.readUTF()));
+    }
+
+    private static void appendDurably(WriteAheadLog wal, String payload) {
+        wal.awaitDurable(wal.append(RecordType.PUT_BOOK, out -> out.writeUTF(payload)));
+    }
+
+    private static List<String> expected(int from, int to) {
+        List<String> records = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            records.add("record " + i);
+        }
+        return records;
+    }
+
+    private Path onlySegment() throws IOException {
+        assertEquals(1, segmentCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).findFirst().get();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).count();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.librarymanagement.repository;
+
+import java.util.Random;
+
+/**
+ * Keys that crowd the end of a small open-addressing table, so probe runs are long and wrap
+ * around from the last slot to the first; removals then have to shift entries across the wrap.
+ */
+final class CollidingKeys {
+
+    private CollidingKeys() {
+    }
+
+    /**
+     * Distinct non-zero keys whose home slot is one of the last lastSlots slots of a table
+     * with the given (power of two) capacity
+     */
+    static long[] nearTheEnd(int capacity, int lastSlots, int count, Random random) {
+        long[] keys = new long[count];
+        int found = 0;
+        while (found < count) {
+            long key = random.nextLong();
+            int slot = PrimitiveHashing.mix(key) & (capacity - 1);
+            if (key != 0 && slot >= capacity - lastSlots) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Keys for random operations: the colliding keys plus 0 (stored outside the table)
+     */
+    static long[] withZero(long[] keys) {
+        long[] all = new long[keys.length + 1];
+        System.arraycopy(keys, 0, all, 1, keys.length);
+        return all;
+    }
+}
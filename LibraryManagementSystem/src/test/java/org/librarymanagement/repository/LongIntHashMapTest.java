@@ -0,0 +1,78 @@
+package org.librarymanagement.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random puts, increments and removes checked step by step against a HashMap
+ */
+class LongIntHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMapThroughResizes() {
+        Random random = new Random(42);
+        long[] universe = new long[2_000];
+        for (int i = 1; i < universe.length; i++) {
+            universe[i] = random.nextLong();
+        }
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = universe[random.nextInt(universe.length)];
+            apply(random.nextInt(100), key, op < 100_000 ? 60 : 40, random, map, expected);
+            assertEquals(expected.size(), map.size(), "size");
+            long probe = universe[random.nextInt(universe.length)];
+            assertEquals((int) expected.getOrDefault(probe, -1), map.getOrDefault(probe, -1), "get " + probe);
+            assertEquals(expected.containsKey(probe), map.containsKey(probe), "containsKey " + probe);
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void collisionChainsThatWrapAroundSurviveRemovals() {
+        Random random = new Random(7);
+        int capacity = LongObjectHashMap.capacityFor(16);
+        long[] keys = CollidingKeys.withZero(CollidingKeys.nearTheEnd(capacity, 3, 18, random));
+        LongIntHashMap map = new LongIntHashMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int op = 0; op < 100_000; op++) {
+            long key = keys[random.nextInt(keys.length)];
+            apply(random.nextInt(100), key, 50, random, map, expected);
+            assertEquals(expected.size(), map.size(), "size");
+            for (long k : keys) {
+                assertEquals((int) expected.getOrDefault(k, -1), map.getOrDefault(k, -1), "get " + k + " after op " + op);
+            }
+        }
+        assertSameEntries(expected, map);
+    }
+
+    /**
+     * Put or increment (chance in percent), otherwise remove
+     */
+    private static void apply(int roll, long key, int putPercent, Random random,
+                              LongIntHashMap map, Map<Long, Integer> expected) {
+        if (roll < putPercent / 2) {
+            int value = random.nextInt(1_000);
+            map.put(key, value);
+            expected.put(key, value);
+        } else if (roll < putPercent) {
+            int delta = random.nextInt(11) - 5;
+            assertEquals((int) expected.merge(key, delta, Integer::sum), map.addTo(key, delta), "addTo " + key);
+        } else {
+            assertEquals(expected.remove(key) != null, map.remove(key), "remove " + key);
+        }
+    }
+
+    private static void assertSameEntries(Map<Long, Integer> expected, LongIntHashMap map) {
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach((key, value) -> assertEquals(null, actual.put(key, value), "key visited twice: " + key));
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,95 @@
+package org.librarymanagement.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random adds and removes checked step by step against a HashMap of lists.
+ * Values are compared sorted, since remove does not keep their order.
+ */
+class LongLongArrayMapTest {
+
+    @Test
+    void randomOperationsMatchAMapOfLists() {
+        Random random = new Random(42);
+        long[] universe = new long[500];
+        for (int i = 1; i < universe.length; i++) {
+            universe[i] = random.nextLong();
+        }
+        LongLongArrayMap map = new LongLongArrayMap();
+        Map<Long, List<Long>> expected = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = universe[random.nextInt(universe.length)];
+            apply(random, key, op < 100_000 ? 60 : 40, map, expected);
+            assertEquals(expected.size(), map.size(), "keys");
+            long probe = universe[random.nextInt(universe.length)];
+            assertSameValues(expected, map, probe);
+        }
+        for (long key : universe) {
+            assertSameValues(expected, map, key);
+        }
+    }
+
+    @Test
+    void collisionChainsThatWrapAroundSurviveRemovals() {
+        Random random = new Random(7);
+        int capacity = LongObjectHashMap.capacityFor(16);
+        long[] keys = CollidingKeys.withZero(CollidingKeys.nearTheEnd(capacity, 3, 18, random));
+        LongLongArrayMap map = new LongLongArrayMap(16);
+        Map<Long, List<Long>> expected = new HashMap<>();
+
+        for (int op = 0; op < 100_000; op++) {
+            long key = keys[random.nextInt(keys.length)];
+            if (random.nextInt(50) == 0) {
+                map.removeAll(key);
+                expected.remove(key);
+            } else {
+                apply(random, key, 50, map, expected);
+            }
+            assertEquals(expected.size(), map.size(), "keys");
+            for (long k : keys) {
+                assertSameValues(expected, map, k);
+            }
+        }
+    }
+
+    /**
+     * Add a small value (chance in percent, so duplicates occur), otherwise remove one
+     */
+    private static void apply(Random random, long key, int addPercent,
+                              LongLongArrayMap map, Map<Long, List<Long>> expected) {
+        long value = random.nextInt(8);
+        if (random.nextInt(100) < addPercent) {
+            map.add(key, value);
+            expected.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        } else {
+            List<Long> values = expected.get(key);
+            boolean present = values != null && values.remove(value);
+            if (values != null && values.isEmpty()) {
+                expected.remove(key);
+            }
+            assertEquals(present, map.remove(key, value), "remove " + value + " from " + key);
+        }
+    }
+
+    private static void assertSameValues(Map<Long, List<Long>> expected, LongLongArrayMap map, long key) {
+        List<Long> values = expected.getOrDefault(key, List.of());
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] actual = map.get(key);
+        Arrays.sort(actual);
+        assertEquals(Arrays.toString(sorted), Arrays.toString(actual), "values of " + key);
+        assertEquals(values.size(), map.count(key), "count of " + key);
+        for (long value = 0; value < 8; value++) {
+            assertEquals(values.contains(value), map.contains(key, value), "contains " + value + " in " + key);
+        }
+    }
+}
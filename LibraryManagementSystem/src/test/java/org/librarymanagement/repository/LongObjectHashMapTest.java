@@ -0,0 +1,96 @@
+package org.librarymanagement.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random puts and removes checked step by step against a HashMap
+ */
+class LongObjectHashMapTest {
+
+    @Test
+    void randomOperationsMatchHashMapThroughResizes() {
+        Random random = new Random(42);
+        long[] universe = new long[2_000];
+        for (int i = 1; i < universe.length; i++) {
+            universe[i] = random.nextLong();
+        }
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = universe[random.nextInt(universe.length)];
+            // Puts outweigh removes early on, so the table grows, then removes catch up
+            if (random.nextInt(100) < (op < 100_000 ? 60 : 40)) {
+                String value = "v" + op;
+                assertEquals(expected.put(key, value), map.put(key, value), "put " + key);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key), "remove " + key);
+            }
+            assertEquals(expected.size(), map.size(), "size");
+            long probe = universe[random.nextInt(universe.length)];
+            assertEquals(expected.get(probe), map.get(probe), "get " + probe);
+            assertEquals(expected.containsKey(probe), map.containsKey(probe), "containsKey " + probe);
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void collisionChainsThatWrapAroundSurviveRemovals() {
+        Random random = new Random(7);
+        int capacity = LongObjectHashMap.capacityFor(16);
+        // 18 keys homed in the last 3 of 32 slots: one long run across the end of the table, no resize
+        long[] keys = CollidingKeys.withZero(CollidingKeys.nearTheEnd(capacity, 3, 18, random));
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(16);
+        Map<Long, String> expected = new HashMap<>();
+
+        for (int op = 0; op < 100_000; op++) {
+            long key = keys[random.nextInt(keys.length)];
+            if (random.nextBoolean()) {
+                String value = "v" + op;
+                assertEquals(expected.put(key, value), map.put(key, value), "put " + key);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key), "remove " + key);
+            }
+            assertEquals(expected.size(), map.size(), "size");
+            for (long k : keys) {
+                assertEquals(expected.get(k), map.get(k), "get " + k + " after op " + op);
+            }
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void clearEmptiesTheMapAndNullValuesAreRejected() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        assertEquals(3, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(null, map.get(0));
+        assertEquals(null, map.get(Long.MIN_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> map.put(5, null));
+    }
+
+    private static void assertSameEntries(Map<Long, String> expected, LongObjectHashMap<String> map) {
+        Map<Long, String> actual = new HashMap<>();
+        map.forEach((key, value) -> assertEquals(null, actual.put(key, value), "key visited twice: " + key));
+        assertEquals(expected, actual);
+        List<String> values = new ArrayList<>(map.values());
+        List<String> expectedValues = new ArrayList<>(expected.values());
+        values.sort(null);
+        expectedValues.sort(null);
+        assertEquals(expectedValues, values);
+    }
+}
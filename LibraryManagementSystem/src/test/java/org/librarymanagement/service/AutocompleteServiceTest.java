@@ -0,0 +1,125 @@
+package org.librarymanagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.observer.BorrowPopularityTracker;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Completions follow catalogue changes and borrow counts.
+ * Edits go straight to the CatalogObserver callbacks, as BookService would make them.
+ */
+class AutocompleteServiceTest {
+
+    private final BorrowPopularityTracker popularity = new BorrowPopularityTracker();
+    private final AutocompleteService autocomplete = new AutocompleteService(popularity);
+
+    @Test
+    void prefixesCompleteAtEveryWordStartIgnoringCase() {
+        autocomplete.onBookAdded(new Book("1", "The Clean Coder", "Robert C. Martin", 2011));
+
+        assertEquals(List.of("The Clean Coder"), autocomplete.complete("the"));
+        assertEquals(List.of("The Clean Coder"), autocomplete.complete("CLE"));
+        assertEquals(List.of("The Clean Coder"), autocomplete.complete("clean cod"));
+        assertEquals(List.of("Robert C. Martin"), autocomplete.complete("mart"));
+        assertEquals(List.of(), autocomplete.complete("lean"), "not a word start");
+        assertEquals(List.of(), autocomplete.complete("  "));
+        assertThrows(IllegalArgumentException.class, () -> autocomplete.complete("the", 0));
+    }
+
+    @Test
+    void titlesSharingKeysAreRemovedIndependently() {
+        Book withArticle = new Book("1", "The Clean Coder", "Robert C. Martin", 2011);
+        Book withoutArticle = new Book("2", "Clean Coder", "Someone Else", 2012);
+        autocomplete.onBookAdded(withArticle);
+        autocomplete.onBookAdded(withoutArticle);
+        assertEquals(List.of("Clean Coder", "The Clean Coder"), autocomplete.complete("clean coder"));
+
+        autocomplete.onBookRemoved(withArticle);
+        assertEquals(List.of("Clean Coder"), autocomplete.complete("clean coder"));
+        assertEquals(List.of("Clean Coder"), autocomplete.complete("c"));
+        assertEquals(List.of(), autocomplete.complete("the"));
+        assertEquals(List.of(), autocomplete.complete("robert"));
+
+        autocomplete.onBookAdded(withArticle);
+        autocomplete.onBookRemoved(withoutArticle);
+        assertEquals(List.of("The Clean Coder"), autocomplete.complete("clean coder"));
+        assertEquals(List.of(), autocomplete.complete("someone"));
+
+        autocomplete.onBookRemoved(withArticle);
+        assertEquals(List.of(), autocomplete.complete("c"));
+    }
+
+    @Test
+    void renamingABookReplacesItsCompletions() {
+        Book book = new Book("1", "Refactoring", "Martin Fowler", 1999);
+        autocomplete.onBookAdded(book);
+
+        Book renamed = new Book("1", "Refactoring: Improving the Design of Existing Code", "Martin Fowler", 2018);
+        autocomplete.onBookModified(renamed);
+        assertEquals(List.of("Refactoring: Improving the Design of Existing Code"), autocomplete.complete("refactoring"));
+        assertEquals(List.of("Refactoring: Improving the Design of Existing Code"), autocomplete.complete("design"));
+        assertEquals(List.of("Martin Fowler"), autocomplete.complete("fowler"));
+
+        // A status-only change leaves the completions as they are
+        autocomplete.onBookModified(renamed);
+        assertEquals(List.of("Refactoring: Improving the Design of Existing Code"), autocomplete.complete("refac"));
+    }
+
+    @Test
+    void completionsAreRankedByBorrowCount() {
+        autocomplete.onBookAdded(new Book("a", "Java Concurrency in Practice", "Brian Goetz", 2006));
+        autocomplete.onBookAdded(new Book("b", "Java Generics", "Maurice Naftalin", 2006));
+        autocomplete.onBookAdded(new Book("c", "Java Puzzlers", "Joshua Bloch", 2005));
+        borrow("a", 1);
+        borrow("b", 3);
+        borrow("c", 2);
+        assertEquals(List.of("Java Generics", "Java Puzzlers", "Java Concurrency in Practice"),
+                autocomplete.complete("java"));
+        assertEquals(List.of("Java Generics", "Java Puzzlers"), autocomplete.complete("jav", 2));
+
+        borrow("a", 4);
+        assertEquals(List.of("Java Concurrency in Practice", "Java Generics", "Java Puzzlers"),
+                autocomplete.complete("java"));
+        assertEquals(List.of("Java Concurrency in Practice"), autocomplete.complete("ja", 1));
+
+        // Removing the leader lowers the cached best of its subtree
+        autocomplete.onBookRemoved(new Book("a", "Java Concurrency in Practice", "Brian Goetz", 2006));
+        assertEquals(List.of("Java Generics"), autocomplete.complete("java", 1));
+    }
+
+    @Test
+    void copiesWithTheSameTitleAddUpTheirBorrows() {
+        autocomplete.onBookAdded(new Book("1", "Effective Java", "Joshua Bloch", 2001));
+        autocomplete.onBookAdded(new Book("2", "Effective Java", "Joshua Bloch", 2018));
+        autocomplete.onBookAdded(new Book("3", "Effective Python", "Brett Slatkin", 2015));
+        borrow("1", 2);
+        borrow("2", 2);
+        borrow("3", 3);
+        assertEquals(List.of("Effective Java", "Effective Python"), autocomplete.complete("effective"));
+
+        autocomplete.onBookRemoved(new Book("2", "Effective Java", "Joshua Bloch", 2018));
+        assertEquals(List.of("Effective Python", "Effective Java"), autocomplete.complete("effective"));
+    }
+
+    @Test
+    void booksAddedAfterBorrowsStartWithTheirCount() {
+        borrow("1", 5);
+        autocomplete.onBookAdded(new Book("2", "Domain-Driven Design", "Eric Evans", 2003));
+        autocomplete.onBookAdded(new Book("1", "Design Patterns", "Erich Gamma", 1994));
+        assertEquals(List.of("Design Patterns", "Domain-Driven Design"), autocomplete.complete("d"));
+    }
+
+    private void borrow(String isbn, int times) {
+        for (int i = 0; i < times; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            popularity.onBookBorrowed(new LendingRecord(isbn + "-" + i, "patron", isbn, now, now.plusDays(14)));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.librarymanagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.librarymanagement.mainentities.Book;
+import org.librarymanagement.mainentities.BookStatus;
+import org.librarymanagement.mainentities.LendingRecord;
+import org.librarymanagement.mainentities.Patron;
+import org.librarymanagement.mainentities.PatronFactory;
+import org.librarymanagement.repository.InMemoryBookRepository;
+import org.librarymanagement.repository.InMemoryLendingRepository;
+import org.librarymanagement.repository.InMemoryPatronRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads borrowing and returning the same few books for the same few patrons.
+ * The lending repository checks every new loan while LendingService still holds the book and
+ * patron locks, so a double loan or a patron over the limit is caught the moment it happens.
+ */
+class LendingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final int BOOKS = 12;
+    private static final int PATRONS = 6;
+
+    @Test
+    void concurrentBorrowsAndReturnsNeverLendACopyTwice() throws Exception {
+        InMemoryBookRepository bookRepository = new InMemoryBookRepository();
+        InMemoryPatronRepository patronRepository = new InMemoryPatronRepository();
+        CheckingLendingRepository lendingRepository = new CheckingLendingRepository(patronRepository);
+        LendingService lendingService = new LendingService(bookRepository, patronRepository, lendingRepository);
+
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            String isbn = "978-0-00-00000" + i;
+            bookRepository.add(new Book(isbn, "Book " + i, "Author " + i, 2000 + i));
+            isbns.add(isbn);
+        }
+        List<String> patronIds = new ArrayList<>();
+        for (int i = 0; i < PATRONS; i++) {
+            // Students (limit 5) and faculty (limit 10), fewer books than their combined limits
+            Patron patron = i % 2 == 0
+                    ? PatronFactory.createStudent("Student " + i, "s" + i + "@example.org", "555-000" + i)
+                    : PatronFactory.createFaculty("Faculty " + i, "f" + i + "@example.org", "555-100" + i);
+            patronRepository.add(patron);
+            patronIds.add(patron.getPatronId());
+        }
+
+        AtomicLong borrows = new AtomicLong();
+        AtomicLong returns = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    String isbn = isbns.get(random.nextInt(BOOKS));
+                    String patronId = patronIds.get(random.nextInt(PATRONS));
+                    try {
+                        if (random.nextBoolean()) {
+                            lendingService.borrowBook(isbn, patronId);
+                            borrows.incrementAndGet();
+                        } else {
+                            lendingService.returnBook(isbn, patronId);
+                            returns.incrementAndGet();
+                        }
+                    } catch (IllegalStateException expected) {
+                        // Book already out, patron at the limit or nothing to return
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertTrue(lendingRepository.violations.isEmpty(), () -> "Invariant violations: " + lendingRepository.violations);
+        assertTrue(borrows.get() > 1_000 && returns.get() > 1_000,
+                () -> "Too little contention to prove anything: " + borrows + " borrows, " + returns + " returns");
+
+        for (String isbn : isbns) {
+            long active = lendingRepository.findByIsbn(isbn).stream().filter(LendingRecord::isActive).count();
+            assertTrue(active <= 1, () -> isbn + " has " + active + " active loans");
+            BookStatus expected = active == 1 ? BookStatus.BORROWED : BookStatus.AVAILABLE;
+            assertEquals(expected, bookRepository.findByIsbn(isbn).orElseThrow().getStatus(), () -> "Status of " + isbn);
+        }
+        for (String patronId : patronIds) {
+            Patron patron = patronRepository.findById(patronId).orElseThrow();
+            List<LendingRecord> active = lendingRepository.findActiveLendings(patronId);
+            assertTrue(active.size() <= patron.getBorrowLimit(), () -> patronId + " is over the borrow limit");
+            assertEquals(active.size(), patron.getCurrentBorrowedCount(), () -> "Active-loan count of " + patronId);
+            assertTrue(patron.activeLoansMatch(active), () -> "Active-loan set of " + patronId);
+        }
+        assertEquals(0, lendingService.reconcileActiveLoans(), "Patrons rebuilt by reconciliation");
+    }
+
+    /**
+     * Checks each new loan against the loans already active; called with the book and patron locked
+     */
+    private static final class CheckingLendingRepository extends InMemoryLendingRepository {
+        private final InMemoryPatronRepository patronRepository;
+        private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+        CheckingLendingRepository(InMemoryPatronRepository patronRepository) {
+            this.patronRepository = patronRepository;
+        }
+
+        @Override
+        public void add(LendingRecord record) {
+            for (LendingRecord existing : findByIsbn(record.getIsbn())) {
+                if (existing.isActive()) {
+                    violations.add("Double loan of " + record.getIsbn() + ": " + existing.getRecordId()
+                            + " still active when " + record.getRecordId() + " was added");
+                }
+            }
+            int limit = patronRepository.findById(record.getPatronId()).orElseThrow().getBorrowLimit();
+            int active = findActiveLendings(record.getPatronId()).size();
+            if (active >= limit) {
+                violations.add("Patron " + record.getPatronId() + " borrowed with " + active + " of " + limit + " loans");
+            }
+            super.add(record);
+        }
+    }
+}